@@ -0,0 +1,87 @@
+package com.college.duemanagement.benchmarks;
+
+import com.college.duemanagement.config.ExecutorProperties;
+import com.college.duemanagement.dto.EmailMessage;
+import com.college.duemanagement.service.EmailRenderer;
+import org.openjdk.jmh.annotations.*;
+import org.thymeleaf.spring6.SpringTemplateEngine;
+import org.thymeleaf.templatemode.TemplateMode;
+import org.thymeleaf.templateresolver.ClassLoaderTemplateResolver;
+
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+/**
+ * Renders per second of email/credentials.html through EmailRenderer, resolved from
+ * the application jar the same way Boot resolves it.
+ *
+ * cacheable=false is what the engine does with spring.thymeleaf.cache=false: the
+ * template is read and parsed on every render.
+ * renderOne: a single credentials email on the calling thread.
+ * renderAll: a batch of {@code batchSize} on a pool sized like the mail executor; divide the score by
+ * batchSize for renders/sec.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class EmailRenderBenchmark {
+
+    @Param({"true", "false"})
+    public boolean cacheable;
+
+    @Param({"500"})
+    public int batchSize;
+
+    private ExecutorService renderPool;
+    private EmailRenderer renderer;
+    private EmailMessage message;
+    private List<EmailMessage> batch;
+
+    @Setup
+    public void setUp() {
+        ClassLoaderTemplateResolver resolver = new ClassLoaderTemplateResolver();
+        resolver.setPrefix("templates/");
+        resolver.setSuffix(".html");
+        resolver.setTemplateMode(TemplateMode.HTML);
+        resolver.setCharacterEncoding("UTF-8");
+        resolver.setCacheable(cacheable);
+
+        SpringTemplateEngine templateEngine = new SpringTemplateEngine();
+        templateEngine.setTemplateResolver(resolver);
+
+        // Same shape as the application's mail executor
+        ExecutorProperties properties = new ExecutorProperties();
+        int threads = properties.getMail().getMaxSize();
+        renderPool = Executors.newFixedThreadPool(threads);
+        renderer = new EmailRenderer(templateEngine, renderPool, properties);
+
+        message = credentials(42);
+        batch = IntStream.range(0, batchSize).mapToObj(EmailRenderBenchmark::credentials).toList();
+    }
+
+    @TearDown
+    public void tearDown() {
+        renderPool.shutdownNow();
+    }
+
+    @Benchmark
+    public String renderOne() {
+        return renderer.render(message).body();
+    }
+
+    @Benchmark
+    public int renderAll() {
+        return renderer.renderAll(batch).size();
+    }
+
+    private static EmailMessage credentials(int i) {
+        return new EmailMessage.Credentials("student" + i + "@college.edu", "Student " + i, "student" + i,
+                "UC" + (100000 + i), "Pa55word-" + i);
+    }
+}
@@ -0,0 +1,75 @@
+package com.college.duemanagement.benchmarks;
+
+import com.college.duemanagement.security.jwt.JwtUtils;
+import com.college.duemanagement.security.services.UserDetailsImpl;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.io.Decoders;
+import io.jsonwebtoken.security.Keys;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+import java.security.Key;
+import java.security.SecureRandom;
+import java.util.Base64;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-request JWT work done by AuthTokenFilter.
+ *
+ * legacy*: what the filter used to do - decode the secret and build a key and parser
+ * for validateJwtToken, then do it all again for getUserNameFromJwtToken.
+ * precomputed*: JwtUtils.validateAndGetClaims with the key and parser built once.
+ *
+ * Run with -prof gc to compare allocation per operation.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class JwtParseBenchmark {
+
+    private String secret;
+    private String token;
+    private JwtUtils jwtUtils;
+
+    @Setup
+    public void setUp() {
+        byte[] secretBytes = new byte[64];
+        new SecureRandom().nextBytes(secretBytes);
+        secret = Base64.getEncoder().encodeToString(secretBytes);
+
+        jwtUtils = new JwtUtils(secret, 86_400_000, "primary", List.of());
+
+        UserDetailsImpl principal = new UserDetailsImpl(42L, "jdoe", "jdoe@college.edu", null,
+                "Computer Science", List.of(new SimpleGrantedAuthority("ROLE_STUDENT")), 0);
+        token = jwtUtils.generateJwtToken(
+                new UsernamePasswordAuthenticationToken(principal, null, principal.getAuthorities()));
+    }
+
+    @Benchmark
+    public String legacyValidateThenGetUsername() {
+        Jwts.parserBuilder().setSigningKey(legacyKey()).build().parseClaimsJws(token);
+        return Jwts.parserBuilder().setSigningKey(legacyKey()).build()
+                .parseClaimsJws(token).getBody().getSubject();
+    }
+
+    @Benchmark
+    public String precomputedValidateAndGetClaims() {
+        Claims claims = jwtUtils.validateAndGetClaims(token);
+        return claims.getSubject();
+    }
+
+    @Benchmark
+    public Key legacyKeyDerivationOnly() {
+        return legacyKey();
+    }
+
+    private Key legacyKey() {
+        return Keys.hmacShaKeyFor(Decoders.BASE64.decode(secret));
+    }
+}
@@ -0,0 +1,160 @@
+package com.college.duemanagement.benchmarks;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Closed-loop HTTP load against a running instance: at each concurrency level, that many
+ * clients send requests back to back for a fixed time. Prints throughput and latency
+ * percentiles per level, so a run with spring.threads.virtual.enabled=false can be set
+ * against one with it true.
+ *
+ * <pre>
+ * java -cp target/benchmarks.jar com.college.duemanagement.benchmarks.LoadTest \
+ *     --url http://localhost:8080 --path "/api/dues?size=20" \
+ *     --username admin --password admin123 --concurrency 16,64,256,1024 --seconds 30
+ * </pre>
+ */
+public class LoadTest {
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = parse(args);
+        String url = options.getOrDefault("url", "http://localhost:8080");
+        String path = options.getOrDefault("path", "/api/dues?size=20");
+        int[] levels = Arrays.stream(options.getOrDefault("concurrency", "16,64,256,1024").split(","))
+                .mapToInt(level -> Integer.parseInt(level.trim())).toArray();
+        Duration duration = Duration.ofSeconds(Long.parseLong(options.getOrDefault("seconds", "30")));
+        Duration warmup = Duration.ofSeconds(Long.parseLong(options.getOrDefault("warmup", "10")));
+
+        HttpClient client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .executor(Executors.newVirtualThreadPerTaskExecutor())
+                .connectTimeout(Duration.ofSeconds(10))
+                .build();
+        String token = signIn(client, url, options.getOrDefault("username", "admin"),
+                options.getOrDefault("password", "admin123"));
+        HttpRequest request = HttpRequest.newBuilder(URI.create(url + path))
+                .header("Authorization", "Bearer " + token)
+                .timeout(Duration.ofSeconds(30))
+                .GET()
+                .build();
+
+        System.out.printf("Warming up %s for %ds%n", path, warmup.toSeconds());
+        run(client, request, levels[0], warmup);
+
+        System.out.printf("%n%12s %12s %10s %10s %10s %10s %8s%n",
+                "concurrency", "req/s", "p50 ms", "p90 ms", "p99 ms", "max ms", "errors");
+        for (int level : levels) {
+            Result result = run(client, request, level, duration);
+            System.out.printf("%12d %12.1f %10.2f %10.2f %10.2f %10.2f %8d%n", level,
+                    result.count() / (double) duration.toSeconds(),
+                    result.percentile(0.50), result.percentile(0.90), result.percentile(0.99),
+                    result.percentile(1.0), result.errors());
+        }
+    }
+
+    private static Result run(HttpClient client, HttpRequest request, int concurrency, Duration duration)
+            throws Exception {
+        long deadline = System.nanoTime() + duration.toNanos();
+        List<Future<Sample>> clients = new ArrayList<>(concurrency);
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < concurrency; i++) {
+                clients.add(executor.submit(() -> {
+                    Sample sample = new Sample();
+                    while (System.nanoTime() < deadline) {
+                        long start = System.nanoTime();
+                        try {
+                            HttpResponse<Void> response = client.send(request, HttpResponse.BodyHandlers.discarding());
+                            if (response.statusCode() >= 400) {
+                                sample.errors++;
+                                continue;
+                            }
+                        } catch (Exception e) {
+                            sample.errors++;
+                            continue;
+                        }
+                        sample.add(System.nanoTime() - start);
+                    }
+                    return sample;
+                }));
+            }
+        }
+
+        Sample total = new Sample();
+        for (Future<Sample> future : clients) {
+            Sample sample = future.get();
+            for (int i = 0; i < sample.count; i++) {
+                total.add(sample.latencies[i]);
+            }
+            total.errors += sample.errors;
+        }
+        long[] latencies = Arrays.copyOf(total.latencies, total.count);
+        Arrays.sort(latencies);
+        return new Result(latencies, total.errors);
+    }
+
+    private static String signIn(HttpClient client, String url, String username, String password) throws Exception {
+        ObjectMapper objectMapper = new ObjectMapper();
+        String body = objectMapper.writeValueAsString(Map.of("username", username, "password", password));
+        HttpResponse<String> response = client.send(HttpRequest.newBuilder(URI.create(url + "/api/auth/signin"))
+                        .header("Content-Type", "application/json")
+                        .POST(HttpRequest.BodyPublishers.ofString(body))
+                        .build(),
+                HttpResponse.BodyHandlers.ofString());
+        if (response.statusCode() != 200) {
+            throw new IllegalStateException("Sign-in failed with " + response.statusCode() + ": " + response.body());
+        }
+        JsonNode json = objectMapper.readTree(response.body());
+        return json.get("token").asText();
+    }
+
+    private static Map<String, String> parse(String[] args) {
+        Map<String, String> options = new HashMap<>();
+        for (int i = 0; i + 1 < args.length; i += 2) {
+            options.put(args[i].replaceFirst("^--", ""), args[i + 1]);
+        }
+        return options;
+    }
+
+    private static final class Sample {
+        private long[] latencies = new long[1024];
+        private int count;
+        private int errors;
+
+        void add(long nanos) {
+            if (count == latencies.length) {
+                latencies = Arrays.copyOf(latencies, count * 2);
+            }
+            latencies[count++] = nanos;
+        }
+    }
+
+    private record Result(long[] latencies, int errors) {
+
+        int count() {
+            return latencies.length;
+        }
+
+        double percentile(double p) {
+            if (latencies.length == 0) {
+                return Double.NaN;
+            }
+            int index = (int) Math.ceil(p * latencies.length) - 1;
+            return latencies[Math.max(0, Math.min(index, latencies.length - 1))] / 1_000_000.0;
+        }
+    }
+}
@@ -14,7 +14,6 @@ import org.springframework.boot.CommandLineRunner;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.context.annotation.Bean;
-import org.springframework.scheduling.annotation.EnableAsync;
 import org.springframework.scheduling.annotation.EnableScheduling;
 import org.springframework.security.crypto.password.PasswordEncoder;
 
@@ -23,7 +22,6 @@ import java.util.Collections;
 
 @SpringBootApplication
 @EnableScheduling
-@EnableAsync
 @OpenAPIDefinition(info = @Info(title = "NO DUES API", version = "1.0", description = "API documentation for NO DUES"))
 public class DueManagementApplication {
 
@@ -0,0 +1,91 @@
+package com.college.duemanagement.config;
+
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.hibernate.cfg.JdbcSettings;
+import org.hibernate.resource.jdbc.spi.PhysicalConnectionHandlingMode;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Read replicas. With {@code replicas.pools} configured, read-only transactions run on a
+ * replica and everything else on {@code spring.datasource}; without, this is skipped and
+ * Boot's single pool is used.
+ *
+ * Read-only covers {@code @Transactional(readOnly = true)} services and Spring Data's
+ * inherited finders ({@code findById}, {@code findAll}, {@code count}) called outside a
+ * transaction; query methods declared on the repositories are not read-only unless annotated.
+ * Inside a read-write transaction all of these share its primary connection. A read
+ * may miss a write committed just before it, by up to {@code replicas.max-lag-ms}.
+ */
+@Configuration
+@ConditionalOnProperty(name = "replicas.pools[0].url")
+@EnableConfigurationProperties(ReplicaProperties.class)
+public class DataSourceConfig {
+
+    // The pool Boot would have built from spring.datasource.*
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        HikariDataSource dataSource = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        dataSource.setPoolName("primary");
+        return dataSource;
+    }
+
+    @Bean
+    public ReplicaRoutingDataSource replicaRoutingDataSource(HikariDataSource primaryDataSource,
+                                                             ReplicaProperties properties,
+                                                             MeterRegistry meterRegistry) {
+        List<HikariDataSource> pools = new ArrayList<>();
+        for (int i = 0; i < properties.getPools().size(); i++) {
+            ReplicaProperties.Pool pool = properties.getPools().get(i);
+            HikariConfig config = new HikariConfig();
+            config.setPoolName("replica-" + (pool.getName() != null ? pool.getName() : i));
+            config.setJdbcUrl(pool.getUrl());
+            config.setUsername(pool.getUsername() != null ? pool.getUsername() : primaryDataSource.getUsername());
+            config.setPassword(pool.getPassword() != null ? pool.getPassword() : primaryDataSource.getPassword());
+            config.setDriverClassName(primaryDataSource.getDriverClassName());
+            config.setDataSourceProperties(primaryDataSource.getDataSourceProperties());
+            config.setMaximumPoolSize(pool.getMaximumPoolSize());
+            config.setConnectionTimeout(pool.getConnectionTimeoutMs());
+            config.setReadOnly(true);
+            // A replica that is down at startup is skipped, not fatal
+            config.setInitializationFailTimeout(-1);
+            config.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(meterRegistry));
+            pools.add(new HikariDataSource(config));
+        }
+        return new ReplicaRoutingDataSource(primaryDataSource, pools, properties.getLagQuery(),
+                properties.getMaxLagMs(), meterRegistry);
+    }
+
+    // Hibernate takes its connection when the transaction begins, before Spring marks it
+    // read-only; the proxy defers the pick until the first statement
+    @Bean
+    @Primary
+    public DataSource dataSource(ReplicaRoutingDataSource replicaRoutingDataSource) {
+        return new LazyConnectionDataSourceProxy(replicaRoutingDataSource);
+    }
+
+    // Spring otherwise holds a session's connection until the session closes, which with
+    // open-in-view is the end of the request: a replica connection taken by a read-only
+    // transaction would carry the request's later writes. Released per transaction, each
+    // transaction picks its own.
+    @Bean
+    public HibernatePropertiesCustomizer releaseConnectionsAfterTransaction() {
+        return hibernateProperties -> hibernateProperties.put(JdbcSettings.CONNECTION_HANDLING,
+                PhysicalConnectionHandlingMode.DELAYED_ACQUISITION_AND_RELEASE_AFTER_TRANSACTION);
+    }
+}
@@ -0,0 +1,141 @@
+package com.college.duemanagement.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.aop.interceptor.AsyncUncaughtExceptionHandler;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.task.SimpleAsyncTaskExecutorBuilder;
+import org.springframework.boot.task.ThreadPoolTaskExecutorBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.scheduling.annotation.AsyncConfigurer;
+import org.springframework.scheduling.annotation.EnableAsync;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionHandler;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * One bounded executor per workload, so a burst in one (a mass email, a large import)
+ * queues or is turned away in its own pool instead of taking threads from the others
+ * or from request handling.
+ *
+ * <ul>
+ *   <li>{@code mailExecutor}: email rendering, and {@code @Async} methods</li>
+ *   <li>{@code reportExecutor}: streamed exports, which the export endpoints route here themselves</li>
+ *   <li>{@code bulkExecutor}: bulk due and student import jobs</li>
+ *   <li>{@code applicationTaskExecutor}: Spring MVC's default for async request handling, built
+ *       from {@code spring.task.execution.*} as Boot would, since Boot backs off once any
+ *       executor bean is defined</li>
+ * </ul>
+ *
+ * With {@code spring.threads.virtual.enabled=true} (which also moves Tomcat's request
+ * handling to virtual threads) every executor runs on virtual threads unless its
+ * {@code virtual-threads} property says otherwise.
+ *
+ * Pool executors get Boot's {@code executor.*} metrics (active, queued, queue.remaining,
+ * completed); each executor also counts {@code executor.rejected}, and virtual-thread ones
+ * report {@code executor.active} themselves.
+ */
+@Configuration
+@EnableAsync
+@EnableConfigurationProperties(ExecutorProperties.class)
+public class ExecutorConfig implements AsyncConfigurer {
+    private static final Logger logger = LoggerFactory.getLogger(ExecutorConfig.class);
+
+    private final ExecutorProperties properties;
+    private final MeterRegistry meterRegistry;
+    private final boolean virtualThreadsByDefault;
+
+    public ExecutorConfig(ExecutorProperties properties, MeterRegistry meterRegistry,
+                          @Value("${spring.threads.virtual.enabled:false}") boolean virtualThreadsByDefault) {
+        this.properties = properties;
+        this.meterRegistry = meterRegistry;
+        this.virtualThreadsByDefault = virtualThreadsByDefault;
+    }
+
+    @Bean
+    public AsyncTaskExecutor mailExecutor() {
+        return build("mailExecutor", "mail-", properties.getMail());
+    }
+
+    @Bean
+    public AsyncTaskExecutor reportExecutor() {
+        return build("reportExecutor", "report-", properties.getReports());
+    }
+
+    @Bean
+    public AsyncTaskExecutor bulkExecutor() {
+        return build("bulkExecutor", "bulk-", properties.getBulk());
+    }
+
+    @Bean
+    public AsyncTaskExecutor applicationTaskExecutor(ThreadPoolTaskExecutorBuilder poolBuilder,
+                                                     SimpleAsyncTaskExecutorBuilder virtualThreadBuilder) {
+        return virtualThreadsByDefault ? virtualThreadBuilder.build() : poolBuilder.build();
+    }
+
+    @Override
+    public Executor getAsyncExecutor() {
+        return mailExecutor();
+    }
+
+    @Override
+    public AsyncUncaughtExceptionHandler getAsyncUncaughtExceptionHandler() {
+        return (e, method, params) -> logger.error("@Async {} failed: {}", method.getName(), e.getMessage(), e);
+    }
+
+    private AsyncTaskExecutor build(String name, String threadNamePrefix, ExecutorProperties.Pool pool) {
+        Counter rejected = Counter.builder("executor.rejected").tag("name", name)
+                .description("Tasks turned away because the executor was saturated")
+                .register(meterRegistry);
+
+        boolean virtualThreads = pool.getVirtualThreads() != null ? pool.getVirtualThreads() : virtualThreadsByDefault;
+        if (virtualThreads) {
+            // No queue: once maxSize tasks are running, submitters block until one finishes
+            SimpleAsyncTaskExecutor executor = new SimpleAsyncTaskExecutor(threadNamePrefix);
+            executor.setVirtualThreads(true);
+            executor.setConcurrencyLimit(pool.getMaxSize());
+            executor.setTaskTerminationTimeout(pool.getAwaitTerminationSeconds() * 1000L);
+            AtomicInteger active = new AtomicInteger();
+            executor.setTaskDecorator(task -> () -> {
+                active.incrementAndGet();
+                try {
+                    task.run();
+                } finally {
+                    active.decrementAndGet();
+                }
+            });
+            Gauge.builder("executor.active", active, AtomicInteger::get).tag("name", name)
+                    .description("Tasks currently running")
+                    .register(meterRegistry);
+            return executor;
+        }
+
+        RejectedExecutionHandler policy = switch (pool.getRejectionPolicy()) {
+            case ABORT -> new ThreadPoolExecutor.AbortPolicy();
+            case CALLER_RUNS -> new ThreadPoolExecutor.CallerRunsPolicy();
+        };
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setThreadNamePrefix(threadNamePrefix);
+        executor.setCorePoolSize(pool.getCoreSize());
+        executor.setMaxPoolSize(pool.getMaxSize());
+        executor.setQueueCapacity(pool.getQueueCapacity());
+        executor.setKeepAliveSeconds(pool.getKeepAliveSeconds());
+        executor.setRejectedExecutionHandler((task, threadPool) -> {
+            rejected.increment();
+            policy.rejectedExecution(task, threadPool);
+        });
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(pool.getAwaitTerminationSeconds());
+        return executor;
+    }
+}
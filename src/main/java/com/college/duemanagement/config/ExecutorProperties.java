@@ -0,0 +1,56 @@
+package com.college.duemanagement.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Sizing of the per-workload executors built by {@link ExecutorConfig}, bound from
+ * {@code executors.mail.*}, {@code executors.reports.*} and {@code executors.bulk.*}.
+ */
+@Data
+@ConfigurationProperties(prefix = "executors")
+public class ExecutorProperties {
+
+    /** Email rendering and the default executor for {@code @Async}. */
+    private Pool mail = new Pool(4, 4, 1000, RejectionPolicy.CALLER_RUNS);
+
+    /** Streamed exports. */
+    private Pool reports = new Pool(2, 4, 8, RejectionPolicy.ABORT);
+
+    /** Bulk due creation and student imports. */
+    private Pool bulk = new Pool(1, 2, 10, RejectionPolicy.ABORT);
+
+    public enum RejectionPolicy {
+        /** Fail the submission; HTTP callers get a 503. */
+        ABORT,
+        /** Run the task on the submitting thread, slowing the producer down to the pool's pace. */
+        CALLER_RUNS
+    }
+
+    @Data
+    public static class Pool {
+        private int coreSize;
+        /** Threads beyond coreSize are only started once the queue is full. With virtual threads, the concurrency limit. */
+        private int maxSize;
+        private int queueCapacity;
+        private int keepAliveSeconds = 60;
+        /** What to do with a task when the queue and every thread are busy. Ignored with virtual threads, where submitters block. */
+        private RejectionPolicy rejectionPolicy;
+        /**
+         * Run each task on a new virtual thread instead of a pool, at most maxSize at a time.
+         * Unset follows {@code spring.threads.virtual.enabled}.
+         */
+        private Boolean virtualThreads;
+        private int awaitTerminationSeconds = 30;
+
+        public Pool() {
+        }
+
+        Pool(int coreSize, int maxSize, int queueCapacity, RejectionPolicy rejectionPolicy) {
+            this.coreSize = coreSize;
+            this.maxSize = maxSize;
+            this.queueCapacity = queueCapacity;
+            this.rejectionPolicy = rejectionPolicy;
+        }
+    }
+}
@@ -0,0 +1,46 @@
+package com.college.duemanagement.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Read replicas for {@link DataSourceConfig}, bound from {@code replicas.*}. With no pools
+ * configured every query goes to {@code spring.datasource}.
+ */
+@Data
+@ConfigurationProperties(prefix = "replicas")
+public class ReplicaProperties {
+
+    /** Replicas that read-only transactions are spread over. */
+    private List<Pool> pools = new ArrayList<>();
+
+    /** A replica further behind the primary than this is skipped until it catches up. */
+    private long maxLagMs = 10000;
+
+    /** How often each replica is checked for being reachable and for its lag. */
+    private long checkIntervalMs = 5000;
+
+    /**
+     * Query measuring a replica's lag in seconds: its Seconds_Behind_Source column if it has one
+     * (MySQL's {@code SHOW REPLICA STATUS}), otherwise the first column. NULL or no row means the
+     * replica is not replicating. Unset, replicas are only checked for being reachable.
+     */
+    private String lagQuery;
+
+    @Data
+    public static class Pool {
+        /** Names the pool ({@code replica-<name>}) in logs and metrics. Defaults to the pool's index. */
+        private String name;
+        private String url;
+        /** Defaults to spring.datasource.username. */
+        private String username;
+        /** Defaults to spring.datasource.password. */
+        private String password;
+        private int maximumPoolSize = 10;
+        /** How long a read waits for a connection before trying another replica or the primary. */
+        private long connectionTimeoutMs = 2000;
+    }
+}
@@ -0,0 +1,214 @@
+package com.college.duemanagement.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+import java.sql.SQLTransientConnectionException;
+import java.sql.Statement;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Hands out replica connections inside read-only transactions, round robin over the replicas
+ * that passed their last check, and primary connections otherwise. A replica that cannot be
+ * reached or lags more than {@code replicas.max-lag-ms} is skipped until a later check passes;
+ * with no replica left, reads go to the primary.
+ *
+ * Replicas start out of rotation and the first check runs on the scheduler once the context
+ * is up, so an unreachable replica costs startup nothing and nothing reads from a replica
+ * before it was seen caught up. A pool that merely had no free connection in time says
+ * nothing about the replica and leaves it in rotation.
+ *
+ * Decides when asked for a connection, so it sits behind a
+ * {@link org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy}: transaction
+ * managers open their connection before the transaction is marked read-only.
+ *
+ * Besides Hikari's {@code hikaricp.connections.*} per pool, each replica reports
+ * {@code datasource.replica.lag} and {@code datasource.replica.available}, and
+ * {@code datasource.replica.fallback} counts reads sent to the primary for want of a replica.
+ */
+public class ReplicaRoutingDataSource extends AbstractDataSource implements AutoCloseable {
+    private static final Logger logger = LoggerFactory.getLogger(ReplicaRoutingDataSource.class);
+
+    private static final List<String> LAG_COLUMNS = List.of("Seconds_Behind_Source", "Seconds_Behind_Master");
+
+    private final DataSource primary;
+    private final List<Replica> replicas;
+    private final String lagQuery;
+    private final long maxLagMs;
+    private final Counter fallbacks;
+    private final AtomicInteger next = new AtomicInteger();
+
+    public ReplicaRoutingDataSource(DataSource primary, List<HikariDataSource> pools, String lagQuery,
+                                    long maxLagMs, MeterRegistry meterRegistry) {
+        this.primary = primary;
+        this.replicas = pools.stream().map(Replica::new).toList();
+        this.lagQuery = lagQuery;
+        this.maxLagMs = maxLagMs;
+        this.fallbacks = Counter.builder("datasource.replica.fallback")
+                .description("Read-only connections taken from the primary because no replica was available")
+                .register(meterRegistry);
+        for (Replica replica : replicas) {
+            Gauge.builder("datasource.replica.lag", replica, r -> r.lagSeconds).tag("pool", replica.name())
+                    .baseUnit("seconds")
+                    .description("Replication lag at the last check, NaN if unknown")
+                    .register(meterRegistry);
+            Gauge.builder("datasource.replica.available", replica, r -> r.available ? 1 : 0).tag("pool", replica.name())
+                    .description("1 while the replica takes reads")
+                    .register(meterRegistry);
+        }
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return route(DataSource::getConnection);
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return route(dataSource -> dataSource.getConnection(username, password));
+    }
+
+    private Connection route(ConnectionSource source) throws SQLException {
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly() || replicas.isEmpty()) {
+            return source.connect(primary);
+        }
+        int start = Math.floorMod(next.getAndIncrement(), replicas.size());
+        for (int i = 0; i < replicas.size(); i++) {
+            Replica replica = replicas.get((start + i) % replicas.size());
+            if (!replica.available) {
+                continue;
+            }
+            try {
+                return source.connect(replica.pool);
+            } catch (SQLFeatureNotSupportedException e) {
+                // Hikari pools refuse per-call credentials; that says nothing about the replica
+                throw e;
+            } catch (SQLException e) {
+                if (!poolBusy(e)) {
+                    replica.markUnavailable(Double.NaN, "unreachable: " + e.getMessage());
+                }
+            }
+        }
+        fallbacks.increment();
+        return source.connect(primary);
+    }
+
+    /** Puts replicas that are reachable and caught up back in rotation, and takes the others out. */
+    @Scheduled(fixedDelayString = "${replicas.check-interval-ms:5000}",
+            initialDelay = 0)
+    public void checkReplicas() {
+        replicas.forEach(this::check);
+    }
+
+    private void check(Replica replica) {
+        try (Connection connection = replica.pool.getConnection()) {
+            if (lagQuery == null) {
+                replica.markAvailable(Double.NaN);
+                return;
+            }
+            Double lag = queryLag(connection);
+            if (lag == null) {
+                replica.markUnavailable(Double.NaN, "not replicating");
+            } else if (lag * 1000 > maxLagMs) {
+                replica.markUnavailable(lag, lag + "s behind the primary");
+            } else {
+                replica.markAvailable(lag);
+            }
+        } catch (SQLException e) {
+            if (poolBusy(e)) {
+                logger.debug("Replica {} check skipped, pool busy", replica.name());
+            } else {
+                replica.markUnavailable(Double.NaN, "unreachable: " + e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Hikari times out with a cause when it could not connect and without one when every
+     * connection was simply in use.
+     */
+    private static boolean poolBusy(SQLException e) {
+        return e instanceof SQLTransientConnectionException && e.getCause() == null;
+    }
+
+    private Double queryLag(Connection connection) throws SQLException {
+        try (Statement statement = connection.createStatement();
+             ResultSet resultSet = statement.executeQuery(lagQuery)) {
+            if (!resultSet.next()) {
+                return null;
+            }
+            double lag = resultSet.getDouble(lagColumn(resultSet.getMetaData()));
+            return resultSet.wasNull() ? null : lag;
+        }
+    }
+
+    private static int lagColumn(ResultSetMetaData metaData) throws SQLException {
+        for (int column = 1; column <= metaData.getColumnCount(); column++) {
+            String label = metaData.getColumnLabel(column);
+            if (LAG_COLUMNS.stream().anyMatch(label::equalsIgnoreCase)) {
+                return column;
+            }
+        }
+        return 1;
+    }
+
+    @Override
+    public void close() {
+        replicas.forEach(replica -> replica.pool.close());
+    }
+
+    @FunctionalInterface
+    private interface ConnectionSource {
+        Connection connect(DataSource dataSource) throws SQLException;
+    }
+
+    private static final class Replica {
+        private final HikariDataSource pool;
+        private volatile boolean available;
+        private volatile boolean checked;
+        private volatile double lagSeconds = Double.NaN;
+
+        Replica(HikariDataSource pool) {
+            this.pool = pool;
+        }
+
+        String name() {
+            return pool.getPoolName();
+        }
+
+        void markAvailable(double lag) {
+            lagSeconds = lag;
+            checked = true;
+            if (!available) {
+                available = true;
+                logger.info("Replica {} taking reads", name());
+            }
+        }
+
+        void markUnavailable(double lag, String reason) {
+            lagSeconds = lag;
+            boolean changed = available || !checked;
+            checked = true;
+            if (changed) {
+                available = false;
+                logger.warn("Replica {} out of rotation: {}", name(), reason);
+            } else {
+                logger.debug("Replica {} still out of rotation: {}", name(), reason);
+            }
+        }
+    }
+}
@@ -0,0 +1,102 @@
+package com.college.duemanagement.config;
+
+import com.college.duemanagement.service.SignatureStore;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.DatabaseMetaData;
+import java.sql.ResultSet;
+import java.util.List;
+
+/**
+ * Moves e-signatures still held in the old LONGBLOB columns into the signature store.
+ * Runs at startup in small batches and is a no-op once every row has a hash, or when
+ * the legacy column does not exist (fresh schema). The emptied columns can be dropped
+ * by hand afterwards; ddl-auto=update never drops them.
+ */
+@Component
+public class SignatureBlobMigration implements ApplicationRunner {
+    private static final Logger logger = LoggerFactory.getLogger(SignatureBlobMigration.class);
+
+    private static final int BATCH_SIZE = 50;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final SignatureStore signatureStore;
+
+    public SignatureBlobMigration(JdbcTemplate jdbcTemplate, TransactionTemplate transactionTemplate,
+                                  SignatureStore signatureStore) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.signatureStore = signatureStore;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        migrate("users", "e_signature", "e_signature_hash");
+        migrate("department_signatures", "e_signature", "e_signature_hash");
+        migrate("no_dues_certificates", "principal_e_signature", "principal_e_signature_hash");
+    }
+
+    private void migrate(String table, String blobColumn, String hashColumn) {
+        if (!columnExists(table, blobColumn)) {
+            // Fresh schema, or the column was dropped after an earlier migration
+            logger.debug("Skipping signature migration for {}.{}: no such column", table, blobColumn);
+            return;
+        }
+
+        String select = "SELECT id, " + blobColumn + " FROM " + table
+                + " WHERE " + blobColumn + " IS NOT NULL AND " + hashColumn + " IS NULL AND id > ?"
+                + " ORDER BY id LIMIT " + BATCH_SIZE;
+        String update = "UPDATE " + table + " SET " + hashColumn + " = ?, " + blobColumn + " = NULL WHERE id = ?";
+
+        long lastId = 0;
+        int migrated = 0;
+        try {
+            while (true) {
+                long afterId = lastId;
+                List<LegacyBlob> batch = jdbcTemplate.query(select,
+                        (rs, rowNum) -> new LegacyBlob(rs.getLong(1), rs.getBytes(2)), afterId);
+                if (batch.isEmpty()) {
+                    break;
+                }
+                transactionTemplate.executeWithoutResult(status -> {
+                    for (LegacyBlob blob : batch) {
+                        String hash = signatureStore.store(blob.content(), null);
+                        jdbcTemplate.update(update, hash, blob.id());
+                    }
+                });
+                migrated += batch.size();
+                lastId = batch.get(batch.size() - 1).id();
+            }
+        } catch (RuntimeException e) {
+            // Committed batches stay migrated; the next startup picks up the rest
+            logger.error("Signature migration for {}.{} failed after {} rows", table, blobColumn, migrated, e);
+            return;
+        }
+
+        if (migrated > 0) {
+            logger.info("Moved {} e-signatures from {}.{} into the signature store", migrated, table, blobColumn);
+        }
+    }
+
+    private boolean columnExists(String table, String column) {
+        return Boolean.TRUE.equals(jdbcTemplate.execute((ConnectionCallback<Boolean>) connection -> {
+            DatabaseMetaData metaData = connection.getMetaData();
+            boolean upperCase = metaData.storesUpperCaseIdentifiers();
+            try (ResultSet columns = metaData.getColumns(connection.getCatalog(), null,
+                    upperCase ? table.toUpperCase() : table, upperCase ? column.toUpperCase() : column)) {
+                return columns.next();
+            }
+        }));
+    }
+
+    private record LegacyBlob(long id, byte[] content) {
+    }
+}
@@ -0,0 +1,84 @@
+package com.college.duemanagement.config;
+
+import com.college.duemanagement.entity.NoDuesCertificate;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * Fills {@code signed_mask} and {@code signed_count} for certificates signed before those
+ * columns existed (ddl-auto=update adds them as 0), then moves fully signed certificates
+ * still PENDING or PARTIAL to ALLSGND, which listing them used to do.
+ *
+ * Any certificate whose mask disagrees with its SIGNED department rows is recomputed from
+ * them, not only those still at 0: a legacy certificate that took one more signature before
+ * the backfill reached it holds just that bit. Runs in batches once every bean is created and
+ * before the web server takes requests, and is a no-op once every certificate is up to date.
+ */
+@Component
+public class SignatureCounterBackfill implements SmartInitializingSingleton {
+    private static final Logger logger = LoggerFactory.getLogger(SignatureCounterBackfill.class);
+
+    private static final int BATCH_SIZE = 500;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+
+    public SignatureCounterBackfill(JdbcTemplate jdbcTemplate, TransactionTemplate transactionTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        backfill();
+    }
+
+    public void backfill() {
+        List<String> departments = NoDuesCertificate.REQUIRED_DEPARTMENTS;
+        String required = departments.stream().map(d -> "'" + d + "'").collect(Collectors.joining(", "));
+        // Each department maps to its own bit, so SUM(DISTINCT ...) ORs them even if a row is duplicated
+        String bits = IntStream.range(0, departments.size())
+                .mapToObj(i -> "WHEN '" + departments.get(i) + "' THEN " + (1 << i))
+                .collect(Collectors.joining(" "));
+        String signed = "FROM department_signatures s WHERE s.certificate_id = no_dues_certificates.id " +
+                "AND s.status = 'SIGNED' AND s.department IN (" + required + ")";
+
+        String mask = "(SELECT COALESCE(SUM(DISTINCT CASE s.department " + bits + " END), 0) " + signed + ")";
+
+        String select = "SELECT id FROM no_dues_certificates WHERE id > ? AND signed_mask <> " + mask +
+                " ORDER BY id LIMIT " + BATCH_SIZE;
+        String update = "UPDATE no_dues_certificates SET signed_mask = " + mask + ", " +
+                "signed_count = (SELECT COUNT(DISTINCT s.department) " + signed + "), " +
+                "version = version + 1 WHERE id = ?";
+
+        long lastId = 0;
+        int backfilled = 0;
+        while (true) {
+            List<Long> batch = jdbcTemplate.queryForList(select, Long.class, lastId);
+            if (batch.isEmpty()) {
+                break;
+            }
+            transactionTemplate.executeWithoutResult(status ->
+                    jdbcTemplate.batchUpdate(update, batch, batch.size(), (ps, id) -> ps.setLong(1, id)));
+            backfilled += batch.size();
+            lastId = batch.get(batch.size() - 1);
+        }
+
+        int promoted = jdbcTemplate.update("UPDATE no_dues_certificates SET status = 'ALLSGND', updated_at = ?, " +
+                        "version = version + 1 WHERE principal_signed = ? AND signed_mask = ? AND status IN ('PENDING', 'PARTIAL')",
+                LocalDateTime.now(), false, NoDuesCertificate.ALL_SIGNED_MASK);
+
+        if (backfilled > 0 || promoted > 0) {
+            logger.info("Backfilled signature counters of {} certificates, {} now awaiting the principal", backfilled, promoted);
+        }
+    }
+}
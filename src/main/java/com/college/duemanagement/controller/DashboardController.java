@@ -8,16 +8,20 @@ import com.college.duemanagement.entity.Student;
 import com.college.duemanagement.entity.User;
 import com.college.duemanagement.repository.*;
 import com.college.duemanagement.security.services.UserDetailsImpl;
+import com.college.duemanagement.service.ActivityFeed;
+import com.college.duemanagement.service.DashboardService;
+import com.college.duemanagement.service.DashboardStatsProjection;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import java.util.*;
-import java.util.stream.Collectors;
 
 @CrossOrigin(origins = "*", maxAge = 3600)
 @RestController
@@ -37,6 +41,15 @@ public class DashboardController {
     @Autowired
     private DepartmentRepository departmentRepository;
 
+    @Autowired
+    private DashboardService dashboardService;
+
+    @Autowired
+    private DashboardStatsProjection statsProjection;
+
+    @Autowired
+    private ActivityFeed activityFeed;
+
 
     @GetMapping("/stats")
     @PreAuthorize("hasRole('ADMIN') or hasRole('HOD') or hasRole('DEPARTMENT_ADMIN') or hasRole('PRINCIPAL') or hasRole('STUDENT')")
@@ -49,24 +62,24 @@ public class DashboardController {
         if (userDetails.getAuthorities().stream().anyMatch(a -> a.getAuthority().equals("ROLE_ADMIN") ||
                                                                a.getAuthority().equals("ROLE_PRINCIPAL"))) {
             // Admin and Principal can see all stats
-            stats.setTotalStudents(studentRepository.count());
+            stats.setTotalStudents(statsProjection.global().studentCount());
             stats.setTotalUsers(userRepository.count());
             stats.setTotalDepartments(departmentRepository.count());
-            stats.setTotalDues(dueRepository.countByPaymentStatus(Due.PaymentStatus.PENDING));
+            stats.setTotalDues(statsProjection.global().pendingDues());
         } else if (userDetails.getAuthorities().stream().anyMatch(a -> a.getAuthority().equals("ROLE_STUDENT"))) {
             // Students can see only their department stats
             String department = userDetails.getDepartment();
-            stats.setTotalStudents(studentRepository.countByUserDepartment(department));
+            stats.setTotalStudents(statsProjection.department(department).studentCount());
             stats.setTotalUsers(0L); // Students don't need to see user counts
             stats.setTotalDepartments(1L); // Only their department
-            stats.setTotalDues(dueRepository.countByDepartmentAndPaymentStatus(department, Due.PaymentStatus.PENDING));
+            stats.setTotalDues(statsProjection.department(department).pendingDues());
         } else {
             // Department Admin and HOD can see only their department stats
             String department = userDetails.getDepartment();
-            stats.setTotalStudents(studentRepository.count());
+            stats.setTotalStudents(statsProjection.global().studentCount());
             stats.setTotalUsers(userRepository.countByDepartment(department));
             stats.setTotalDepartments(1L); // Only their department
-            stats.setTotalDues(dueRepository.countByDepartmentAndPaymentStatus(department, Due.PaymentStatus.PENDING));
+            stats.setTotalDues(statsProjection.department(department).pendingDues());
         }
 
         // Get department stats based on user role
@@ -74,67 +87,10 @@ public class DashboardController {
         if (userDetails.getAuthorities().stream().anyMatch(a -> a.getAuthority().equals("ROLE_ADMIN") ||
                                                                a.getAuthority().equals("ROLE_PRINCIPAL"))) {
             // Admin and Principal can see all departments
-            departmentStats = departmentRepository.findAll().stream()
-                .map(dept -> {
-                    DepartmentStatDto statDto = new DepartmentStatDto();
-                    statDto.setDepartment(dept.getName());
-
-                    long studentCount = studentRepository.countByUserDepartment(dept.getName());
-                    statDto.setStudentCount(studentCount);
-
-                    List<Due> departmentDues = dueRepository.findByDepartment(dept.getName());
-                    double totalDueAmount = departmentDues.stream()
-                        .filter(due -> due.getPaymentStatus() == Due.PaymentStatus.PENDING)
-                        .mapToDouble(due -> due.getAmount().doubleValue())
-                        .sum();
-                    statDto.setDueAmount(totalDueAmount);
-
-                    long totalDues = departmentDues.size();
-                    long completedDues = departmentDues.stream()
-                        .filter(due -> due.getPaymentStatus() == Due.PaymentStatus.PAID ||
-                                     due.getPaymentStatus() == Due.PaymentStatus.APPROVED)
-                        .count();
-                    double completionRate = totalDues > 0 ? (completedDues * 100.0) / totalDues : 100;
-                    statDto.setCompletionRate((int) completionRate);
-
-                    return statDto;
-                })
-                .collect(Collectors.toList());
+            departmentStats = dashboardService.getAllDepartmentStats();
         } else {
             // Department Admin, HOD and Students can see only their department
-            String department = userDetails.getDepartment();
-            departmentStats = Collections.singletonList(
-                departmentRepository.findByName(department)
-                    .map(dept -> {
-                        DepartmentStatDto statDto = new DepartmentStatDto();
-                        statDto.setDepartment(dept.getName());
-
-                        long studentCount = studentRepository.countByUserDepartment(dept.getName());
-                        statDto.setStudentCount(studentCount);
-
-                        List<Due> departmentDues = dueRepository.findByDepartment(dept.getName());
-                        double totalDueAmount = departmentDues.stream()
-                            .filter(due -> due.getPaymentStatus() == Due.PaymentStatus.PENDING)
-                            .mapToDouble(due -> due.getAmount().doubleValue())
-                            .sum();
-                        statDto.setDueAmount(totalDueAmount);
-
-                        long totalDues = departmentDues.size();
-                        long completedDues = departmentDues.stream()
-                            .filter(due -> due.getPaymentStatus() == Due.PaymentStatus.PAID ||
-                                         due.getPaymentStatus() == Due.PaymentStatus.APPROVED)
-                            .count();
-                        double completionRate = totalDues > 0 ? (completedDues * 100.0) / totalDues : 100;
-                        statDto.setCompletionRate((int) completionRate);
-
-                        return statDto;
-                    })
-                    .orElseGet(() -> {
-                        DepartmentStatDto statDto = new DepartmentStatDto();
-                        statDto.setDepartment(department);
-                        return statDto;
-                    })
-            );
+            departmentStats = Collections.singletonList(dashboardService.getDepartmentStats(userDetails.getDepartment()));
         }
         stats.setDepartmentStats(departmentStats);
 
@@ -171,9 +127,7 @@ public class DashboardController {
                 // Get dues for this student
                 User user = student.getUser();
                 // In the STUDENT role section
-                dueRepository.findByStudent(user)
-                        .stream()
-                        .limit(5)
+                dueRepository.findTop5ByStudentOrderByUpdatedAtDesc(user)
                         .forEach(due -> {
                             ActivityDto activity = new ActivityDto();
                             activity.setId(Long.parseLong("1" + due.getId()));
@@ -195,9 +149,7 @@ public class DashboardController {
         } else {
             // Department Admin and HOD can see only their department activities
             String department = userDetails.getDepartment();
-            dueRepository.findByDepartmentAndPaymentStatus(department, Due.PaymentStatus.PAID)
-                .stream()
-                .limit(5)
+            dueRepository.findTop5ByDepartmentAndPaymentStatusOrderByUpdatedAtDesc(department, Due.PaymentStatus.PAID)
                 .forEach(due -> {
                     ActivityDto activity = new ActivityDto();
                     activity.setId(due.getId());
@@ -207,9 +159,7 @@ public class DashboardController {
                     recentActivities.add(activity);
                 });
 
-            studentRepository.findByUserDepartment(department)
-                .stream()
-                .limit(5)
+            studentRepository.findTop5ByUserDepartmentOrderByCreatedAtDesc(department)
                 .forEach(student -> {
                     ActivityDto activity = new ActivityDto();
                     activity.setId(student.getId());
@@ -226,4 +176,22 @@ public class DashboardController {
 
         return ResponseEntity.ok(stats);
     }
-}
\ No newline at end of file
+
+    @GetMapping(value = "/activity/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @PreAuthorize("hasRole('ADMIN') or hasRole('HOD') or hasRole('DEPARTMENT_ADMIN') or hasRole('PRINCIPAL') or hasRole('STUDENT')")
+    @Operation(summary = "Stream recent activities as server-sent events, resuming after Last-Event-ID")
+    public SseEmitter streamActivities(@RequestHeader(value = "Last-Event-ID", required = false) Long lastEventId) {
+        UserDetailsImpl userDetails = (UserDetailsImpl) SecurityContextHolder.getContext().getAuthentication().getPrincipal();
+
+        if (userDetails.getAuthorities().stream().anyMatch(a -> a.getAuthority().equals("ROLE_ADMIN") ||
+                                                               a.getAuthority().equals("ROLE_PRINCIPAL"))) {
+            // Admin and Principal can see all activities
+            return activityFeed.subscribe(null, null, lastEventId);
+        } else if (userDetails.getAuthorities().stream().anyMatch(a -> a.getAuthority().equals("ROLE_STUDENT"))) {
+            // Students can see only their own activities
+            return activityFeed.subscribe(null, userDetails.getId(), lastEventId);
+        }
+        // Department Admin and HOD can see only their department activities
+        return activityFeed.subscribe(userDetails.getDepartment(), null, lastEventId);
+    }
+}
@@ -2,13 +2,18 @@ package com.college.duemanagement.controller;
 
 import com.college.duemanagement.dto.CreateDepartmentRequest;
 import com.college.duemanagement.dto.DepartmentDto;
+import com.college.duemanagement.dto.PageResponse;
 import com.college.duemanagement.entity.Department;
 import com.college.duemanagement.entity.User;
 import com.college.duemanagement.repository.DepartmentRepository;
 import com.college.duemanagement.repository.UserRepository;
 import com.college.duemanagement.enums.DepartmentEnum;
+import com.college.duemanagement.util.PageRequests;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.web.PageableDefault;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
@@ -37,11 +42,16 @@ public class DepartmentController {
     }
 
     @GetMapping
-    @Operation(summary = "Get all departments")
-    public ResponseEntity<List<DepartmentDto>> getAllDepartments() {
-        List<Department> departments = departmentRepository.findAll();
-        List<DepartmentDto> departmentDtos = departments.stream().map(this::convertToDto).collect(Collectors.toList());
-        return ResponseEntity.ok(departmentDtos);
+    @Operation(summary = "Get all departments, paged or by keyset cursor")
+    public ResponseEntity<PageResponse<DepartmentDto>> getAllDepartments(
+            @PageableDefault(size = 20, sort = "id", direction = Sort.Direction.DESC) Pageable pageable,
+            @RequestParam(required = false) Long cursor) {
+        pageable = PageRequests.sortableBy(pageable, "id", "name", "code", "createdAt");
+        PageResponse<DepartmentDto> response = cursor == null
+                ? PageResponse.ofPage(departmentRepository.findAll(pageable), this::convertToDto, Department::getId)
+                : PageResponse.ofKeyset(departmentRepository.findByIdLessThan(cursor, PageRequests.keyset(pageable)),
+                        this::convertToDto, Department::getId);
+        return ResponseEntity.ok(response);
     }
 
     @GetMapping("/{id}")
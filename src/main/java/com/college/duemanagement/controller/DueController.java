@@ -1,26 +1,50 @@
 package com.college.duemanagement.controller;
 
+import com.college.duemanagement.dto.BulkDueRequest;
+import com.college.duemanagement.dto.BulkJobStatus;
 import com.college.duemanagement.dto.CreateDueRequest;
 import com.college.duemanagement.dto.DueDto;
+import com.college.duemanagement.dto.ExportFilter;
+import com.college.duemanagement.dto.PageResponse;
 import com.college.duemanagement.entity.Due;
 import com.college.duemanagement.entity.User;
+import com.college.duemanagement.enums.ExportFormat;
+import com.college.duemanagement.event.DueChangedEvent;
 import com.college.duemanagement.repository.DueRepository;
 import com.college.duemanagement.repository.UserRepository;
 import com.college.duemanagement.security.services.UserDetailsImpl;
+import com.college.duemanagement.service.BulkDueService;
+import com.college.duemanagement.service.BulkJobRegistry;
+import com.college.duemanagement.service.DueDtoMapper;
+import com.college.duemanagement.service.ExportService;
+import com.college.duemanagement.util.PageRequests;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.web.PageableDefault;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import jakarta.validation.Valid;
+import java.net.URI;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.List;
 import java.util.Optional;
-import java.util.stream.Collectors;
 
 @CrossOrigin(origins = "*", maxAge = 3600)
 @RestController
@@ -34,33 +58,89 @@ public class DueController {
     @Autowired
     private UserRepository userRepository;
 
+    @Autowired
+    private DueDtoMapper dueDtoMapper;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private BulkDueService bulkDueService;
+
+    @Autowired
+    private BulkJobRegistry bulkJobRegistry;
+
+    @Autowired
+    private ExportService exportService;
+
+    @Autowired
+    @Qualifier("reportExecutor")
+    private AsyncTaskExecutor reportExecutor;
+
     @GetMapping
     @PreAuthorize("hasRole('ADMIN') or hasRole('DEPARTMENT_ADMIN') or hasRole('HOD') or hasRole('PRINCIPAL') or hasRole('STUDENT')")
-    @Operation(summary = "Get all dues based on user role")
-    public ResponseEntity<List<DueDto>> getAllDues() {
+    @Operation(summary = "Get all dues based on user role, paged or by keyset cursor")
+    public ResponseEntity<PageResponse<DueDto>> getAllDues(
+            @PageableDefault(size = 20, sort = "id", direction = Sort.Direction.DESC) Pageable pageable,
+            @RequestParam(required = false) Long cursor) {
+        pageable = PageRequests.sortableBy(pageable, "id", "department", "amount", "dueDate", "paymentStatus",
+                "paymentDate", "createdAt");
         UserDetailsImpl userDetails = (UserDetailsImpl) SecurityContextHolder.getContext().getAuthentication().getPrincipal();
-        List<Due> dues;
+        Pageable keyset = PageRequests.keyset(pageable);
+        PageResponse<DueDto> response;
 
         if (userDetails.getAuthorities().stream().anyMatch(a -> a.getAuthority().equals("ROLE_ADMIN"))) {
-            dues = dueRepository.findAll(); // Admin sees all dues
+            // Admin sees all dues
+            response = cursor == null
+                    ? toPageResponse(dueRepository.findAll(pageable))
+                    : toKeysetResponse(dueRepository.findByIdLessThan(cursor, keyset));
         } else if (userDetails.getAuthorities().stream().anyMatch(a -> a.getAuthority().equals("ROLE_HOD"))
                 || userDetails.getAuthorities().stream().anyMatch(a -> a.getAuthority().equals("ROLE_PRINCIPAL"))) {
+            // Approved dues of students in their department
             String department = userDetails.getDepartment();
-
-            List<User> studentsInDept = userRepository.findByDepartment(department);
-            dues = studentsInDept.stream()
-                    .flatMap(student -> dueRepository.findByStudent(student).stream().filter(due -> due.getPaymentStatus() == Due.PaymentStatus.APPROVED))
-                    .collect(Collectors.toList());
-        }else if (userDetails.getAuthorities().stream().anyMatch(a -> a.getAuthority().equals("ROLE_STUDENT"))) {
-            Optional<User> studentOptional = userRepository.findById(userDetails.getId());
-            dues = studentOptional.map(dueRepository::findByStudent).orElse(List.of()); // Student sees own dues
+            response = cursor == null
+                    ? toPageResponse(dueRepository.findByStudentDepartmentAndPaymentStatus(
+                            department, Due.PaymentStatus.APPROVED, pageable))
+                    : toKeysetResponse(dueRepository.findByStudentDepartmentAndPaymentStatusAndIdLessThan(
+                            department, Due.PaymentStatus.APPROVED, cursor, keyset));
+        } else if (userDetails.getAuthorities().stream().anyMatch(a -> a.getAuthority().equals("ROLE_STUDENT"))) {
+            // Student sees own dues
+            response = cursor == null
+                    ? toPageResponse(dueRepository.findByStudentId(userDetails.getId(), pageable))
+                    : toKeysetResponse(dueRepository.findByStudentIdAndIdLessThan(userDetails.getId(), cursor, keyset));
         } else {
             // Department admin sees dues for their department
-            dues = dueRepository.findByDepartment(userDetails.getDepartment());
+            response = cursor == null
+                    ? toPageResponse(dueRepository.findByDepartment(userDetails.getDepartment(), pageable))
+                    : toKeysetResponse(dueRepository.findByDepartmentAndIdLessThan(userDetails.getDepartment(), cursor, keyset));
         }
 
-        List<DueDto> dueDtos = dues.stream().map(this::convertToDto).collect(Collectors.toList());
-        return ResponseEntity.ok(dueDtos);
+        return ResponseEntity.ok(response);
+    }
+
+    @GetMapping("/export")
+    @PreAuthorize("hasRole('ADMIN') or hasRole('DEPARTMENT_ADMIN')")
+    @Operation(summary = "Export dues as CSV or NDJSON, gzip-compressed when the client accepts it")
+    public StreamingResponseBody exportDues(@RequestParam(required = false) String department,
+                           @RequestParam(required = false) Due.PaymentStatus status,
+                           @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+                           @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+                           @RequestParam(defaultValue = "csv") String format,
+                           @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding,
+                           HttpServletRequest request,
+                           HttpServletResponse response) {
+        UserDetailsImpl userDetails = (UserDetailsImpl) SecurityContextHolder.getContext().getAuthentication().getPrincipal();
+
+        // Department admin can only export their own department's dues
+        if (userDetails.getAuthorities().stream().noneMatch(a -> a.getAuthority().equals("ROLE_ADMIN"))) {
+            department = userDetails.getDepartment();
+        }
+
+        ExportFilter filter = new ExportFilter(department, status, from, to);
+        ExportFormat exportFormat = ExportService.parseFormat(format);
+        ExportResponses.streamOn(request, reportExecutor);
+        return body -> ExportResponses.write(response, body, acceptEncoding, "dues", exportFormat,
+                out -> exportService.exportDues(filter, exportFormat, out));
     }
 
     @GetMapping("/student/{studentId}")
@@ -86,7 +166,7 @@ public class DueController {
             dues = dueRepository.findByStudent(studentOptional.get()); // Student sees own dues
         }
 
-        List<DueDto> dueDtos = dues.stream().map(this::convertToDto).collect(Collectors.toList());
+        List<DueDto> dueDtos = dueDtoMapper.toDtos(dues);
         return ResponseEntity.ok(dueDtos);
     }
 
@@ -95,7 +175,7 @@ public class DueController {
     @Operation(summary = "Get a specific due by ID")
     public ResponseEntity<DueDto> getDueById(@PathVariable Long id) {
         Optional<Due> dueOptional = dueRepository.findById(id);
-        return dueOptional.map(due -> ResponseEntity.ok(convertToDto(due))).orElseGet(() -> ResponseEntity.notFound().build());
+        return dueOptional.map(due -> ResponseEntity.ok(dueDtoMapper.toDto(due))).orElseGet(() -> ResponseEntity.notFound().build());
 
     }
 
@@ -126,8 +206,36 @@ public class DueController {
         due.setCreatedAt(LocalDateTime.now());
 
         dueRepository.save(due);
+        eventPublisher.publishEvent(DueChangedEvent.created(due));
+
+        return ResponseEntity.ok(dueDtoMapper.toDto(due));
+    }
+
+    @PostMapping("/bulk")
+    @PreAuthorize("hasRole('ADMIN') or hasRole('DEPARTMENT_ADMIN')")
+    @Operation(summary = "Create the same due for many students in the background")
+    public ResponseEntity<BulkJobStatus> createDuesInBulk(@Valid @RequestBody BulkDueRequest bulkDueRequest) {
+        UserDetailsImpl userDetails = (UserDetailsImpl) SecurityContextHolder.getContext().getAuthentication().getPrincipal();
+
+        if (userDetails.getAuthorities().stream().anyMatch(a -> a.getAuthority().equals("ROLE_DEPARTMENT_ADMIN"))) {
+            bulkDueRequest.setDepartment(userDetails.getDepartment()); // Force dues to admin's department
+        }
 
-        return ResponseEntity.ok(convertToDto(due));
+        BulkJobRegistry.BulkJob job = bulkDueService.submit(bulkDueRequest, userDetails.getId());
+        return ResponseEntity.accepted()
+                .location(URI.create("/api/dues/bulk/" + job.getId()))
+                .body(job.toStatus());
+    }
+
+    @GetMapping("/bulk/{jobId}")
+    @PreAuthorize("hasRole('ADMIN') or hasRole('DEPARTMENT_ADMIN')")
+    @Operation(summary = "Get the progress and row errors of a bulk due job")
+    public ResponseEntity<BulkJobStatus> getBulkJob(@PathVariable String jobId) {
+        UserDetailsImpl userDetails = (UserDetailsImpl) SecurityContextHolder.getContext().getAuthentication().getPrincipal();
+
+        return bulkJobRegistry.findVisibleTo(jobId, userDetails)
+                .map(job -> ResponseEntity.ok(job.toStatus()))
+                .orElseGet(() -> ResponseEntity.notFound().build());
     }
 
     @PutMapping("/{id}/pay")
@@ -144,14 +252,16 @@ public class DueController {
         }
 
         Due due = dueOptional.get();
+        Due.PaymentStatus previousStatus = due.getPaymentStatus();
         due.setPaymentStatus(Due.PaymentStatus.PAID);
         due.setPaymentDate(LocalDateTime.now());
         due.setPaymentReference(paymentReference);
         due.setUpdatedAt(LocalDateTime.now());
 
         dueRepository.save(due);
+        eventPublisher.publishEvent(DueChangedEvent.statusChanged(due, previousStatus));
 
-        return ResponseEntity.ok(convertToDto(due));
+        return ResponseEntity.ok(dueDtoMapper.toDto(due));
     }
 
     @PutMapping("/{id}/approve")
@@ -183,8 +293,9 @@ public class DueController {
         due.setUpdatedAt(LocalDateTime.now());
 
         dueRepository.save(due);
+        eventPublisher.publishEvent(DueChangedEvent.statusChanged(due, Due.PaymentStatus.PAID));
 
-        return ResponseEntity.ok(convertToDto(due));
+        return ResponseEntity.ok(dueDtoMapper.toDto(due));
     }
 
     @PutMapping("/{id}/reject")
@@ -206,12 +317,14 @@ public class DueController {
             }
         }
 
+        Due.PaymentStatus previousStatus = due.getPaymentStatus();
         due.setPaymentStatus(Due.PaymentStatus.REJECTED);
         due.setUpdatedAt(LocalDateTime.now());
 
         dueRepository.save(due);
+        eventPublisher.publishEvent(DueChangedEvent.statusChanged(due, previousStatus));
 
-        return ResponseEntity.ok(convertToDto(due));
+        return ResponseEntity.ok(dueDtoMapper.toDto(due));
     }
 
     @DeleteMapping("/{id}")
@@ -240,6 +353,7 @@ public class DueController {
         }
 
         dueRepository.deleteById(id);
+        eventPublisher.publishEvent(DueChangedEvent.deleted(due));
         return ResponseEntity.ok().build();
     }
 
@@ -269,7 +383,7 @@ public class DueController {
 
         // If receipt already generated, return the due details with existing receipt number
         if (due.isReceiptGenerated()) {
-            return ResponseEntity.ok(convertToDto(due));
+            return ResponseEntity.ok(dueDtoMapper.toDto(due));
         }
 
         // Generate a unique receipt number (e.g., RCPT-<id>-<yyyyMMddHHmmss>)
@@ -279,40 +393,14 @@ public class DueController {
         due.setUpdatedAt(LocalDateTime.now());
         dueRepository.save(due);
 
-        return ResponseEntity.ok(convertToDto(due));
+        return ResponseEntity.ok(dueDtoMapper.toDto(due));
     }
-    private DueDto convertToDto(Due due) {
-        DueDto dueDto = new DueDto();
-        dueDto.setId(due.getId());
-        User student = due.getStudent();
-        if (student != null) {
-            dueDto.setStudentId(student.getId());
-            dueDto.setRollNumber(student.getStudent().getRollNumber());
-            dueDto.setStudentName(student.getFirstName() + " " + student.getLastName());
-        } else {
-            dueDto.setStudentName("Unknown Student");
-        }
-        dueDto.setDepartment(due.getDepartment());
-        dueDto.setDescription(due.getDescription());
-        dueDto.setAmount(due.getAmount());
-        dueDto.setDueDate(due.getDueDate());
-        dueDto.setPaymentStatus(due.getPaymentStatus().name());
-        dueDto.setPaymentDate(due.getPaymentDate());
-        dueDto.setPaymentReference(due.getPaymentReference());
-        dueDto.setApprovedBy(due.getApprovedBy());
-        dueDto.setReceiptGenerated(due.isReceiptGenerated());
-        dueDto.setReceiptNumber(due.getReceiptNumber()); // Include receipt number
-
-        if (due.getApprovedBy() != null) {
-            Optional<User> approverOptional = userRepository.findById(due.getApprovedBy());
-            approverOptional.ifPresent(approve ->
-                    dueDto.setApprovedByName(approve.getFirstName() + " " + approve.getLastName()));
-        }
 
-        dueDto.setApprovalDate(due.getApprovalDate());
-        dueDto.setCreatedAt(due.getCreatedAt());
-        dueDto.setUpdatedAt(due.getUpdatedAt());
+    private PageResponse<DueDto> toPageResponse(Page<Due> page) {
+        return PageResponse.ofPage(page, dueDtoMapper.converterFor(page.getContent()), Due::getId);
+    }
 
-        return dueDto;
+    private PageResponse<DueDto> toKeysetResponse(Slice<Due> slice) {
+        return PageResponse.ofKeyset(slice, dueDtoMapper.converterFor(slice.getContent()), Due::getId);
     }
-}
\ No newline at end of file
+}
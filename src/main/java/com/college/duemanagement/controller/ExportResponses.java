@@ -0,0 +1,68 @@
+package com.college.duemanagement.controller;
+
+import com.college.duemanagement.enums.ExportFormat;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.context.request.async.WebAsyncUtils;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.LocalDate;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Prepares an export download. The body is gzip-compressed whenever the client
+ * accepts it, which shrinks CSV and NDJSON several times over.
+ *
+ * Exports are returned as a {@link org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody},
+ * which Spring MVC writes on an executor rather than a request thread; the headers are set
+ * from there, so an export the executor turns away gets a clean 503.
+ */
+final class ExportResponses {
+
+    private ExportResponses() {
+    }
+
+    /**
+     * Writes this request's streamed body on the given executor instead of Spring MVC's default
+     * async executor, so exports queue, or are turned away, in their own pool. Called from the
+     * handler method, after Spring MVC has set its default on the request.
+     */
+    static void streamOn(HttpServletRequest request, AsyncTaskExecutor executor) {
+        WebAsyncUtils.getAsyncManager(request).setTaskExecutor(executor);
+    }
+
+    /**
+     * Writes an export as the response body. If the export fails part way, the body is left
+     * unfinished, with no gzip trailer, and the error propagates so the connection is dropped:
+     * the client sees a failed download instead of a complete-looking short file.
+     */
+    static void write(HttpServletResponse response, OutputStream body, String acceptEncoding, String name,
+                      ExportFormat format, Export export) throws IOException {
+        OutputStream out = open(response, body, acceptEncoding, name, format);
+        export.writeTo(out);
+        out.close();
+    }
+
+    private static OutputStream open(HttpServletResponse response, OutputStream body, String acceptEncoding, String name,
+                             ExportFormat format) throws IOException {
+        response.setContentType(format.getContentType());
+        response.setCharacterEncoding("UTF-8");
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION,
+                "attachment; filename=\"" + name + "-" + LocalDate.now() + "." + format.getExtension() + "\"");
+        response.setHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+
+        if (acceptEncoding != null && acceptEncoding.contains("gzip")) {
+            response.setHeader(HttpHeaders.CONTENT_ENCODING, "gzip");
+            return new GZIPOutputStream(body, 8192);
+        }
+        return body;
+    }
+
+    @FunctionalInterface
+    interface Export {
+        void writeTo(OutputStream out) throws IOException;
+    }
+}
@@ -1,17 +1,37 @@
 package com.college.duemanagement.controller;
 
+import com.college.duemanagement.dto.BulkSignRequest;
+import com.college.duemanagement.dto.BulkSignResult;
+import com.college.duemanagement.dto.CertificateEligibility;
 import com.college.duemanagement.dto.DepartmentSignatureDto;
+import com.college.duemanagement.dto.ExportFilter;
 import com.college.duemanagement.dto.NoDuesCertificateDto;
+import com.college.duemanagement.dto.PageResponse;
 import com.college.duemanagement.entity.NoDuesCertificate;
 import com.college.duemanagement.entity.Student;
+import com.college.duemanagement.enums.ExportFormat;
 import com.college.duemanagement.security.services.UserDetailsImpl;
+import com.college.duemanagement.service.BulkSignatureService;
+import com.college.duemanagement.service.CertificateEligibilityService;
+import com.college.duemanagement.service.ExportService;
 import com.college.duemanagement.service.NoDuesCertificateService;
 import com.college.duemanagement.service.StudentService;
+import com.college.duemanagement.util.PageRequests;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.web.PageableDefault;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
@@ -19,7 +39,9 @@ import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Map;
 
@@ -33,18 +55,32 @@ public class NoDuesCertificateController {
 
     private final NoDuesCertificateService certificateService;
     private final StudentService studentService;
+    private final ExportService exportService;
+    private final CertificateEligibilityService eligibilityService;
+    private final BulkSignatureService bulkSignatureService;
+    private final AsyncTaskExecutor reportExecutor;
 
     @Autowired
-    public NoDuesCertificateController(NoDuesCertificateService certificateService, StudentService studentService) {
+    public NoDuesCertificateController(NoDuesCertificateService certificateService, StudentService studentService,
+                                       ExportService exportService, CertificateEligibilityService eligibilityService,
+                                       BulkSignatureService bulkSignatureService,
+                                       @Qualifier("reportExecutor") AsyncTaskExecutor reportExecutor) {
         this.certificateService = certificateService;
         this.studentService = studentService;
+        this.exportService = exportService;
+        this.eligibilityService = eligibilityService;
+        this.bulkSignatureService = bulkSignatureService;
+        this.reportExecutor = reportExecutor;
     }
 
     @GetMapping
     @Operation(summary = "Get all no-dues certificates")
-    public ResponseEntity<?> getAllCertificates() {
+    public ResponseEntity<?> getAllCertificates(
+            @PageableDefault(size = 20, sort = "id", direction = Sort.Direction.DESC) Pageable pageable,
+            @RequestParam(required = false) Long cursor) {
+        pageable = PageRequests.sortableBy(pageable, "id", "status", "issueDate", "createdAt", "updatedAt");
         try {
-            List<NoDuesCertificateDto> certificates = certificateService.getAllCertificates();
+            PageResponse<NoDuesCertificateDto> certificates = certificateService.getAllCertificates(pageable, cursor);
             return ResponseEntity.ok(certificates);
         } catch (Exception e) {
             logger.error("Error fetching all certificates: {}", e.getMessage());
@@ -54,6 +90,31 @@ public class NoDuesCertificateController {
         }
     }
 
+    @GetMapping("/export")
+    @PreAuthorize("hasRole('ADMIN') or hasRole('HOD') or hasRole('PRINCIPAL')")
+    @Operation(summary = "Export certificates as CSV or NDJSON, gzip-compressed when the client accepts it")
+    public StreamingResponseBody exportCertificates(@RequestParam(required = false) String department,
+                                   @RequestParam(required = false) NoDuesCertificate.CertificateStatus status,
+                                   @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+                                   @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+                                   @RequestParam(defaultValue = "csv") String format,
+                                   @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding,
+                                   HttpServletRequest request,
+                                   HttpServletResponse response) {
+        UserDetailsImpl userDetails = (UserDetailsImpl) SecurityContextHolder.getContext().getAuthentication().getPrincipal();
+
+        // HOD and principal export the certificates of their own department's students
+        if (userDetails.getAuthorities().stream().noneMatch(a -> a.getAuthority().equals("ROLE_ADMIN"))) {
+            department = userDetails.getDepartment();
+        }
+
+        ExportFilter filter = new ExportFilter(department, status, from, to);
+        ExportFormat exportFormat = ExportService.parseFormat(format);
+        ExportResponses.streamOn(request, reportExecutor);
+        return body -> ExportResponses.write(response, body, acceptEncoding, "certificates", exportFormat,
+                out -> exportService.exportCertificates(filter, exportFormat, out));
+    }
+
     @PostMapping("/request/{rollNumber}")
     @Operation(summary = "Request a no-dues certificate")
     public ResponseEntity<?> requestCertificate(@PathVariable String rollNumber) {
@@ -77,15 +138,15 @@ public class NoDuesCertificateController {
                 return ResponseEntity.status(403).body(Map.of("message", "You can only request for your own roll number", "status", "error"));
             }
 
-            if (!certificateService.isStudentEligibleForCertificate(studentUsername)) {
+            CertificateEligibility eligibility = eligibilityService.check(student.getUser().getId());
+            if (!eligibility.clearedDues()) {
                 logger.warn("Student {} not eligible due to pending dues", rollNumber);
                 return ResponseEntity.badRequest().body(Map.of("message", "You have pending dues. Clear them before requesting a certificate.", "status", "error"));
             }
 
-            List<NoDuesCertificateDto> existingCertificates = certificateService.getCertificatesByStudent(studentUsername);
-            NoDuesCertificateDto certificate = existingCertificates.isEmpty() ?
-                    certificateService.createCertificate(studentUsername) :
-                    existingCertificates.get(0);
+            NoDuesCertificateDto certificate = eligibility.hasActiveCertificate() ?
+                    certificateService.getCertificate(eligibility.activeCertificateId()) :
+                    certificateService.createCertificate(eligibility);
 
             // Use String comparison for DTO status
             if ("COMPLETE".equals(certificate.getStatus())) {
@@ -108,11 +169,12 @@ public class NoDuesCertificateController {
     public ResponseEntity<?> createCertificate(@PathVariable String studentId) {
         logger.info("Creating certificate for student ID: {}", studentId);
         try {
-            if (!certificateService.isStudentEligibleForCertificate(studentId)) {
+            CertificateEligibility eligibility = eligibilityService.check(studentId);
+            if (!eligibility.clearedDues()) {
                 logger.warn("Student {} not eligible for certificate", studentId);
                 return ResponseEntity.badRequest().body(Map.of("message", "Student has pending dues. Clear them first."));
             }
-            NoDuesCertificateDto certificate = certificateService.createCertificate(studentId);
+            NoDuesCertificateDto certificate = certificateService.createCertificate(eligibility);
             logger.info("Certificate created for student ID: {}", studentId);
             return ResponseEntity.ok(certificate);
         } catch (Exception e) {
@@ -133,11 +195,12 @@ public class NoDuesCertificateController {
                 return ResponseEntity.badRequest().body(Map.of("message", "No student found with roll number: " + rollNumber));
             }
             String username = student.getUser().getUsername();
-            if (!certificateService.isStudentEligibleForCertificate(username)) {
+            CertificateEligibility eligibility = eligibilityService.check(student.getUser().getId());
+            if (!eligibility.clearedDues()) {
                 logger.warn("Student {} not eligible", username);
                 return ResponseEntity.badRequest().body(Map.of("message", "Student has pending dues. Clear them first."));
             }
-            NoDuesCertificateDto certificate = certificateService.createCertificate(username);
+            NoDuesCertificateDto certificate = certificateService.createCertificate(eligibility);
             logger.info("Certificate created for roll number: {}", rollNumber);
             return ResponseEntity.ok(certificate);
         } catch (Exception e) {
@@ -220,6 +283,17 @@ public class NoDuesCertificateController {
         return ResponseEntity.ok(certificateService.signByDepartment(id, department, userDetails.getId(), comments, useESign));
     }
 
+    @PostMapping("/sign-department/bulk")
+    @PreAuthorize("hasRole('DEPARTMENT_ADMIN') or hasRole('ADMIN') or hasRole('HOD')")
+    @Operation(summary = "Sign many certificates for a department in one transaction, by id or student selector")
+    public ResponseEntity<BulkSignResult> signByDepartmentInBulk(@Valid @RequestBody BulkSignRequest bulkSignRequest,
+                                                                 @AuthenticationPrincipal UserDetailsImpl userDetails) {
+        if (userDetails.getAuthorities().stream().anyMatch(a -> a.getAuthority().equals("ROLE_DEPARTMENT_ADMIN"))) {
+            bulkSignRequest.setDepartment(userDetails.getDepartment()); // Department admins sign for their own department only
+        }
+        return ResponseEntity.ok(bulkSignatureService.sign(bulkSignRequest, userDetails.getId()));
+    }
+
     @PostMapping("/{id}/request-department-signature")
     @PreAuthorize("hasRole('DEPARTMENT_ADMIN') or hasRole('HOD')")
     @Operation(summary = "Request a signature from a department")
@@ -259,16 +333,20 @@ public class NoDuesCertificateController {
 
     @GetMapping("/students-with-cleared-dues")
     @PreAuthorize("hasRole('ADMIN') or hasRole('HOD') or hasRole('PRINCIPAL')")
-    @Operation(summary = "Get students with all dues cleared")
-    public ResponseEntity<List<NoDuesCertificateDto>> getStudentsWithClearedDues() {
+    @Operation(summary = "Get students with all dues cleared and their latest certificate, paged or by keyset cursor")
+    public ResponseEntity<PageResponse<NoDuesCertificateDto>> getStudentsWithClearedDues(
+            @PageableDefault(size = 20, sort = "id", direction = Sort.Direction.DESC) Pageable pageable,
+            @RequestParam(required = false) Long cursor) {
+        // Sorts the students, not their certificates
+        pageable = PageRequests.sortableBy(pageable, "id", "username", "firstName", "lastName", "department");
         logger.info("Fetching students with cleared dues");
         try {
             UserDetailsImpl userDetails = (UserDetailsImpl) SecurityContextHolder.getContext().getAuthentication().getPrincipal();
             boolean isHOD = userDetails.getAuthorities().stream().anyMatch(a -> a.getAuthority().equals("ROLE_HOD"));
-            List<NoDuesCertificateDto> certificates = isHOD ?
-                    certificateService.getStudentsWithClearedDuesByDepartment(userDetails.getDepartment()) :
-                    certificateService.getStudentsWithClearedDues();
-            logger.info("Found {} students with cleared dues", certificates.size());
+            PageResponse<NoDuesCertificateDto> certificates = isHOD ?
+                    certificateService.getStudentsWithClearedDuesByDepartment(userDetails.getDepartment(), pageable, cursor) :
+                    certificateService.getStudentsWithClearedDues(pageable, cursor);
+            logger.info("Found {} students with cleared dues", certificates.getContent().size());
             return ResponseEntity.ok(certificates);
         } catch (Exception e) {
             logger.error("Error fetching students with cleared dues: {}", e.getMessage());
@@ -1,6 +1,8 @@
 package com.college.duemanagement.controller;
 
 import com.college.duemanagement.entity.User;
+import com.college.duemanagement.exception.ResourceNotFoundException;
+import com.college.duemanagement.service.SignatureStore;
 import com.college.duemanagement.service.UserService;
 import com.college.duemanagement.payload.request.ProfileUpdateRequest;
 import com.college.duemanagement.payload.response.JwtResponse;
@@ -8,6 +10,7 @@ import com.college.duemanagement.security.jwt.JwtUtils;
 import com.college.duemanagement.security.services.UserDetailsImpl;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
@@ -18,10 +21,10 @@ import org.springframework.security.core.Authentication;
 import org.springframework.security.access.AccessDeniedException;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.web.context.request.ServletWebRequest;
 import org.springframework.web.multipart.MultipartFile;
 import org.springframework.http.HttpStatus;
 import java.io.IOException;
-import java.util.Base64;
 
 @RestController
 @RequestMapping("/api/profile")
@@ -38,6 +41,9 @@ public class ProfileController {
     @Autowired
     private JwtUtils jwtUtils;
 
+    @Autowired
+    private SignatureStore signatureStore;
+
     @PutMapping
     @PreAuthorize("isAuthenticated()")
     @Operation(summary = "Update user profile")
@@ -115,7 +121,7 @@ public class ProfileController {
             }
             
             // Save signature
-            userService.saveSignature(userDetails.getId(), file.getBytes());
+            userService.saveSignature(userDetails.getId(), file.getBytes(), file.getContentType());
             
             return ResponseEntity.ok().body("Signature uploaded successfully");
         } catch (IOException e) {
@@ -127,7 +133,7 @@ public class ProfileController {
     @GetMapping("/signature")
     @PreAuthorize("isAuthenticated()")
     @Operation(summary = "Get user signature")
-    public ResponseEntity<?> getSignature() {
+    public void getSignature(ServletWebRequest webRequest, HttpServletResponse response) throws IOException {
         Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
         UserDetailsImpl userDetails = (UserDetailsImpl) authentication.getPrincipal();
         
@@ -137,14 +143,10 @@ public class ProfileController {
         
         User user = userService.getUserById(userDetails.getId());
         
-        if (user.getESignature() == null) {
-            return ResponseEntity.notFound().build();
+        if (user.getESignatureHash() == null) {
+            throw new ResourceNotFoundException("No signature uploaded");
         }
         
-        // Convert byte array to Base64 string
-        String base64Signature = Base64.getEncoder().encodeToString(user.getESignature());
-        
-        return ResponseEntity.ok()
-            .body(base64Signature);
+        SignatureResponses.write(signatureStore, user.getESignatureHash(), webRequest, response);
     }
 } 
\ No newline at end of file
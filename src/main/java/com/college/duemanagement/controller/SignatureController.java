@@ -0,0 +1,32 @@
+package com.college.duemanagement.controller;
+
+import com.college.duemanagement.service.SignatureStore;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.ServletWebRequest;
+
+import java.io.IOException;
+
+@RestController
+@RequestMapping("/api/signatures")
+@CrossOrigin(origins = "*", maxAge = 3600)
+@Tag(name = "Signatures", description = "Binary e-signature images by content hash")
+public class SignatureController {
+
+    private final SignatureStore signatureStore;
+
+    public SignatureController(SignatureStore signatureStore) {
+        this.signatureStore = signatureStore;
+    }
+
+    @GetMapping("/{hash}")
+    @PreAuthorize("hasRole('ADMIN') or hasRole('HOD') or @signatureSecurity.canRead(#hash, authentication)")
+    @Operation(summary = "Get a signature image by its content hash")
+    public void getSignature(@PathVariable String hash, ServletWebRequest webRequest,
+                             HttpServletResponse response) throws IOException {
+        SignatureResponses.write(signatureStore, hash, webRequest, response);
+    }
+}
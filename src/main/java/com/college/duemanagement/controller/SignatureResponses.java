@@ -0,0 +1,46 @@
+package com.college.duemanagement.controller;
+
+import com.college.duemanagement.dto.SignatureMetadata;
+import com.college.duemanagement.exception.ResourceNotFoundException;
+import com.college.duemanagement.service.SignatureStore;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.context.request.ServletWebRequest;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Writes a stored signature as a binary image response. Content is addressed by its
+ * SHA-256, so the hash is a strong ETag and the response never changes for a URL.
+ */
+final class SignatureResponses {
+
+    // Private: every signature URL sits behind authentication
+    private static final String CACHE_CONTROL = CacheControl.maxAge(365, TimeUnit.DAYS)
+            .cachePrivate()
+            .immutable()
+            .getHeaderValue();
+
+    private SignatureResponses() {
+    }
+
+    static void write(SignatureStore signatureStore, String hash,
+                      ServletWebRequest webRequest, HttpServletResponse response) throws IOException {
+        SignatureMetadata metadata = signatureStore.findMetadata(hash)
+                .orElseThrow(() -> new ResourceNotFoundException("Signature not found"));
+
+        response.setHeader(HttpHeaders.CACHE_CONTROL, CACHE_CONTROL);
+        // Sets the ETag and answers 304 when If-None-Match matches
+        if (webRequest.checkNotModified("\"" + metadata.hash() + "\"")) {
+            return;
+        }
+
+        response.setContentType(metadata.contentType());
+        response.setContentLengthLong(metadata.size());
+        if (!signatureStore.streamTo(metadata.hash(), response.getOutputStream())) {
+            throw new ResourceNotFoundException("Signature not found");
+        }
+    }
+}
@@ -1,18 +1,34 @@
 package com.college.duemanagement.controller;
 
+import com.college.duemanagement.dto.BulkJobStatus;
+import com.college.duemanagement.dto.PageResponse;
 import com.college.duemanagement.entity.Student;
+import com.college.duemanagement.security.services.UserDetailsImpl;
+import com.college.duemanagement.service.BulkJobRegistry;
+import com.college.duemanagement.service.StudentImportService;
 import com.college.duemanagement.service.StudentService;
 import com.college.duemanagement.payload.request.CreateStudentRequest;
 import com.college.duemanagement.payload.request.UpdateStudentRequest;
 import com.college.duemanagement.exception.ResourceNotFoundException;
+import com.college.duemanagement.util.PageRequests;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletResponse;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.web.PageableDefault;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.multipart.MultipartFile;
 
 import jakarta.validation.Valid;
+import java.io.IOException;
+import java.net.URI;
 import java.util.List;
 
 @RestController
@@ -23,12 +39,20 @@ public class StudentController {
     @Autowired
     private StudentService studentService;
 
+    @Autowired
+    private StudentImportService studentImportService;
+
+    @Autowired
+    private BulkJobRegistry bulkJobRegistry;
+
     @GetMapping
     @PreAuthorize("hasAnyRole('ADMIN', 'HOD', 'DEPARTMENT_ADMIN','PRINCIPAL')")
     @Operation(summary = "Get all students")
-    public ResponseEntity<List<Student>> getAllStudents() {
-        System.out.println(studentService.getAllStudents());
-        return ResponseEntity.ok(studentService.getAllStudents());
+    public ResponseEntity<PageResponse<Student>> getAllStudents(
+            @PageableDefault(size = 20, sort = "id", direction = Sort.Direction.DESC) Pageable pageable,
+            @RequestParam(required = false) Long cursor) {
+        pageable = PageRequests.sortableBy(pageable, "id", "rollNumber", "semester", "batch", "course", "section", "createdAt");
+        return ResponseEntity.ok(studentService.getAllStudents(pageable, cursor));
     }
 
     @GetMapping("/department/{department}")
@@ -80,6 +104,41 @@ public class StudentController {
         return ResponseEntity.ok(studentService.createStudent(request));
     }
 
+    @PostMapping(value = "/import", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    @PreAuthorize("hasAnyRole('ADMIN', 'HOD')")
+    @Operation(summary = "Import students from a CSV file in the background")
+    public ResponseEntity<BulkJobStatus> importStudents(@RequestParam("file") MultipartFile file) throws IOException {
+        UserDetailsImpl userDetails = (UserDetailsImpl) SecurityContextHolder.getContext().getAuthentication().getPrincipal();
+        BulkJobRegistry.BulkJob job = studentImportService.submit(file, userDetails.getId());
+        return ResponseEntity.accepted()
+                .location(URI.create("/api/students/import/" + job.getId()))
+                .body(job.toStatus());
+    }
+
+    @GetMapping("/import/{jobId}")
+    @PreAuthorize("hasAnyRole('ADMIN', 'HOD')")
+    @Operation(summary = "Get the progress of a student import")
+    public ResponseEntity<BulkJobStatus> getImport(@PathVariable String jobId) {
+        UserDetailsImpl userDetails = (UserDetailsImpl) SecurityContextHolder.getContext().getAuthentication().getPrincipal();
+        return bulkJobRegistry.findVisibleTo(jobId, userDetails)
+                .map(job -> ResponseEntity.ok(job.toStatus()))
+                .orElseGet(() -> ResponseEntity.notFound().build());
+    }
+
+    @GetMapping(value = "/import/{jobId}/errors", produces = "text/csv")
+    @PreAuthorize("hasAnyRole('ADMIN', 'HOD')")
+    @Operation(summary = "Download the rejected rows of a student import as CSV")
+    public void getImportErrors(@PathVariable String jobId, HttpServletResponse response) throws IOException {
+        UserDetailsImpl userDetails = (UserDetailsImpl) SecurityContextHolder.getContext().getAuthentication().getPrincipal();
+        BulkJobRegistry.BulkJob job = bulkJobRegistry.findVisibleTo(jobId, userDetails)
+                .orElseThrow(() -> new ResourceNotFoundException("Import not found with id: " + jobId));
+
+        response.setContentType("text/csv");
+        response.setCharacterEncoding("UTF-8");
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"import-" + jobId + "-errors.csv\"");
+        studentImportService.writeErrorReport(job, response.getWriter());
+    }
+
     @PutMapping("/{id}")
     @PreAuthorize("hasAnyRole('ADMIN', 'HOD')")
     @Operation(summary = "Update an existing student")
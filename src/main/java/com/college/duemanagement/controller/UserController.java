@@ -1,28 +1,36 @@
 package com.college.duemanagement.controller;
 
+import com.college.duemanagement.dto.PageResponse;
 import com.college.duemanagement.entity.User;
+import com.college.duemanagement.exception.ResourceNotFoundException;
+import com.college.duemanagement.service.SignatureStore;
 import com.college.duemanagement.service.UserService;
 import com.college.duemanagement.payload.request.CreateUserRequest;
 import com.college.duemanagement.payload.request.UpdateUserRequest;
 import com.college.duemanagement.payload.response.JwtResponse;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.web.PageableDefault;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.Authentication;
 import com.college.duemanagement.security.services.UserDetailsImpl;
+import com.college.duemanagement.util.PageRequests;
 import org.springframework.security.access.AccessDeniedException;
+import org.springframework.web.context.request.ServletWebRequest;
 import org.springframework.web.multipart.MultipartFile;
 import java.io.IOException;
 
 import org.springframework.http.HttpStatus;
 
 import java.util.List;
-import java.util.Base64;
 
 @RestController
 @RequestMapping("/api/users")
@@ -32,16 +40,20 @@ public class UserController {
 
 
     private final UserService userService;
-    public UserController(UserService userService) {
+    private final SignatureStore signatureStore;
+    public UserController(UserService userService, SignatureStore signatureStore) {
         this.userService = userService;
+        this.signatureStore = signatureStore;
     }
 
     @GetMapping
     @PreAuthorize("hasRole('ADMIN') or hasRole('HOD')")
     @Operation(summary = "Get all users")
-    public ResponseEntity<List<User>> getAllUsers() {
-        List<User> users = userService.getAllUsers();
-        return ResponseEntity.ok(users);
+    public ResponseEntity<PageResponse<User>> getAllUsers(
+            @PageableDefault(size = 20, sort = "id", direction = Sort.Direction.DESC) Pageable pageable,
+            @RequestParam(required = false) Long cursor) {
+        pageable = PageRequests.sortableBy(pageable, "id", "username", "firstName", "lastName", "department");
+        return ResponseEntity.ok(userService.getAllUsers(pageable, cursor));
     }
 
     @GetMapping("/{id}")
@@ -105,7 +117,7 @@ public class UserController {
             }
 
             // Save signature
-            userService.saveSignature(id, file.getBytes());
+            userService.saveSignature(id, file.getBytes(), file.getContentType());
 
             return ResponseEntity.ok().body("Signature uploaded successfully");
         } catch (IOException e) {
@@ -117,17 +129,14 @@ public class UserController {
     @GetMapping("/{id}/signature")
     @PreAuthorize("hasRole('ADMIN') or hasRole('HOD') or @userSecurity.isCurrentUser(#id)")
     @Operation(summary = "Get a user's signature")
-    public ResponseEntity<?> getSignature(@PathVariable Long id) {
+    public void getSignature(@PathVariable Long id, ServletWebRequest webRequest,
+                             HttpServletResponse response) throws IOException {
         User user = userService.getUserById(id);
 
-        if (user.getESignature() == null) {
-            return ResponseEntity.notFound().build();
+        if (user.getESignatureHash() == null) {
+            throw new ResourceNotFoundException("No signature uploaded for user with id: " + id);
         }
 
-        // Convert byte array to Base64 string
-        String base64Signature = Base64.getEncoder().encodeToString(user.getESignature());
-
-        return ResponseEntity.ok()
-            .body(base64Signature);
+        SignatureResponses.write(signatureStore, user.getESignatureHash(), webRequest, response);
     }
 }
\ No newline at end of file
@@ -0,0 +1,44 @@
+package com.college.duemanagement.dto;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+import lombok.Data;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * The same due for many students. Students are given either as an explicit id list
+ * or selected by student department, batch, semester and section.
+ */
+@Data
+public class BulkDueRequest {
+
+    @NotBlank
+    private String department;
+
+    @NotBlank
+    private String description;
+
+    @NotNull
+    @Positive
+    private BigDecimal amount;
+
+    @NotNull
+    private LocalDateTime dueDate;
+
+    // Explicit user ids of the students
+    private List<Long> studentIds;
+
+    // Selector, used when no ids are given; unset fields match everything
+    private String studentDepartment;
+    private String batch;
+    private Integer semester;
+    private String section;
+
+    public boolean hasSelector() {
+        return studentDepartment != null || batch != null || semester != null || section != null;
+    }
+}
@@ -0,0 +1,23 @@
+package com.college.duemanagement.dto;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Progress of a background bulk job. {@code total} is null until the rows to process are known.
+ */
+public record BulkJobStatus(String jobId,
+                            String type,
+                            String status,
+                            Integer total,
+                            int processed,
+                            int succeeded,
+                            int failed,
+                            List<RowError> errors,
+                            String message,
+                            LocalDateTime startedAt,
+                            LocalDateTime finishedAt) {
+
+    public record RowError(String row, String message) {
+    }
+}
@@ -0,0 +1,34 @@
+package com.college.duemanagement.dto;
+
+import jakarta.validation.constraints.NotBlank;
+import lombok.Data;
+
+import java.util.List;
+
+/**
+ * One department's signature on many certificates. Certificates are given either as an
+ * explicit id list or as every certificate still waiting on the department whose student
+ * matches the student department, batch, semester and section.
+ */
+@Data
+public class BulkSignRequest {
+
+    @NotBlank
+    private String department;
+
+    private String comments;
+
+    private Boolean useESign = true;
+
+    private List<Long> certificateIds;
+
+    // Selector, used when no ids are given; unset fields match everything
+    private String studentDepartment;
+    private String batch;
+    private Integer semester;
+    private String section;
+
+    public boolean hasSelector() {
+        return studentDepartment != null || batch != null || semester != null || section != null;
+    }
+}
@@ -0,0 +1,22 @@
+package com.college.duemanagement.dto;
+
+import java.util.List;
+
+/**
+ * What a bulk department signing did to each certificate it was asked about.
+ */
+public record BulkSignResult(String department, int signed, int skipped, List<Outcome> outcomes) {
+
+    public enum Result {
+        SIGNED,
+        // The department already signed or rejected this certificate
+        ALREADY_PROCESSED,
+        // The certificate is rejected or complete and takes no more signatures
+        CLOSED,
+        // No such certificate, or it has no signature for the department
+        NOT_FOUND
+    }
+
+    public record Outcome(Long certificateId, Result result) {
+    }
+}
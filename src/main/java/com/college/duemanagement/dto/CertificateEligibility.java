@@ -0,0 +1,17 @@
+package com.college.duemanagement.dto;
+
+/**
+ * Whether a student can be issued a no-dues certificate, from one query: if any due is
+ * still short of APPROVED, and the id of their latest certificate that was not rejected
+ * (null if none).
+ */
+public record CertificateEligibility(Long studentId, boolean openDues, Long activeCertificateId) {
+
+    public boolean clearedDues() {
+        return !openDues;
+    }
+
+    public boolean hasActiveCertificate() {
+        return activeCertificateId != null;
+    }
+}
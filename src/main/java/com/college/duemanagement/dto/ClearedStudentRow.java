@@ -0,0 +1,10 @@
+package com.college.duemanagement.dto;
+
+import com.college.duemanagement.entity.NoDuesCertificate;
+import com.college.duemanagement.entity.User;
+
+/**
+ * A student whose dues are all approved, with their latest certificate (null if none yet).
+ */
+public record ClearedStudentRow(User student, NoDuesCertificate latestCertificate) {
+}
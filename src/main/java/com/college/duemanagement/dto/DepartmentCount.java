@@ -0,0 +1,4 @@
+package com.college.duemanagement.dto;
+
+public record DepartmentCount(String department, Long count) {
+}
@@ -0,0 +1,10 @@
+package com.college.duemanagement.dto;
+
+import java.math.BigDecimal;
+
+/**
+ * Due totals of one department, computed by a grouped query.
+ */
+public record DepartmentDueTotals(String department, BigDecimal pendingAmount, Long pendingDues,
+                                  Long totalDues, Long completedDues) {
+}
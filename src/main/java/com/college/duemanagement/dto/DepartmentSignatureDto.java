@@ -6,7 +6,6 @@ import lombok.Data;
 import lombok.NoArgsConstructor;
 
 import java.time.LocalDateTime;
-import java.util.Base64;
 
 @Data
 @NoArgsConstructor
@@ -20,7 +19,8 @@ public class DepartmentSignatureDto {
     private LocalDateTime signedAt;
     private String status;
     private String comments;
-    private String eSignature;
+    private String eSignatureHash;
+    private String eSignatureUrl;
     
     public static DepartmentSignatureDto fromEntity(DepartmentSignature entity) {
         DepartmentSignatureDto dto = new DepartmentSignatureDto();
@@ -32,9 +32,8 @@ public class DepartmentSignatureDto {
         dto.setSignedAt(entity.getSignedAt());
         dto.setStatus(entity.getStatus().name());
         dto.setComments(entity.getComments());
-        if (entity.getESignature() != null) {
-            dto.setESignature(Base64.getEncoder().encodeToString(entity.getESignature()));
-        }
+        dto.setESignatureHash(entity.getESignatureHash());
+        dto.setESignatureUrl(SignatureMetadata.urlFor(entity.getESignatureHash()));
         return dto;
     }
 } 
\ No newline at end of file
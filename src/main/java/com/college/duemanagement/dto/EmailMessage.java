@@ -0,0 +1,159 @@
+package com.college.duemanagement.dto;
+
+import com.college.duemanagement.entity.Due;
+import com.college.duemanagement.entity.NoDuesCertificate;
+import com.college.duemanagement.entity.User;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * An email to send, one record per kind. Each kind names its template under
+ * {@code templates/email} and the variables that template reads.
+ */
+public sealed interface EmailMessage {
+
+    String to();
+
+    String subject();
+
+    String template();
+
+    Map<String, Object> variables();
+
+    record Credentials(String to, String name, String username, String uniqueCode, String password)
+            implements EmailMessage {
+
+        public static Credentials of(User user, String password) {
+            return new Credentials(user.getEmail(), fullName(user), user.getUsername(), user.getUniqueCode(), password);
+        }
+
+        @Override
+        public String subject() {
+            return "Your College Due Management System Credentials";
+        }
+
+        @Override
+        public String template() {
+            return "email/credentials";
+        }
+
+        @Override
+        public Map<String, Object> variables() {
+            return namedValues("name", name, "username", username, "uniqueCode", uniqueCode, "password", password);
+        }
+    }
+
+    record PasswordReset(String to, String name, String resetLink) implements EmailMessage {
+
+        public static PasswordReset of(User user, String resetToken) {
+            return new PasswordReset(user.getEmail(), fullName(user),
+                    "http://localhost:3000/reset-password?token=" + resetToken);
+        }
+
+        @Override
+        public String subject() {
+            return "Password Reset Request";
+        }
+
+        @Override
+        public String template() {
+            return "email/password-reset";
+        }
+
+        @Override
+        public Map<String, Object> variables() {
+            return namedValues("name", name, "resetLink", resetLink);
+        }
+    }
+
+    record DueNotification(String to, String name, String department, String description, BigDecimal amount,
+                           LocalDateTime dueDate) implements EmailMessage {
+
+        public static DueNotification of(User student, Due due) {
+            return new DueNotification(student.getEmail(), fullName(student), due.getDepartment(),
+                    due.getDescription(), due.getAmount(), due.getDueDate());
+        }
+
+        @Override
+        public String subject() {
+            return "New Due Added: " + department;
+        }
+
+        @Override
+        public String template() {
+            return "email/due-notification";
+        }
+
+        @Override
+        public Map<String, Object> variables() {
+            return namedValues("name", name, "department", department, "description", description,
+                    "amount", amount, "dueDate", dueDate);
+        }
+    }
+
+    record DueApproval(String to, String name, String department, String description, BigDecimal amount)
+            implements EmailMessage {
+
+        public static DueApproval of(User student, Due due) {
+            return new DueApproval(student.getEmail(), fullName(student), due.getDepartment(),
+                    due.getDescription(), due.getAmount());
+        }
+
+        @Override
+        public String subject() {
+            return "Due Payment Approved: " + department;
+        }
+
+        @Override
+        public String template() {
+            return "email/due-approval";
+        }
+
+        @Override
+        public Map<String, Object> variables() {
+            return namedValues("name", name, "department", department, "description", description,
+                    "amount", amount);
+        }
+    }
+
+    record SignatureRequest(String to, String name, String hodName, String certificateNumber, String studentName)
+            implements EmailMessage {
+
+        public static SignatureRequest of(User deptAdmin, User hod, NoDuesCertificate certificate) {
+            return new SignatureRequest(deptAdmin.getEmail(), fullName(deptAdmin), fullName(hod),
+                    certificate.getCertificateNumber(), fullName(certificate.getStudent()));
+        }
+
+        @Override
+        public String subject() {
+            return "Signature Request for No Dues Certificate";
+        }
+
+        @Override
+        public String template() {
+            return "email/signature-request";
+        }
+
+        @Override
+        public Map<String, Object> variables() {
+            return namedValues("name", name, "hodName", hodName, "certificateNumber", certificateNumber,
+                    "studentName", studentName);
+        }
+    }
+
+    // Unlike Map.of, allows null values (a due without a description, a user without a unique code)
+    private static Map<String, Object> namedValues(Object... namesAndValues) {
+        Map<String, Object> variables = new HashMap<>();
+        for (int i = 0; i < namesAndValues.length; i += 2) {
+            variables.put((String) namesAndValues[i], namesAndValues[i + 1]);
+        }
+        return variables;
+    }
+
+    private static String fullName(User user) {
+        return user.getFirstName() + " " + user.getLastName();
+    }
+}
@@ -0,0 +1,10 @@
+package com.college.duemanagement.dto;
+
+import java.time.LocalDateTime;
+
+/**
+ * Optional filters for an export; null fields match everything. The date range is
+ * applied to the creation time, {@code from} inclusive and {@code to} exclusive.
+ */
+public record ExportFilter(String department, Enum<?> status, LocalDateTime from, LocalDateTime to) {
+}
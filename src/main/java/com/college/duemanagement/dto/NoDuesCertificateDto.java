@@ -6,7 +6,6 @@ import lombok.Data;
 import lombok.NoArgsConstructor;
 
 import java.time.LocalDateTime;
-import java.util.Base64;
 import java.util.List;
 import java.util.stream.Collectors;
 
@@ -31,7 +30,8 @@ public class NoDuesCertificateDto {
     private LocalDateTime principalSignedAt;
     private LocalDateTime createdAt;
     private List<DepartmentSignatureDto> departmentSignatures;
-    private String principalESignature;
+    private String principalESignatureHash;
+    private String principalESignatureUrl;
 
     public static NoDuesCertificateDto fromEntity(NoDuesCertificate entity) {
         NoDuesCertificateDto dto = new NoDuesCertificateDto();
@@ -58,9 +58,8 @@ public class NoDuesCertificateDto {
                             .collect(Collectors.toList())
             );
         }
-        if (entity.getPrincipalESignature() != null) {
-            dto.setPrincipalESignature(Base64.getEncoder().encodeToString(entity.getPrincipalESignature()));
-        }
+        dto.setPrincipalESignatureHash(entity.getPrincipalESignatureHash());
+        dto.setPrincipalESignatureUrl(SignatureMetadata.urlFor(entity.getPrincipalESignatureHash()));
 
         return dto;
     }
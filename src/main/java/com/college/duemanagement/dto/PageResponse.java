@@ -0,0 +1,53 @@
+package com.college.duemanagement.dto;
+
+import com.college.duemanagement.util.PageRequests;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Slice;
+
+import java.util.List;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PageResponse<T> {
+    private List<T> content;
+    private Integer page; // null for cursor requests
+    private int size;
+    private Long totalElements; // null for cursor requests, the first page already carries it
+    private Integer totalPages; // null for cursor requests
+    private boolean hasNext;
+    private Long nextCursor; // pass back as ?cursor= to continue by keyset; only set for id-descending order
+
+    public static <E, T> PageResponse<T> ofPage(Page<E> page, Function<E, T> mapper, Function<E, Long> idOf) {
+        Long nextCursor = page.hasNext() && PageRequests.isKeysetOrder(page.getSort())
+                ? idOf.apply(page.getContent().get(page.getNumberOfElements() - 1))
+                : null;
+        return new PageResponse<>(
+                page.getContent().stream().map(mapper).collect(Collectors.toList()),
+                page.getNumber(),
+                page.getSize(),
+                page.getTotalElements(),
+                page.getTotalPages(),
+                page.hasNext(),
+                nextCursor);
+    }
+
+    public static <E, T> PageResponse<T> ofKeyset(Slice<E> slice, Function<E, T> mapper, Function<E, Long> idOf) {
+        Long nextCursor = slice.hasNext()
+                ? idOf.apply(slice.getContent().get(slice.getNumberOfElements() - 1))
+                : null;
+        return new PageResponse<>(
+                slice.getContent().stream().map(mapper).collect(Collectors.toList()),
+                null,
+                slice.getSize(),
+                null,
+                null,
+                slice.hasNext(),
+                nextCursor);
+    }
+}
@@ -0,0 +1,13 @@
+package com.college.duemanagement.dto;
+
+import com.college.duemanagement.entity.DepartmentSignature;
+import com.college.duemanagement.entity.NoDuesCertificate;
+
+/**
+ * A department signature row locked for a bulk signing, with its certificate's status.
+ */
+public record SignatureLockRow(Long signatureId,
+                               Long certificateId,
+                               DepartmentSignature.SignatureStatus status,
+                               NoDuesCertificate.CertificateStatus certificateStatus) {
+}
@@ -0,0 +1,8 @@
+package com.college.duemanagement.dto;
+
+public record SignatureMetadata(String hash, String contentType, long size) {
+
+    public static String urlFor(String hash) {
+        return hash == null ? null : "/api/signatures/" + hash;
+    }
+}
@@ -15,5 +15,5 @@ public class UserDto {
     private Set<String> roles;
     private String department;
     private boolean hasESignature;
-    private String eSignature; // Base64 encoded signature
+    private String eSignatureHash; // Key into the signature store
 } 
\ No newline at end of file
@@ -0,0 +1,4 @@
+package com.college.duemanagement.dto;
+
+public record UserNameDto(Long id, String firstName, String lastName) {
+}
@@ -37,14 +37,19 @@ public class DepartmentSignature {
     @Column(name = "comments")
     private String comments;
 
-    @Column(name = "e_signature", columnDefinition = "LONGBLOB", length = 16777215)
-    @Lob
-    private byte[] eSignature;
+    // Signer's signature at signing time, see SignatureStore
+    @Column(name = "e_signature_hash", length = 64)
+    private String eSignatureHash;
 
     @ManyToOne
     @JoinColumn(name = "certificate_id")
     private NoDuesCertificate certificate;
 
+    // Optimistic lock: a write based on a stale read fails instead of overwriting, see ConcurrencyRetry
+    @Version
+    @Column(name = "version", nullable = false)
+    private long version;
+
     public enum SignatureStatus {
         PENDING,
         SIGNED,
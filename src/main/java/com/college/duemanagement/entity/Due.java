@@ -8,7 +8,10 @@ import java.math.BigDecimal;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "dues")
+@Table(name = "dues", indexes = {
+        @Index(name = "idx_dues_student_status", columnList = "student_id, payment_status"),
+        @Index(name = "idx_dues_department_status", columnList = "department, payment_status")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -64,6 +67,11 @@ public class Due {
 
     @Column(unique = true) // Ensure uniqueness in the database
     private String receiptNumber; // New field for unique receipt number
+
+    // Optimistic lock: a write based on a stale read fails instead of overwriting, see ConcurrencyRetry
+    @Version
+    @Column(name = "version", nullable = false)
+    private long version;
     
     public enum PaymentStatus {
         PENDING,
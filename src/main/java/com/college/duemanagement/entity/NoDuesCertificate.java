@@ -5,17 +5,29 @@ import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 import lombok.ToString;
+import org.hibernate.annotations.BatchSize;
 
 import java.time.LocalDateTime;
 import java.util.List;
 
 @Entity
-@Table(name = "no_dues_certificates")
+@Table(name = "no_dues_certificates", indexes = {
+        @Index(name = "idx_certificates_principal_status", columnList = "principal_signed, status")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 public class NoDuesCertificate {
 
+    // Departments that sign every certificate, in signedMask bit order (LIBRARY is bit 0).
+    // Append only: reordering would change the meaning of stored masks.
+    public static final List<String> REQUIRED_DEPARTMENTS = List.of(
+            "LIBRARY", "TRAINING_AND_PLACEMENT", "SPORTS", "OFFICE", "HOD",
+            "IES_LIBRARY", "TRANSPORT", "HOSTEL", "ACCOUNTS", "STUDENT_SECTION"
+    );
+
+    public static final int ALL_SIGNED_MASK = (1 << REQUIRED_DEPARTMENTS.size()) - 1;
+
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
@@ -49,14 +61,46 @@ public class NoDuesCertificate {
     @Column(name = "updated_at")
     private LocalDateTime updatedAt;
 
+    @BatchSize(size = 50)
     @OneToMany(fetch = FetchType.LAZY, cascade = CascadeType.ALL)
     @JoinColumn(name = "certificate_id")
     private List<DepartmentSignature> departmentSignatures;
 
-    @Column(name = "principal_e_signature", columnDefinition = "LONGBLOB", length = 16777215)
-    @Lob
-    private byte[] principalESignature;
+    // Principal's signature at signing time, see SignatureStore
+    @Column(name = "principal_e_signature_hash", length = 64)
+    private String principalESignatureHash;
+
+    // Which required departments have signed (see departmentBit) and how many, kept in step with
+    // the signature rows on every transition so status checks need not load the signatures
+    @Column(name = "signed_mask", nullable = false)
+    private int signedMask;
+
+    @Column(name = "signed_count", nullable = false)
+    private int signedCount;
+
+    // Optimistic lock: a write based on a stale read fails instead of overwriting, see ConcurrencyRetry
+    @Version
+    @Column(name = "version", nullable = false)
+    private long version;
 
+    /** The department's bit in {@link #signedMask}, 0 for a department not in {@link #REQUIRED_DEPARTMENTS}. */
+    public static int departmentBit(String department) {
+        int index = REQUIRED_DEPARTMENTS.indexOf(department);
+        return index < 0 ? 0 : 1 << index;
+    }
+
+    /** Counts the department's signature unless it already was. */
+    public void recordSignature(String department) {
+        int bit = departmentBit(department);
+        if (bit != 0 && (signedMask & bit) == 0) {
+            signedMask |= bit;
+            signedCount++;
+        }
+    }
+
+    public boolean isAllSigned() {
+        return signedMask == ALL_SIGNED_MASK;
+    }
 
     public enum CertificateStatus {
         PENDING,    // 4 chars
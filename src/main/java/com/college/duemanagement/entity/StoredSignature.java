@@ -0,0 +1,41 @@
+package com.college.duemanagement.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.ToString;
+
+import java.time.LocalDateTime;
+
+/**
+ * An e-signature image stored once and addressed by the SHA-256 of its content.
+ * Users, department signatures and certificates only keep the hash.
+ */
+@Entity
+@Table(name = "signatures")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class StoredSignature {
+
+    @Id
+    @Column(name = "hash", length = 64)
+    private String hash;
+
+    @Column(name = "content_type", nullable = false)
+    private String contentType;
+
+    @Column(name = "size", nullable = false)
+    private long size;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    // Only read through SignatureStore, never alongside the metadata
+    @ToString.Exclude
+    @Basic(fetch = FetchType.LAZY)
+    @Column(name = "content", columnDefinition = "LONGBLOB", length = 16777215, nullable = false)
+    @Lob
+    private byte[] content;
+}
@@ -22,7 +22,7 @@ public class Student {
     @ToString.Exclude
     @OneToOne(fetch = FetchType.EAGER)
     @JoinColumn(name = "user_id", nullable = true)
-    @JsonIgnoreProperties({"hibernateLazyInitializer", "handler", "password", "roles", "resetToken", "resetTokenExpiry", "isAccountNonExpired", "isAccountNonLocked", "isCredentialsNonExpired", "isEnabled", "eSignature"})
+    @JsonIgnoreProperties({"hibernateLazyInitializer", "handler", "password", "roles", "resetToken", "resetTokenExpiry", "isAccountNonExpired", "isAccountNonLocked", "isCredentialsNonExpired", "isEnabled", "eSignatureHash"})
     private User user;
     
     @Column(nullable = false, unique = true)
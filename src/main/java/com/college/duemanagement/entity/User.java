@@ -7,6 +7,7 @@ import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 import lombok.ToString;
+import org.hibernate.annotations.BatchSize;
 
 import java.util.HashSet;
 import java.util.List;
@@ -18,7 +19,9 @@ import java.util.Set;
 @AllArgsConstructor
 @JsonIgnoreProperties({"hibernateLazyInitializer", "handler"})
 @Entity
-@Table(name = "users")
+@Table(name = "users", indexes = {
+        @Index(name = "idx_users_department", columnList = "department")
+})
 //@Table(name = "\"users\"")
 public class User {
 
@@ -62,6 +65,13 @@ public class User {
     @Column(name = "is_enabled")
     private boolean isEnabled = true;
 
+    // Bumped to revoke every token issued before a role, department or password change
+    @JsonIgnore
+    @Column(name = "token_version", nullable = false, columnDefinition = "integer default 0")
+    private int tokenVersion = 0;
+
+    // Loaded in batches when a list of users (e.g. due students) is read
+    @BatchSize(size = 50)
     @ManyToMany(fetch = FetchType.EAGER)
     @JoinTable(
             name = "user_roles",
@@ -73,9 +83,9 @@ public class User {
     @Column(name = "department")
     private String department;
 
-    @Column(name = "e_signature", columnDefinition = "LONGBLOB", length = 16777215)
-    @Lob
-    private byte[] eSignature;
+    // SHA-256 of the uploaded signature in the signature store
+    @Column(name = "e_signature_hash", length = 64)
+    private String eSignatureHash;
 
     @ToString.Exclude
     @OneToOne(mappedBy = "user", cascade = CascadeType.ALL, orphanRemoval = true)
@@ -0,0 +1,15 @@
+package com.college.duemanagement.event;
+
+import java.time.LocalDateTime;
+
+/**
+ * Published when a department or the principal signs a no-dues certificate.
+ * {@code signingDepartment} is null for the principal's signature.
+ */
+public record CertificateSignedEvent(Long certificateId,
+                                     Long studentId,
+                                     String studentName,
+                                     String studentDepartment,
+                                     String signingDepartment,
+                                     LocalDateTime signedAt) {
+}
@@ -0,0 +1,36 @@
+package com.college.duemanagement.event;
+
+import com.college.duemanagement.entity.Due;
+
+import java.math.BigDecimal;
+
+/**
+ * Published when a due is created, changes payment status or is deleted.
+ * A null previous status means the due is new, a null current status that it was deleted.
+ */
+public record DueChangedEvent(Long dueId,
+                              Long studentId,
+                              String department,
+                              String description,
+                              Due.PaymentStatus previousStatus,
+                              Due.PaymentStatus currentStatus,
+                              BigDecimal amount) {
+
+    public static DueChangedEvent created(Due due) {
+        return of(due, null, due.getPaymentStatus());
+    }
+
+    public static DueChangedEvent statusChanged(Due due, Due.PaymentStatus previousStatus) {
+        return of(due, previousStatus, due.getPaymentStatus());
+    }
+
+    public static DueChangedEvent deleted(Due due) {
+        return of(due, due.getPaymentStatus(), null);
+    }
+
+    private static DueChangedEvent of(Due due, Due.PaymentStatus previousStatus, Due.PaymentStatus currentStatus) {
+        Long studentId = due.getStudent() != null ? due.getStudent().getId() : null;
+        return new DueChangedEvent(due.getId(), studentId, due.getDepartment(), due.getDescription(),
+                previousStatus, currentStatus, due.getAmount());
+    }
+}
@@ -0,0 +1,21 @@
+package com.college.duemanagement.event;
+
+/**
+ * Published when a student joins or leaves a department: registered, moved or deleted.
+ */
+public record StudentChangedEvent(Long userId, String name, String department, Change change) {
+
+    public enum Change {
+        REGISTERED(1), MOVED_IN(1), MOVED_OUT(-1), DELETED(-1);
+
+        private final int delta;
+
+        Change(int delta) {
+            this.delta = delta;
+        }
+    }
+
+    public int delta() {
+        return change.delta;
+    }
+}
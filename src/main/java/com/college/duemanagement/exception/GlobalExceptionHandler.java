@@ -3,6 +3,10 @@ package com.college.duemanagement.exception;
 import com.college.duemanagement.response.ApiResponse;
 import jakarta.mail.MessagingException;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.web.bind.MethodArgumentNotValidException;
@@ -45,6 +49,29 @@ public class GlobalExceptionHandler {
         return ResponseEntity.badRequest().body(error);
     }
 
+    @ExceptionHandler(TaskRejectedException.class)
+    public ResponseEntity<?> handleTaskRejectedException(TaskRejectedException ex) {
+        log.warn("Executor saturated: {}", ex.getMessage());
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, "30")
+                .body(ApiResponse.builder().
+                        success(false).
+                        message("Server is busy, please try again shortly").
+                        build()
+        );
+    }
+
+    @ExceptionHandler(ConcurrencyFailureException.class)
+    public ResponseEntity<?> handleConcurrencyFailureException(ConcurrencyFailureException ex) {
+        log.warn("Concurrent update conflict: {}", ex.getMessage());
+        return ResponseEntity.status(HttpStatus.CONFLICT).body(
+                ApiResponse.builder().
+                        success(false).
+                        message("The record was changed by another request, please reload and try again").
+                        build()
+        );
+    }
+
     @ExceptionHandler(Exception.class)
     public ResponseEntity<?> handleUsernameNotFoundException(Exception ex) {
         return ResponseEntity.badRequest().body(
@@ -2,6 +2,8 @@ package com.college.duemanagement.repository;
 
 import com.college.duemanagement.entity.Department;
 import com.college.duemanagement.entity.User;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
 
@@ -22,4 +24,6 @@ public interface DepartmentRepository extends JpaRepository<Department, Long> {
     Boolean existsByName(String name);
     
     Boolean existsByCode(String code);
+
+    Slice<Department> findByIdLessThan(Long id, Pageable pageable);
 } 
\ No newline at end of file
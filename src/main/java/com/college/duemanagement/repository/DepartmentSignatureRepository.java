@@ -1,10 +1,18 @@
 package com.college.duemanagement.repository;
 
+import com.college.duemanagement.dto.SignatureLockRow;
 import com.college.duemanagement.entity.DepartmentSignature;
 import com.college.duemanagement.entity.User;
+import com.college.duemanagement.event.CertificateSignedEvent;
+import jakarta.persistence.LockModeType;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 @Repository
@@ -14,4 +22,36 @@ public interface DepartmentSignatureRepository extends JpaRepository<DepartmentS
     List<DepartmentSignature> findByDepartment(String department);
     List<DepartmentSignature> findByStatus(DepartmentSignature.SignatureStatus status);
     List<DepartmentSignature> findByDepartmentAndStatus(String department, DepartmentSignature.SignatureStatus status);
-} 
\ No newline at end of file
+    List<DepartmentSignature> findByCertificateIdAndDepartment(Long certificateId, String department);
+
+    // Projection rather than entities so locking a few thousand rows does not load them (and their students).
+    // FOR UPDATE covers department_signatures only; the certificate status comes from a subquery.
+    String LOCK_ROW = "SELECT new com.college.duemanagement.dto.SignatureLockRow(s.id, s.certificate.id, s.status, " +
+            "(SELECT c.status FROM NoDuesCertificate c WHERE c.id = s.certificate.id)) " +
+            "FROM DepartmentSignature s ";
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query(LOCK_ROW + "WHERE s.department = :department AND s.certificate.id IN :certificateIds")
+    List<SignatureLockRow> lockByCertificates(@Param("department") String department,
+                                              @Param("certificateIds") List<Long> certificateIds);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query(LOCK_ROW + "WHERE s.department = :department AND s.status = 'PENDING' " +
+            "AND s.certificate IS NOT NULL AND s.student.id IN :studentIds")
+    List<SignatureLockRow> lockPendingByStudents(@Param("department") String department,
+                                                 @Param("studentIds") List<Long> studentIds);
+
+    @Modifying
+    @Query("UPDATE DepartmentSignature s SET s.status = 'SIGNED', s.signedBy = :signedBy, s.signedAt = :signedAt, " +
+            "s.comments = :comments, s.eSignatureHash = :eSignatureHash, s.version = s.version + 1 WHERE s.id IN :ids")
+    int markSigned(@Param("ids") List<Long> ids,
+                   @Param("signedBy") String signedBy,
+                   @Param("signedAt") LocalDateTime signedAt,
+                   @Param("comments") String comments,
+                   @Param("eSignatureHash") String eSignatureHash);
+
+    @Query("SELECT new com.college.duemanagement.event.CertificateSignedEvent(c.id, u.id, " +
+            "CONCAT(u.firstName, ' ', u.lastName), u.department, s.department, s.signedAt) " +
+            "FROM DepartmentSignature s JOIN s.certificate c JOIN c.student u WHERE s.id IN :ids")
+    List<CertificateSignedEvent> findSignedEvents(@Param("ids") List<Long> ids);
+}
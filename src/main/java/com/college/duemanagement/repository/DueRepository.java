@@ -1,19 +1,28 @@
 package com.college.duemanagement.repository;
 
+import com.college.duemanagement.dto.DepartmentDueTotals;
 import com.college.duemanagement.entity.Due;
 import com.college.duemanagement.entity.User;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface DueRepository extends JpaRepository<Due, Long> {
     
+    // Dues are listed with the student and Student row joined in, see DueDtoMapper
+    @EntityGraph(attributePaths = {"student", "student.student"}, type = EntityGraph.EntityGraphType.LOAD)
     List<Due> findByStudent(User student);
     
+    @EntityGraph(attributePaths = {"student", "student.student"}, type = EntityGraph.EntityGraphType.LOAD)
     List<Due> findByStudentAndDepartment(User student, String department);
     
     List<Due> findByDepartment(String department);
@@ -23,6 +32,8 @@ public interface DueRepository extends JpaRepository<Due, Long> {
     List<Due> findByDepartmentAndPaymentStatus(String department, Due.PaymentStatus paymentStatus);
     
     List<Due> findByStudentAndDepartmentAndPaymentStatus(User student, String department, Due.PaymentStatus paymentStatus);
+
+    boolean existsByStudentIdAndDepartmentAndPaymentStatusNot(Long studentId, String department, Due.PaymentStatus paymentStatus);
     
     long countByPaymentStatus(Due.PaymentStatus status);
     
@@ -30,6 +41,24 @@ public interface DueRepository extends JpaRepository<Due, Long> {
     
     List<Due> findTop5ByPaymentStatusOrderByUpdatedAtDesc(Due.PaymentStatus status);
 
+    // Dashboard totals per department, grouped in SQL over idx_dues_department_status
+    String DEPARTMENT_TOTALS = "SELECT new com.college.duemanagement.dto.DepartmentDueTotals(d.department, " +
+            "SUM(CASE WHEN d.paymentStatus = 'PENDING' THEN d.amount ELSE 0 END), " +
+            "SUM(CASE WHEN d.paymentStatus = 'PENDING' THEN 1L ELSE 0L END), " +
+            "COUNT(d), " +
+            "SUM(CASE WHEN d.paymentStatus IN ('PAID', 'APPROVED') THEN 1L ELSE 0L END)) " +
+            "FROM Due d ";
+
+    // A due that still blocks a no-dues certificate for student u. Shared by the eligibility
+    // check and the cleared-student listing so both agree on what "cleared" means.
+    String OPEN_DUES = "EXISTS (SELECT d FROM Due d WHERE d.student = u AND d.paymentStatus <> 'APPROVED')";
+
+    @Query(DEPARTMENT_TOTALS + "GROUP BY d.department")
+    List<DepartmentDueTotals> sumByDepartment();
+
+    @Query(DEPARTMENT_TOTALS + "WHERE d.department = :department GROUP BY d.department")
+    Optional<DepartmentDueTotals> sumForDepartment(@Param("department") String department);
+
     @Query("SELECT d FROM Due d " +
             "WHERE d.student.department = :department " +
             "AND EXISTS (SELECT r FROM d.student.roles r WHERE r.name = 'ROLE_STUDENT') " +
@@ -43,4 +72,46 @@ public interface DueRepository extends JpaRepository<Due, Long> {
 
     // Helper method to get dues for a specific student
     List<Due> findByStudentAndPaymentStatusNot(User student, Due.PaymentStatus status);
+
+    // Paged and keyset (id below the cursor) variants for the list endpoint
+    @Override
+    @EntityGraph(attributePaths = {"student", "student.student"}, type = EntityGraph.EntityGraphType.LOAD)
+    Page<Due> findAll(Pageable pageable);
+
+    @EntityGraph(attributePaths = {"student", "student.student"}, type = EntityGraph.EntityGraphType.LOAD)
+    Slice<Due> findByIdLessThan(Long id, Pageable pageable);
+
+    @EntityGraph(attributePaths = {"student", "student.student"}, type = EntityGraph.EntityGraphType.LOAD)
+    Page<Due> findByDepartment(String department, Pageable pageable);
+
+    @EntityGraph(attributePaths = {"student", "student.student"}, type = EntityGraph.EntityGraphType.LOAD)
+    Slice<Due> findByDepartmentAndIdLessThan(String department, Long id, Pageable pageable);
+
+    @EntityGraph(attributePaths = {"student", "student.student"}, type = EntityGraph.EntityGraphType.LOAD)
+    Page<Due> findByStudentId(Long studentId, Pageable pageable);
+
+    @EntityGraph(attributePaths = {"student", "student.student"}, type = EntityGraph.EntityGraphType.LOAD)
+    Slice<Due> findByStudentIdAndIdLessThan(Long studentId, Long id, Pageable pageable);
+
+    // Dues of the department's students in one status (HOD/Principal listing), filtered in SQL;
+    // served by idx_dues_student_status and idx_users_department
+    @Query(value = "SELECT d FROM Due d JOIN FETCH d.student s LEFT JOIN FETCH s.student " +
+            "WHERE s.department = :department AND d.paymentStatus = :status",
+            countQuery = "SELECT COUNT(d) FROM Due d JOIN d.student s " +
+                    "WHERE s.department = :department AND d.paymentStatus = :status")
+    Page<Due> findByStudentDepartmentAndPaymentStatus(@Param("department") String department,
+                                                      @Param("status") Due.PaymentStatus status,
+                                                      Pageable pageable);
+
+    @Query("SELECT d FROM Due d JOIN FETCH d.student s LEFT JOIN FETCH s.student " +
+            "WHERE s.department = :department AND d.paymentStatus = :status AND d.id < :id")
+    Slice<Due> findByStudentDepartmentAndPaymentStatusAndIdLessThan(@Param("department") String department,
+                                                                    @Param("status") Due.PaymentStatus status,
+                                                                    @Param("id") Long id,
+                                                                    Pageable pageable);
+
+    // Dashboard activity feeds, limited in SQL
+    List<Due> findTop5ByDepartmentAndPaymentStatusOrderByUpdatedAtDesc(String department, Due.PaymentStatus status);
+
+    List<Due> findTop5ByStudentOrderByUpdatedAtDesc(User student);
 } 
\ No newline at end of file
@@ -2,9 +2,17 @@ package com.college.duemanagement.repository;
 
 import com.college.duemanagement.entity.NoDuesCertificate;
 import com.college.duemanagement.entity.User;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 
@@ -14,6 +22,49 @@ public interface NoDuesCertificateRepository extends JpaRepository<NoDuesCertifi
     Optional<NoDuesCertificate> findByCertificateNumber(String certificateNumber);
     List<NoDuesCertificate> findByStatus(NoDuesCertificate.CertificateStatus status);
     List<NoDuesCertificate> findByPrincipalSigned(Boolean principalSigned);
+    // Awaiting the principal: (false, ALLSGND), served by idx_certificates_principal_status
+    @EntityGraph(attributePaths = {"student", "student.student"}, type = EntityGraph.EntityGraphType.LOAD)
+    List<NoDuesCertificate> findByPrincipalSignedAndStatus(Boolean principalSigned, NoDuesCertificate.CertificateStatus status);
     List<NoDuesCertificate> findByStudentDepartment(String department);
 
-} 
\ No newline at end of file
+    @Query("SELECT c.signedMask FROM NoDuesCertificate c WHERE c.id = :id")
+    Optional<Integer> findSignedMaskById(@Param("id") Long id);
+
+    // Paged and keyset (id below the cursor) variants for the list endpoint
+    Slice<NoDuesCertificate> findByIdLessThan(Long id, Pageable pageable);
+    Page<NoDuesCertificate> findByStudentDepartment(String department, Pageable pageable);
+    Slice<NoDuesCertificate> findByStudentDepartmentAndIdLessThan(String department, Long id, Pageable pageable);
+    Page<NoDuesCertificate> findByStudentId(Long studentId, Pageable pageable);
+    Slice<NoDuesCertificate> findByStudentIdAndIdLessThan(Long studentId, Long id, Pageable pageable);
+
+    @Query("SELECT c FROM NoDuesCertificate c WHERE EXISTS (" +
+            "SELECT s FROM DepartmentSignature s WHERE s.certificate = c " +
+            "AND s.department = :department AND s.status = 'PENDING')")
+    Page<NoDuesCertificate> findPendingForDepartment(@Param("department") String department, Pageable pageable);
+
+    @Query("SELECT c FROM NoDuesCertificate c WHERE c.id < :cursor AND EXISTS (" +
+            "SELECT s FROM DepartmentSignature s WHERE s.certificate = c " +
+            "AND s.department = :department AND s.status = 'PENDING')")
+    Slice<NoDuesCertificate> findPendingForDepartmentBefore(@Param("department") String department,
+                                                            @Param("cursor") Long cursor, Pageable pageable);
+
+    // Counts one department's signature on many certificates at once. The caller guarantees the
+    // department had not signed them yet (its rows were PENDING under lock), so adding the bit sets it.
+    // These updates bump the version so a signer holding the old certificate fails and retries.
+    @Modifying
+    @Query("UPDATE NoDuesCertificate c SET c.signedMask = c.signedMask + :bit, c.signedCount = c.signedCount + 1, " +
+            "c.version = c.version + 1 WHERE c.id IN :ids")
+    int recordSignature(@Param("ids") List<Long> ids, @Param("bit") int bit);
+
+    // Status from the counter, as for a single signature: ALLSGND once every department has
+    // signed (until the principal signs), PARTIAL before. Rejected certificates keep their status.
+    @Modifying
+    @Query("UPDATE NoDuesCertificate c SET c.status = 'ALLSGND', c.updatedAt = :now, c.version = c.version + 1 " +
+            "WHERE c.id IN :ids AND c.principalSigned = false AND c.signedMask = :allSigned AND c.status <> 'REJECTED'")
+    int markAllSigned(@Param("ids") List<Long> ids, @Param("allSigned") int allSigned, @Param("now") LocalDateTime now);
+
+    @Modifying
+    @Query("UPDATE NoDuesCertificate c SET c.status = 'PARTIAL', c.updatedAt = :now, c.version = c.version + 1 " +
+            "WHERE c.id IN :ids AND c.signedMask <> 0 AND c.signedMask <> :allSigned AND c.status <> 'REJECTED'")
+    int markPartiallySigned(@Param("ids") List<Long> ids, @Param("allSigned") int allSigned, @Param("now") LocalDateTime now);
+}
@@ -0,0 +1,36 @@
+package com.college.duemanagement.repository;
+
+import com.college.duemanagement.entity.OutboundEmail;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface OutboundEmailRepository extends JpaRepository<OutboundEmail, Long> {
+
+    // FOR UPDATE SKIP LOCKED (lock timeout -2): rows claimed by another dispatcher are skipped, not waited on
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "-2"))
+    // A SENDING row is only due again once its lease has run out
+    @Query("SELECT m FROM OutboundEmail m WHERE m.status IN :statuses AND m.nextAttemptAt <= :now ORDER BY m.id")
+    List<OutboundEmail> claimReady(@Param("statuses") Collection<OutboundEmail.Status> statuses,
+                                   @Param("now") LocalDateTime now,
+                                   Limit limit);
+
+    long countByStatus(OutboundEmail.Status status);
+
+    @Modifying
+    @Query("DELETE FROM OutboundEmail m WHERE m.status = :status AND m.sentAt < :before")
+    int deleteSentBefore(@Param("status") OutboundEmail.Status status, @Param("before") LocalDateTime before);
+}
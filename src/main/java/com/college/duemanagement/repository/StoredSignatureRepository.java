@@ -0,0 +1,18 @@
+package com.college.duemanagement.repository;
+
+import com.college.duemanagement.dto.SignatureMetadata;
+import com.college.duemanagement.entity.StoredSignature;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+@Repository
+public interface StoredSignatureRepository extends JpaRepository<StoredSignature, String> {
+
+    @Query("SELECT new com.college.duemanagement.dto.SignatureMetadata(s.hash, s.contentType, s.size) " +
+           "FROM StoredSignature s WHERE s.hash = :hash")
+    Optional<SignatureMetadata> findMetadataByHash(@Param("hash") String hash);
+}
@@ -1,9 +1,16 @@
 package com.college.duemanagement.repository;
 
+import com.college.duemanagement.dto.DepartmentCount;
 import com.college.duemanagement.entity.Student;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -13,6 +20,36 @@ public interface StudentRepository extends JpaRepository<Student, Long> {
     Optional<Student> findByUserId(Long userId);
     List<Student> findByUserDepartment(String department);
     long countByUserDepartment(String department);
+
+    @Query("SELECT new com.college.duemanagement.dto.DepartmentCount(u.department, COUNT(s)) " +
+            "FROM Student s JOIN s.user u GROUP BY u.department")
+    List<DepartmentCount> countGroupByUserDepartment();
+
     List<Student> findTop5ByOrderByCreatedAtDesc();
+    List<Student> findTop5ByUserDepartmentOrderByCreatedAtDesc(String department);
     boolean existsByRollNumber(String rollNumber);
+
+    @Query("SELECT s.rollNumber FROM Student s WHERE s.rollNumber IN :rollNumbers")
+    List<String> findExistingRollNumbers(@Param("rollNumbers") Collection<String> rollNumbers);
+
+    // Which of these user ids belong to students
+    @Query("SELECT s.user.id FROM Student s WHERE s.user.id IN :userIds")
+    List<Long> findExistingUserIds(@Param("userIds") Collection<Long> userIds);
+
+    // User ids of the students matching a bulk selector; null fields match everything
+    @Query("SELECT u.id FROM Student s JOIN s.user u " +
+            "WHERE (:department IS NULL OR u.department = :department) " +
+            "AND (:batch IS NULL OR s.batch = :batch) " +
+            "AND (:semester IS NULL OR s.semester = :semester) " +
+            "AND (:section IS NULL OR s.section = :section) " +
+            "ORDER BY u.id")
+    List<Long> findUserIdsBySelector(@Param("department") String department,
+                                     @Param("batch") String batch,
+                                     @Param("semester") Integer semester,
+                                     @Param("section") String section);
+
+    // Paged and keyset (id below the cursor) variants for the list endpoint
+    Slice<Student> findByIdLessThan(Long id, Pageable pageable);
+    Page<Student> findByUserDepartment(String department, Pageable pageable);
+    Slice<Student> findByUserDepartmentAndIdLessThan(String department, Long id, Pageable pageable);
 } 
\ No newline at end of file
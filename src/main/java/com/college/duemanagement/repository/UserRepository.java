@@ -1,11 +1,20 @@
 package com.college.duemanagement.repository;
 
+import com.college.duemanagement.dto.CertificateEligibility;
+import com.college.duemanagement.dto.ClearedStudentRow;
+import com.college.duemanagement.dto.UserNameDto;
+import com.college.duemanagement.entity.NoDuesCertificate;
 import com.college.duemanagement.entity.Role;
 import com.college.duemanagement.entity.User;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -32,7 +41,76 @@ public interface UserRepository extends JpaRepository<User, Long> {
             "SELECT r FROM u.roles r WHERE r.name = 'ROLE_STUDENT')")
     List<User> notExistsRoleStudent();
 
+    @Query("SELECT u FROM User u WHERE NOT EXISTS (" +
+            "SELECT r FROM u.roles r WHERE r.name = 'ROLE_STUDENT')")
+    Page<User> notExistsRoleStudent(Pageable pageable);
+
+    @Query("SELECT u FROM User u WHERE u.id < :cursor AND NOT EXISTS (" +
+            "SELECT r FROM u.roles r WHERE r.name = 'ROLE_STUDENT')")
+    Slice<User> notExistsRoleStudentBefore(@Param("cursor") Long cursor, Pageable pageable);
+
+    // Students with no due outside APPROVED, each with their latest certificate, in one query.
+    // A null department means every department.
+    String CLEARED_STUDENTS = "LEFT JOIN NoDuesCertificate c ON c.student = u " +
+            "AND c.id = (SELECT MAX(c2.id) FROM NoDuesCertificate c2 WHERE c2.student = u) " +
+            "WHERE (:department IS NULL OR u.department = :department) " +
+            "AND EXISTS (SELECT r FROM u.roles r WHERE r.name = 'ROLE_STUDENT') " +
+            "AND NOT " + DueRepository.OPEN_DUES;
+
+    // A fetch join needs its owner in the select list, which a constructor expression is not,
+    // so these return (user, certificate) pairs and the default methods below wrap them
+    @Query(value = "SELECT u, c FROM User u LEFT JOIN FETCH u.student " + CLEARED_STUDENTS,
+            countQuery = "SELECT COUNT(u) FROM User u " + CLEARED_STUDENTS)
+    Page<Object[]> findClearedStudentPairs(@Param("department") String department, Pageable pageable);
+
+    @Query("SELECT u, c FROM User u LEFT JOIN FETCH u.student " + CLEARED_STUDENTS + " AND u.id < :cursor")
+    Slice<Object[]> findClearedStudentPairsBefore(@Param("department") String department,
+                                                  @Param("cursor") Long cursor,
+                                                  Pageable pageable);
+
+    default Page<ClearedStudentRow> findClearedStudents(String department, Pageable pageable) {
+        return findClearedStudentPairs(department, pageable)
+                .map(pair -> new ClearedStudentRow((User) pair[0], (NoDuesCertificate) pair[1]));
+    }
+
+    default Slice<ClearedStudentRow> findClearedStudentsBefore(String department, Long cursor, Pageable pageable) {
+        return findClearedStudentPairsBefore(department, cursor, pageable)
+                .map(pair -> new ClearedStudentRow((User) pair[0], (NoDuesCertificate) pair[1]));
+    }
+
+    // Open dues and the latest certificate that was not rejected, in one round trip
+    String CERTIFICATE_ELIGIBILITY = "SELECT new com.college.duemanagement.dto.CertificateEligibility(u.id, " +
+            "CASE WHEN " + DueRepository.OPEN_DUES + " THEN true ELSE false END, " +
+            "(SELECT MAX(c.id) FROM NoDuesCertificate c WHERE c.student = u AND c.status <> 'REJECTED')) " +
+            "FROM User u ";
+
+    @Query(CERTIFICATE_ELIGIBILITY + "WHERE u.username = :username")
+    Optional<CertificateEligibility> findCertificateEligibility(@Param("username") String username);
+
+    @Query(CERTIFICATE_ELIGIBILITY + "WHERE u.id = :id")
+    Optional<CertificateEligibility> findCertificateEligibilityById(@Param("id") Long id);
+
+    Page<User> findByDepartment(String department, Pageable pageable);
+
+    Slice<User> findByDepartmentAndIdLessThan(String department, Long id, Pageable pageable);
+
     long countByDepartment(String department);
 
     Optional<User> findByDepartmentAndRoles_Name(String department, Role.ERole roleName);
+
+    @Query("SELECT new com.college.duemanagement.dto.UserNameDto(u.id, u.firstName, u.lastName) " +
+           "FROM User u WHERE u.id IN :ids")
+    List<UserNameDto> findNamesByIdIn(@Param("ids") Collection<Long> ids);
+
+    @Query("SELECT u.email FROM User u WHERE u.email IN :emails")
+    List<String> findExistingEmails(@Param("emails") Collection<String> emails);
+
+    // The user's own signature, or one on a certificate of theirs
+    @Query("SELECT COUNT(u) > 0 FROM User u WHERE u.id = :userId AND (u.eSignatureHash = :hash " +
+           "OR EXISTS (SELECT s FROM DepartmentSignature s WHERE s.student = u AND s.eSignatureHash = :hash) " +
+           "OR EXISTS (SELECT c FROM NoDuesCertificate c WHERE c.student = u AND c.principalESignatureHash = :hash))")
+    boolean isSignatureVisibleTo(@Param("hash") String hash, @Param("userId") Long userId);
+
+    @Query("SELECT u.tokenVersion FROM User u WHERE u.id = :id")
+    Optional<Integer> findTokenVersionById(@Param("id") Long id);
 } 
\ No newline at end of file
@@ -3,6 +3,7 @@ package com.college.duemanagement.security;
 import com.college.duemanagement.security.jwt.AuthEntryPointJwt;
 import com.college.duemanagement.security.jwt.AuthTokenFilter;
 import com.college.duemanagement.security.services.UserDetailsServiceImpl;
+import jakarta.servlet.DispatcherType;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -72,7 +73,9 @@ public class WebSecurityConfig {
             .exceptionHandling(exception -> exception.authenticationEntryPoint(unauthorizedHandler))
             .sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
             .authorizeHttpRequests(auth -> 
-                auth.requestMatchers("/health","/api/auth/**").permitAll()
+                // Async dispatches finish an already authorized request, e.g. an SSE stream
+                auth.dispatcherTypeMatchers(DispatcherType.ASYNC).permitAll()
+                    .requestMatchers("/health","/api/auth/**").permitAll()
                     .requestMatchers("/api/test/**").permitAll()
                         .requestMatchers("/swagger-ui/**",
                                          "/v3/api-docs/**",
@@ -1,6 +1,10 @@
 package com.college.duemanagement.security.jwt;
 
+import com.college.duemanagement.security.services.PrincipalCache;
+import com.college.duemanagement.security.services.TokenVersionService;
+import com.college.duemanagement.security.services.UserDetailsImpl;
 import com.college.duemanagement.security.services.UserDetailsServiceImpl;
+import io.jsonwebtoken.Claims;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -8,6 +12,7 @@ import jakarta.servlet.http.HttpServletResponse;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
@@ -24,6 +29,16 @@ public class AuthTokenFilter extends OncePerRequestFilter {
     @Autowired
     private UserDetailsServiceImpl userDetailsService;
 
+    @Autowired
+    private PrincipalCache principalCache;
+
+    @Autowired
+    private TokenVersionService tokenVersionService;
+
+    // Build the principal from token claims instead of loading the user
+    @Value("${jwt.stateless-principal:false}")
+    private boolean statelessPrincipal;
+
     private static final Logger logger = LoggerFactory.getLogger(AuthTokenFilter.class);
 
     @Override
@@ -39,10 +54,14 @@ public class AuthTokenFilter extends OncePerRequestFilter {
             String jwt = parseJwt(request);
             if (jwt != null) {
                 try {
-                    if (jwtUtils.validateJwtToken(jwt)) {
-                        String username = jwtUtils.getUserNameFromJwtToken(jwt);
-                        UserDetails userDetails = userDetailsService.loadUserByUsername(username);
-                        
+                    Claims claims = jwtUtils.validateAndGetClaims(jwt);
+                    if (claims != null) {
+                        UserDetails userDetails = resolvePrincipal(claims);
+                        if (userDetails == null) {
+                            filterChain.doFilter(request, response);
+                            return;
+                        }
+
                         UsernamePasswordAuthenticationToken authentication =
                                 new UsernamePasswordAuthenticationToken(
                                         userDetails,
@@ -65,6 +84,21 @@ public class AuthTokenFilter extends OncePerRequestFilter {
         filterChain.doFilter(request, response);
     }
 
+    private UserDetails resolvePrincipal(Claims claims) {
+        if (statelessPrincipal) {
+            UserDetailsImpl principal = jwtUtils.getPrincipalFromClaims(claims);
+            if (principal != null) {
+                if (!tokenVersionService.isCurrent(principal.getId(), principal.getTokenVersion())) {
+                    logger.debug("Rejected revoked token for user: {}", principal.getUsername());
+                    return null;
+                }
+                return principal;
+            }
+            // Tokens issued before the claims existed fall back to a lookup
+        }
+        return principalCache.get(claims.getSubject(), userDetailsService::loadUserByUsername);
+    }
+
     private boolean isPermittedUrl(HttpServletRequest request) {
         String path = request.getRequestURI();
         return path.startsWith("/api/auth/") || 
@@ -8,45 +8,105 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.stereotype.Component;
 
 import java.security.Key;
+import java.util.Collection;
 import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
 
 @Component
 public class JwtUtils {
     private static final Logger logger = LoggerFactory.getLogger(JwtUtils.class);
 
-    @Value("${jwt.secret}")
-    private String jwtSecret;
+    // Claims carried for the stateless principal mode
+    public static final String CLAIM_USER_ID = "uid";
+    public static final String CLAIM_EMAIL = "email";
+    public static final String CLAIM_DEPARTMENT = "dept";
+    public static final String CLAIM_ROLES = "roles";
+    public static final String CLAIM_TOKEN_VERSION = "ver";
 
-    @Value("${jwt.expiration}")
-    private int jwtExpirationMs;
+    private final int jwtExpirationMs;
+    private final String currentKeyId;
+    private final Key currentKey;
+    // Current key plus retired keys that may still have live tokens, by key id
+    private final Map<String, Key> verificationKeys;
+    private final JwtParser parser;
+
+    public JwtUtils(@Value("${jwt.secret}") String jwtSecret,
+                    @Value("${jwt.expiration}") int jwtExpirationMs,
+                    @Value("${jwt.key-id:primary}") String currentKeyId,
+                    @Value("${jwt.previous-keys:}") List<String> previousKeys) {
+        this.jwtExpirationMs = jwtExpirationMs;
+        this.currentKeyId = currentKeyId;
+        this.currentKey = Keys.hmacShaKeyFor(Decoders.BASE64.decode(jwtSecret));
+
+        Map<String, Key> keys = new HashMap<>();
+        for (String entry : previousKeys) {
+            if (entry == null || entry.isBlank()) {
+                continue;
+            }
+            int sep = entry.indexOf(':');
+            if (sep <= 0) {
+                throw new IllegalArgumentException("jwt.previous-keys entries must be <key-id>:<base64 secret>");
+            }
+            keys.put(entry.substring(0, sep).trim(),
+                    Keys.hmacShaKeyFor(Decoders.BASE64.decode(entry.substring(sep + 1).trim())));
+        }
+        keys.put(currentKeyId, currentKey);
+        this.verificationKeys = Map.copyOf(keys);
+
+        // JwtParser is immutable and thread-safe, so one instance serves every request
+        this.parser = Jwts.parserBuilder()
+                .setSigningKeyResolver(new SigningKeyResolverAdapter() {
+                    @Override
+                    public Key resolveSigningKey(JwsHeader header, Claims claims) {
+                        String keyId = header.getKeyId();
+                        // Tokens issued before key ids were added were signed with the current secret
+                        if (keyId == null) {
+                            return currentKey;
+                        }
+                        Key key = verificationKeys.get(keyId);
+                        if (key == null) {
+                            throw new UnsupportedJwtException("Unknown JWT key id: " + keyId);
+                        }
+                        return key;
+                    }
+                })
+                .build();
+    }
 
     public String generateJwtToken(Authentication authentication) {
         UserDetailsImpl userPrincipal = (UserDetailsImpl) authentication.getPrincipal();
+        List<String> roles = userPrincipal.getAuthorities().stream()
+                .map(GrantedAuthority::getAuthority)
+                .collect(Collectors.toList());
 
         return Jwts.builder()
                 .setSubject((userPrincipal.getUsername()))
+                .claim(CLAIM_USER_ID, userPrincipal.getId())
+                .claim(CLAIM_EMAIL, userPrincipal.getEmail())
+                .claim(CLAIM_DEPARTMENT, userPrincipal.getDepartment())
+                .claim(CLAIM_ROLES, roles)
+                .claim(CLAIM_TOKEN_VERSION, userPrincipal.getTokenVersion())
+                .setHeaderParam(JwsHeader.KEY_ID, currentKeyId)
                 .setIssuedAt(new Date())
                 .setExpiration(new Date((new Date()).getTime() + jwtExpirationMs))
-                .signWith(key(), SignatureAlgorithm.HS256)
+                .signWith(currentKey, SignatureAlgorithm.HS256)
                 .compact();
     }
-    
-    private Key key() {
-        return Keys.hmacShaKeyFor(Decoders.BASE64.decode(jwtSecret));
-    }
 
-    public String getUserNameFromJwtToken(String token) {
-        return Jwts.parserBuilder().setSigningKey(key()).build()
-                .parseClaimsJws(token).getBody().getSubject();
-    }
-
-    public boolean validateJwtToken(String authToken) {
+    /**
+     * Verifies the token once and returns its claims, or null if it is invalid or expired.
+     */
+    public Claims validateAndGetClaims(String authToken) {
         try {
-            Jwts.parserBuilder().setSigningKey(key()).build().parseClaimsJws(authToken);
-            return true;
+            return parser.parseClaimsJws(authToken).getBody();
         } catch (MalformedJwtException e) {
             logger.error("Invalid JWT token: {}", e.getMessage());
         } catch (ExpiredJwtException e) {
@@ -55,24 +115,76 @@ public class JwtUtils {
             logger.error("JWT token is unsupported: {}", e.getMessage());
         } catch (IllegalArgumentException e) {
             logger.error("JWT claims string is empty: {}", e.getMessage());
+        } catch (JwtException e) {
+            logger.error("JWT token rejected: {}", e.getMessage());
         }
 
-        return false;
+        return null;
     }
 
-    public boolean isTokenRefreshable(String token) {
+    public String getUserNameFromJwtToken(String token) {
+        return getClaimsFromJwtToken(token).getSubject();
+    }
+
+    public Claims getClaimsFromJwtToken(String token) {
+        return parser.parseClaimsJws(token).getBody();
+    }
+
+    /**
+     * Rebuilds the principal from signed claims without a database lookup.
+     * Returns null for tokens issued before the claims were added.
+     */
+    public UserDetailsImpl getPrincipalFromClaims(Claims claims) {
+        Number userId = claims.get(CLAIM_USER_ID, Number.class);
+        Number tokenVersion = claims.get(CLAIM_TOKEN_VERSION, Number.class);
+        Object roles = claims.get(CLAIM_ROLES);
+        if (userId == null || tokenVersion == null || !(roles instanceof Collection<?> roleNames)) {
+            return null;
+        }
+
+        List<GrantedAuthority> authorities = roleNames.stream()
+                .map(role -> new SimpleGrantedAuthority(role.toString()))
+                .collect(Collectors.toList());
+
+        return new UserDetailsImpl(
+                userId.longValue(),
+                claims.getSubject(),
+                claims.get(CLAIM_EMAIL, String.class),
+                null,
+                claims.get(CLAIM_DEPARTMENT, String.class),
+                authorities,
+                tokenVersion.intValue());
+    }
+
+    public boolean validateJwtToken(String authToken) {
+        return validateAndGetClaims(authToken) != null;
+    }
+
+    /**
+     * Verifies the signature and returns the claims even if the token has expired,
+     * or null if the token is invalid. Used by token refresh.
+     */
+    public Claims getRefreshableClaims(String token) {
         try {
-            Claims claims = Jwts.parser()
-                    .setSigningKey(jwtSecret)
-                    .parseClaimsJws(token)
-                    .getBody();
-            return true; // Token is parsable and signature valid
+            return parser.parseClaimsJws(token).getBody();
         } catch (ExpiredJwtException e) {
             // Token is expired but signature is valid
-            return true;
+            return e.getClaims();
         } catch (Exception e) {
-            return false; // Invalid token
+            return null; // Invalid token
         }
     }
 
+    public boolean isTokenRefreshable(String token) {
+        return getRefreshableClaims(token) != null;
+    }
+
+    /**
+     * Tokens issued before the version claim existed count as version 0.
+     */
+    public boolean hasTokenVersion(Claims claims, int currentVersion) {
+        Number version = claims.get(CLAIM_TOKEN_VERSION, Number.class);
+        return (version == null ? 0 : version.intValue()) == currentVersion;
+    }
+
 }
\ No newline at end of file
@@ -0,0 +1,145 @@
+package com.college.duemanagement.security.services;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Comparator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/**
+ * Bounded, TTL-evicting cache of authenticated principals keyed by username.
+ * Used by the JWT filter so that authenticated requests do not reload the user
+ * and roles from the database on every call. Login still goes through
+ * {@link UserDetailsServiceImpl} directly so password checks always see fresh data.
+ */
+@Component
+public class PrincipalCache {
+    private static final Logger logger = LoggerFactory.getLogger(PrincipalCache.class);
+
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+    private final boolean enabled;
+    private final long ttlMs;
+    private final int maxSize;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    public PrincipalCache(@Value("${security.principal-cache.enabled:true}") boolean enabled,
+                          @Value("${security.principal-cache.ttl-ms:60000}") long ttlMs,
+                          @Value("${security.principal-cache.max-size:10000}") int maxSize,
+                          MeterRegistry meterRegistry) {
+        this.enabled = enabled;
+        this.ttlMs = ttlMs;
+        this.maxSize = maxSize;
+
+        FunctionCounter.builder("security.principal.cache.requests", hits, LongAdder::sum)
+                .tag("result", "hit")
+                .description("Principal lookups served from the cache")
+                .register(meterRegistry);
+        FunctionCounter.builder("security.principal.cache.requests", misses, LongAdder::sum)
+                .tag("result", "miss")
+                .description("Principal lookups that went to the database")
+                .register(meterRegistry);
+        FunctionCounter.builder("security.principal.cache.evictions", evictions, LongAdder::sum)
+                .description("Principals removed because of expiry, capacity or invalidation")
+                .register(meterRegistry);
+        Gauge.builder("security.principal.cache.size", entries, Map::size)
+                .register(meterRegistry);
+    }
+
+    public UserDetails get(String username, Function<String, UserDetails> loader) {
+        if (!enabled) {
+            return loader.apply(username);
+        }
+
+        long now = System.currentTimeMillis();
+        Entry entry = entries.get(username);
+        if (entry != null) {
+            if (entry.expiresAt > now) {
+                hits.increment();
+                return entry.principal;
+            }
+            if (entries.remove(username, entry)) {
+                evictions.increment();
+            }
+        }
+
+        misses.increment();
+        UserDetails principal = loader.apply(username);
+        entries.put(username, new Entry(principal, now + ttlMs));
+        if (entries.size() > maxSize) {
+            trim();
+        }
+        return principal;
+    }
+
+    /**
+     * Drops the cached principal for a user. When called inside a transaction the entry
+     * is dropped again after commit, so a request that raced with the update cannot
+     * leave the pre-update principal behind.
+     */
+    public void evict(String username) {
+        if (username == null) {
+            return;
+        }
+        remove(username);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    remove(username);
+                }
+            });
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${security.principal-cache.ttl-ms:60000}")
+    public void purgeExpired() {
+        long now = System.currentTimeMillis();
+        entries.forEach((username, entry) -> {
+            if (entry.expiresAt <= now && entries.remove(username, entry)) {
+                evictions.increment();
+            }
+        });
+    }
+
+    private void remove(String username) {
+        if (entries.remove(username) != null) {
+            evictions.increment();
+        }
+    }
+
+    private void trim() {
+        purgeExpired();
+        int excess = entries.size() - maxSize;
+        if (excess <= 0) {
+            return;
+        }
+        // Over capacity with only live entries: drop the ones closest to expiry
+        entries.entrySet().stream()
+                .sorted(Comparator.comparingLong(e -> e.getValue().expiresAt))
+                .limit(excess)
+                .forEach(e -> {
+                    if (entries.remove(e.getKey(), e.getValue())) {
+                        evictions.increment();
+                    }
+                });
+        logger.debug("Principal cache trimmed to {} entries", entries.size());
+    }
+
+    private record Entry(UserDetails principal, long expiresAt) {
+    }
+}
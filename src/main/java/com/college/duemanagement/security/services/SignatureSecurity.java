@@ -0,0 +1,27 @@
+package com.college.duemanagement.security.services;
+
+import com.college.duemanagement.repository.UserRepository;
+import org.springframework.security.core.Authentication;
+import org.springframework.stereotype.Service;
+
+/**
+ * Who may fetch a signature image by its hash, for {@code @PreAuthorize}. Beyond ADMIN and HOD,
+ * which the endpoints allow outright, a user sees their own signature and those on their own
+ * certificates, as {@code /api/users/{id}/signature} and the certificate views would show them.
+ */
+@Service("signatureSecurity")
+public class SignatureSecurity {
+
+    private final UserRepository userRepository;
+
+    public SignatureSecurity(UserRepository userRepository) {
+        this.userRepository = userRepository;
+    }
+
+    public boolean canRead(String hash, Authentication authentication) {
+        if (authentication == null || !(authentication.getPrincipal() instanceof UserDetailsImpl user)) {
+            return false;
+        }
+        return userRepository.isSignatureVisibleTo(hash, user.getId());
+    }
+}
@@ -0,0 +1,71 @@
+package com.college.duemanagement.security.services;
+
+import com.college.duemanagement.entity.User;
+import com.college.duemanagement.repository.UserRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Tracks the per-user token version that stateless JWTs are checked against.
+ * The current version is read with a single-column query and kept for a short
+ * TTL, so revocation reaches every API node within that window without a
+ * database round-trip per request.
+ */
+@Service
+public class TokenVersionService {
+
+    private final UserRepository userRepository;
+    private final long ttlMs;
+    private final Map<Long, CachedVersion> versions = new ConcurrentHashMap<>();
+
+    public TokenVersionService(UserRepository userRepository,
+                               @Value("${jwt.token-version.cache-ttl-ms:30000}") long ttlMs) {
+        this.userRepository = userRepository;
+        this.ttlMs = ttlMs;
+    }
+
+    /**
+     * @return true if the user still exists and {@code tokenVersion} is the current version
+     */
+    public boolean isCurrent(Long userId, int tokenVersion) {
+        long now = System.currentTimeMillis();
+        CachedVersion cached = versions.get(userId);
+        if (cached == null || cached.expiresAt <= now) {
+            Integer current = userRepository.findTokenVersionById(userId).orElse(null);
+            cached = new CachedVersion(current, now + ttlMs);
+            versions.put(userId, cached);
+        }
+        return cached.version != null && cached.version == tokenVersion;
+    }
+
+    /**
+     * Invalidates every token issued to the user so far. The caller saves the user.
+     */
+    public void revoke(User user) {
+        user.setTokenVersion(user.getTokenVersion() + 1);
+        forget(user.getId());
+    }
+
+    /**
+     * Drops the locally cached version, e.g. after the user was deleted.
+     */
+    public void forget(Long userId) {
+        versions.remove(userId);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    versions.remove(userId);
+                }
+            });
+        }
+    }
+
+    private record CachedVersion(Integer version, long expiresAt) {
+    }
+}
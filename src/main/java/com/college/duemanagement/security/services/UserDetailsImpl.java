@@ -19,6 +19,9 @@ public class UserDetailsImpl implements UserDetails {
     private String email;
     private String department;
 
+    @JsonIgnore
+    private int tokenVersion;
+
     @JsonIgnore
     private String password;
 
@@ -34,6 +37,12 @@ public class UserDetailsImpl implements UserDetails {
         this.authorities = authorities;
     }
 
+    public UserDetailsImpl(Long id, String username, String email, String password,
+                          String department, Collection<? extends GrantedAuthority> authorities, int tokenVersion) {
+        this(id, username, email, password, department, authorities);
+        this.tokenVersion = tokenVersion;
+    }
+
     public static UserDetailsImpl build(User user) {
         List<GrantedAuthority> authorities = user.getRoles().stream()
                 .map(role -> new SimpleGrantedAuthority(role.getName().name()))
@@ -45,7 +54,8 @@ public class UserDetailsImpl implements UserDetails {
                 user.getEmail(),
                 user.getPassword(),
                 user.getDepartment(),
-                authorities);
+                authorities,
+                user.getTokenVersion());
     }
 
     @Override
@@ -65,6 +75,10 @@ public class UserDetailsImpl implements UserDetails {
         return department;
     }
 
+    public int getTokenVersion() {
+        return tokenVersion;
+    }
+
     @Override
     public String getPassword() {
         return password;
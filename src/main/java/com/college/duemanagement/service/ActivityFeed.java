@@ -0,0 +1,262 @@
+package com.college.duemanagement.service;
+
+import com.college.duemanagement.dto.ActivityDto;
+import com.college.duemanagement.entity.Due;
+import com.college.duemanagement.event.CertificateSignedEvent;
+import com.college.duemanagement.event.DueChangedEvent;
+import com.college.duemanagement.event.StudentChangedEvent;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.PriorityBlockingQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Live dashboard activity. Committed payments, approvals, registrations and certificate
+ * signatures go into a bounded ring buffer per department (plus one for all departments)
+ * and are pushed to SSE subscribers. Idle subscribers are parked async requests that hold
+ * no thread; sends run on virtual threads so a slow client cannot hold up the publisher.
+ * A reconnecting client passes Last-Event-ID and gets what it missed that is still buffered.
+ */
+@Component
+public class ActivityFeed {
+    private static final Logger logger = LoggerFactory.getLogger(ActivityFeed.class);
+
+    private static final String ALL_DEPARTMENTS = "*";
+
+    private final int bufferSize;
+    private final long emitterTimeoutMs;
+    private final AtomicLong sequence = new AtomicLong();
+    private final Map<String, Deque<FeedEntry>> buffers = new ConcurrentHashMap<>();
+    private final List<Subscriber> subscribers = new CopyOnWriteArrayList<>();
+    private final ExecutorService sender = Executors.newVirtualThreadPerTaskExecutor();
+
+    public ActivityFeed(@Value("${dashboard.activity.buffer-size:100}") int bufferSize,
+                        @Value("${dashboard.activity.emitter-timeout-ms:1800000}") long emitterTimeoutMs) {
+        this.bufferSize = bufferSize;
+        this.emitterTimeoutMs = emitterTimeoutMs;
+    }
+
+    /**
+     * Opens a stream of activities for one department, or for all departments when
+     * {@code department} is null. A non-null {@code studentId} limits it to that student's activities.
+     */
+    public SseEmitter subscribe(String department, Long studentId, Long lastEventId) {
+        SseEmitter emitter = new SseEmitter(emitterTimeoutMs);
+        Subscriber subscriber = new Subscriber(emitter, department, studentId);
+        emitter.onCompletion(() -> subscribers.remove(subscriber));
+        emitter.onTimeout(() -> subscribers.remove(subscriber));
+        emitter.onError(e -> subscribers.remove(subscriber));
+        subscribers.add(subscriber);
+
+        // Registered first so nothing published meanwhile is missed; the subscriber
+        // sends in id order and skips duplicates between the replay and live events
+        if (lastEventId != null) {
+            snapshot(department == null ? ALL_DEPARTMENTS : department).stream()
+                    .filter(entry -> entry.id() > lastEventId && subscriber.accepts(entry))
+                    .forEach(subscriber::enqueue);
+        }
+        subscriber.start();
+        return emitter;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onDueChanged(DueChangedEvent event) {
+        String type;
+        if (event.currentStatus() == Due.PaymentStatus.PAID) {
+            type = "payment";
+        } else if (event.currentStatus() == Due.PaymentStatus.APPROVED) {
+            type = "approval";
+        } else {
+            return;
+        }
+        publish(activity(event.dueId(), type, "Due " + event.description() + " - " + event.currentStatus()),
+                event.studentId(), event.department());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onStudentChanged(StudentChangedEvent event) {
+        if (event.change() != StudentChangedEvent.Change.REGISTERED) {
+            return;
+        }
+        publish(activity(event.userId(), "registration",
+                        "New student registered in " + event.department() + " department: " + event.name()),
+                event.userId(), event.department());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCertificateSigned(CertificateSignedEvent event) {
+        String signer = event.signingDepartment() != null ? event.signingDepartment() : "Principal";
+        publish(activity(event.certificateId(), "signature",
+                        "No-dues certificate of " + event.studentName() + " signed by " + signer),
+                event.studentId(), event.studentDepartment(), event.signingDepartment());
+    }
+
+    @Scheduled(fixedDelayString = "${dashboard.activity.heartbeat-ms:25000}")
+    public void heartbeat() {
+        // Keeps proxies from closing idle streams and detects clients that went away
+        for (Subscriber subscriber : subscribers) {
+            sender.execute(() -> {
+                try {
+                    subscriber.emitter.send(SseEmitter.event().comment("keep-alive"));
+                } catch (IOException | IllegalStateException e) {
+                    drop(subscriber, e);
+                }
+            });
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        subscribers.forEach(subscriber -> subscriber.emitter.complete());
+        sender.shutdown();
+    }
+
+    private void publish(ActivityDto activity, Long studentId, String... departments) {
+        Set<String> keys = new LinkedHashSet<>();
+        for (String department : departments) {
+            if (department != null) {
+                keys.add(department);
+            }
+        }
+        FeedEntry entry = new FeedEntry(sequence.incrementAndGet(), Set.copyOf(keys), studentId, activity);
+
+        keys.add(ALL_DEPARTMENTS);
+        for (String key : keys) {
+            Deque<FeedEntry> buffer = buffers.computeIfAbsent(key, k -> new ArrayDeque<>(bufferSize));
+            synchronized (buffer) {
+                if (buffer.size() == bufferSize) {
+                    buffer.removeFirst();
+                }
+                buffer.addLast(entry);
+            }
+        }
+
+        for (Subscriber subscriber : subscribers) {
+            if (subscriber.accepts(entry)) {
+                subscriber.enqueue(entry);
+            }
+        }
+    }
+
+    private List<FeedEntry> snapshot(String key) {
+        Deque<FeedEntry> buffer = buffers.get(key);
+        if (buffer == null) {
+            return List.of();
+        }
+        synchronized (buffer) {
+            return new ArrayList<>(buffer);
+        }
+    }
+
+    private void drop(Subscriber subscriber, Exception cause) {
+        if (subscribers.remove(subscriber)) {
+            logger.debug("Dropping activity subscriber: {}", cause.getMessage());
+            subscriber.emitter.completeWithError(cause);
+        }
+    }
+
+    private static ActivityDto activity(Long id, String type, String description) {
+        ActivityDto activity = new ActivityDto();
+        activity.setId(id);
+        activity.setType(type);
+        activity.setDescription(description);
+        activity.setTimestamp(LocalDateTime.now().toString());
+        return activity;
+    }
+
+    private record FeedEntry(long id, Set<String> departments, Long studentId, ActivityDto activity) {
+    }
+
+    /**
+     * One SSE client. Entries queue per subscriber and are drained by at most one
+     * virtual thread at a time, so each client receives them in id order.
+     */
+    private final class Subscriber {
+        private final SseEmitter emitter;
+        private final String department;
+        private final Long studentId;
+        private final PriorityBlockingQueue<FeedEntry> pending =
+                new PriorityBlockingQueue<>(16, Comparator.comparingLong(FeedEntry::id));
+        private final AtomicBoolean draining = new AtomicBoolean();
+        private volatile boolean started;
+        // Only touched by the drain task, which never runs concurrently with itself
+        private long lastSentId;
+
+        private Subscriber(SseEmitter emitter, String department, Long studentId) {
+            this.emitter = emitter;
+            this.department = department;
+            this.studentId = studentId;
+        }
+
+        boolean accepts(FeedEntry entry) {
+            if (department != null && !entry.departments().contains(department)) {
+                return false;
+            }
+            return studentId == null || studentId.equals(entry.studentId());
+        }
+
+        void enqueue(FeedEntry entry) {
+            pending.add(entry);
+            schedule();
+        }
+
+        void start() {
+            started = true;
+            schedule();
+        }
+
+        private void schedule() {
+            if (started && draining.compareAndSet(false, true)) {
+                sender.execute(this::drain);
+            }
+        }
+
+        private void drain() {
+            try {
+                FeedEntry entry;
+                while ((entry = pending.poll()) != null) {
+                    if (entry.id() <= lastSentId) {
+                        continue;
+                    }
+                    emitter.send(SseEmitter.event()
+                            .id(Long.toString(entry.id()))
+                            .name("activity")
+                            .data(entry.activity(), MediaType.APPLICATION_JSON));
+                    lastSentId = entry.id();
+                }
+            } catch (IOException | IllegalStateException e) {
+                pending.clear();
+                drop(this, e);
+                return;
+            } finally {
+                draining.set(false);
+            }
+            if (!pending.isEmpty()) {
+                schedule();
+            }
+        }
+    }
+}
@@ -0,0 +1,174 @@
+package com.college.duemanagement.service;
+
+import com.college.duemanagement.dto.BulkDueRequest;
+import com.college.duemanagement.dto.BulkJobStatus;
+import com.college.duemanagement.entity.Due;
+import com.college.duemanagement.event.DueChangedEvent;
+import com.college.duemanagement.exception.BadRequestException;
+import com.college.duemanagement.repository.StudentRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Creates the same due for many students in the background. Rows go in as chunked
+ * JDBC batch inserts, one transaction per chunk. Dues keep their IDENTITY ids, which
+ * is fine here because the batch does not need the generated keys back. A chunk that
+ * fails is retried row by row so one bad row is reported instead of losing the chunk.
+ */
+@Service
+public class BulkDueService {
+    private static final Logger logger = LoggerFactory.getLogger(BulkDueService.class);
+
+    private static final String INSERT_DUE = "INSERT INTO dues (student_id, department, description, amount, " +
+            "due_date, payment_status, created_by, created_at, receipt_generated, version) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, 0)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final StudentRepository studentRepository;
+    private final BulkJobRegistry jobRegistry;
+    private final ApplicationEventPublisher eventPublisher;
+    private final AsyncTaskExecutor executor;
+    private final int chunkSize;
+
+    public BulkDueService(JdbcTemplate jdbcTemplate,
+                          TransactionTemplate transactionTemplate,
+                          StudentRepository studentRepository,
+                          BulkJobRegistry jobRegistry,
+                          ApplicationEventPublisher eventPublisher,
+                          @Qualifier("bulkExecutor") AsyncTaskExecutor executor,
+                          @Value("${bulk.dues.chunk-size:500}") int chunkSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.studentRepository = studentRepository;
+        this.jobRegistry = jobRegistry;
+        this.eventPublisher = eventPublisher;
+        this.executor = executor;
+        this.chunkSize = chunkSize;
+    }
+
+    /**
+     * Starts the job and returns immediately; poll {@link BulkJobRegistry} for progress.
+     */
+    public BulkJobRegistry.BulkJob submit(BulkDueRequest request, Long createdBy) {
+        boolean hasIds = request.getStudentIds() != null && !request.getStudentIds().isEmpty();
+        if (!hasIds && !request.hasSelector()) {
+            throw new BadRequestException("Give either studentIds or at least one of studentDepartment, batch, semester, section");
+        }
+
+        BulkJobRegistry.BulkJob job = jobRegistry.create("dues", createdBy);
+        try {
+            executor.execute(() -> run(job, request, createdBy));
+        } catch (TaskRejectedException e) {
+            job.fail("Too many bulk jobs running");
+            throw e;
+        }
+        return job;
+    }
+
+    private void run(BulkJobRegistry.BulkJob job, BulkDueRequest request, Long createdBy) {
+        try {
+            List<Long> studentIds = resolveStudents(job, request);
+            job.setTotal(studentIds.size() + job.toStatus().failed());
+
+            for (int from = 0; from < studentIds.size(); from += chunkSize) {
+                insertChunk(job, request, createdBy, studentIds.subList(from, Math.min(from + chunkSize, studentIds.size())));
+            }
+            job.complete();
+            BulkJobStatus status = job.toStatus();
+            logger.info("Bulk due job {} finished: {} created, {} failed", job.getId(), status.succeeded(), status.failed());
+        } catch (RuntimeException e) {
+            logger.error("Bulk due job {} failed: {}", job.getId(), e.getMessage(), e);
+            job.fail(e.getMessage());
+        }
+    }
+
+    private List<Long> resolveStudents(BulkJobRegistry.BulkJob job, BulkDueRequest request) {
+        if (request.getStudentIds() == null || request.getStudentIds().isEmpty()) {
+            return studentRepository.findUserIdsBySelector(request.getStudentDepartment(), request.getBatch(),
+                    request.getSemester(), request.getSection());
+        }
+
+        Set<Long> requested = new LinkedHashSet<>(request.getStudentIds());
+        // Checked against students, not users: staff ids must not get dues
+        Set<Long> students = new HashSet<>();
+        List<Long> ids = new ArrayList<>(requested);
+        for (int from = 0; from < ids.size(); from += chunkSize) {
+            students.addAll(studentRepository.findExistingUserIds(ids.subList(from, Math.min(from + chunkSize, ids.size()))));
+        }
+
+        List<Long> found = new ArrayList<>();
+        for (Long id : requested) {
+            if (students.contains(id)) {
+                found.add(id);
+            } else {
+                job.failed(String.valueOf(id), "Student not found");
+            }
+        }
+        return found;
+    }
+
+    private void insertChunk(BulkJobRegistry.BulkJob job, BulkDueRequest request, Long createdBy, List<Long> studentIds) {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                jdbcTemplate.batchUpdate(INSERT_DUE, studentIds, studentIds.size(),
+                        (ps, studentId) -> bind(ps, request, createdBy, studentId, now));
+                studentIds.forEach(studentId -> eventPublisher.publishEvent(created(request, studentId)));
+            });
+            job.succeeded(studentIds.size());
+        } catch (DataAccessException e) {
+            logger.warn("Bulk due job {}: chunk failed ({}), retrying row by row", job.getId(), e.getMessage());
+            for (Long studentId : studentIds) {
+                try {
+                    transactionTemplate.executeWithoutResult(status -> {
+                        jdbcTemplate.update(INSERT_DUE, ps -> bind(ps, request, createdBy, studentId, now));
+                        eventPublisher.publishEvent(created(request, studentId));
+                    });
+                    job.succeeded(1);
+                } catch (DataAccessException rowError) {
+                    // The driver's message names tables and constraints, so it stays in the log
+                    logger.warn("Bulk due job {}: due for student {} failed: {}", job.getId(), studentId,
+                            rowError.getMostSpecificCause().getMessage());
+                    job.failed(String.valueOf(studentId), "Could not create the due");
+                }
+            }
+        }
+    }
+
+    private static void bind(PreparedStatement ps, BulkDueRequest request, Long createdBy, Long studentId,
+                             Timestamp now) throws SQLException {
+        ps.setLong(1, studentId);
+        ps.setString(2, request.getDepartment());
+        ps.setString(3, request.getDescription());
+        ps.setBigDecimal(4, request.getAmount());
+        ps.setTimestamp(5, Timestamp.valueOf(request.getDueDate()));
+        ps.setString(6, Due.PaymentStatus.PENDING.name());
+        ps.setLong(7, createdBy);
+        ps.setTimestamp(8, now);
+        ps.setBoolean(9, false);
+    }
+
+    private static DueChangedEvent created(BulkDueRequest request, Long studentId) {
+        return new DueChangedEvent(null, studentId, request.getDepartment(), request.getDescription(),
+                null, Due.PaymentStatus.PENDING, request.getAmount());
+    }
+}
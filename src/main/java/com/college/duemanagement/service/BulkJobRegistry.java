@@ -0,0 +1,126 @@
+package com.college.duemanagement.service;
+
+import com.college.duemanagement.dto.BulkJobStatus;
+import com.college.duemanagement.security.services.UserDetailsImpl;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * In-memory registry of background bulk jobs, so clients can poll their progress.
+ * Finished jobs are kept for {@code bulk.jobs.retention-ms}.
+ */
+@Component
+public class BulkJobRegistry {
+
+    // Keeps a job with many bad rows from holding an unbounded error list
+    static final int MAX_REPORTED_ERRORS = 1000;
+
+    private final Map<String, BulkJob> jobs = new ConcurrentHashMap<>();
+    private final long retentionMs;
+
+    public BulkJobRegistry(@Value("${bulk.jobs.retention-ms:3600000}") long retentionMs) {
+        this.retentionMs = retentionMs;
+    }
+
+    public BulkJob create(String type, Long ownerId) {
+        BulkJob job = new BulkJob(UUID.randomUUID().toString(), type, ownerId);
+        jobs.put(job.getId(), job);
+        return job;
+    }
+
+    public Optional<BulkJob> find(String jobId) {
+        return Optional.ofNullable(jobs.get(jobId));
+    }
+
+    /**
+     * Admins see every job, anyone else only the jobs they started.
+     */
+    public Optional<BulkJob> findVisibleTo(String jobId, UserDetailsImpl user) {
+        boolean admin = user.getAuthorities().stream().anyMatch(a -> a.getAuthority().equals("ROLE_ADMIN"));
+        return find(jobId).filter(job -> admin || user.getId().equals(job.getOwnerId()));
+    }
+
+    @Scheduled(fixedDelayString = "${bulk.jobs.retention-ms:3600000}")
+    public void purgeFinished() {
+        LocalDateTime cutoff = LocalDateTime.now().minusNanos(retentionMs * 1_000_000);
+        jobs.values().removeIf(job -> job.finishedAt != null && job.finishedAt.isBefore(cutoff));
+    }
+
+    public static final class BulkJob {
+        public enum Status { RUNNING, COMPLETED, FAILED }
+
+        private final String id;
+        private final String type;
+        private final Long ownerId;
+        private final LocalDateTime startedAt = LocalDateTime.now();
+        private final AtomicInteger processed = new AtomicInteger();
+        private final AtomicInteger succeeded = new AtomicInteger();
+        private final AtomicInteger failed = new AtomicInteger();
+        private final ConcurrentLinkedQueue<BulkJobStatus.RowError> errors = new ConcurrentLinkedQueue<>();
+        private final AtomicInteger reportedErrors = new AtomicInteger();
+        private volatile Status status = Status.RUNNING;
+        private volatile Integer total;
+        private volatile String message;
+        private volatile LocalDateTime finishedAt;
+
+        private BulkJob(String id, String type, Long ownerId) {
+            this.id = id;
+            this.type = type;
+            this.ownerId = ownerId;
+        }
+
+        public String getId() {
+            return id;
+        }
+
+        public Long getOwnerId() {
+            return ownerId;
+        }
+
+        public void setTotal(int total) {
+            this.total = total;
+        }
+
+        public void succeeded(int rows) {
+            succeeded.addAndGet(rows);
+            processed.addAndGet(rows);
+        }
+
+        public void failed(String row, String error) {
+            failed.incrementAndGet();
+            processed.incrementAndGet();
+            if (reportedErrors.incrementAndGet() <= MAX_REPORTED_ERRORS) {
+                errors.add(new BulkJobStatus.RowError(row, error));
+            }
+        }
+
+        public void complete() {
+            finish(Status.COMPLETED, null);
+        }
+
+        public void fail(String message) {
+            finish(Status.FAILED, message);
+        }
+
+        private void finish(Status status, String message) {
+            this.message = message;
+            this.finishedAt = LocalDateTime.now();
+            this.status = status;
+        }
+
+        public BulkJobStatus toStatus() {
+            return new BulkJobStatus(id, type, status.name(), total, processed.get(), succeeded.get(),
+                    failed.get(), new ArrayList<>(errors), message, startedAt, finishedAt);
+        }
+    }
+}
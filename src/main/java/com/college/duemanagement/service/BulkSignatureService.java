@@ -0,0 +1,141 @@
+package com.college.duemanagement.service;
+
+import com.college.duemanagement.dto.BulkSignRequest;
+import com.college.duemanagement.dto.BulkSignResult;
+import com.college.duemanagement.dto.SignatureLockRow;
+import com.college.duemanagement.entity.DepartmentSignature;
+import com.college.duemanagement.entity.NoDuesCertificate;
+import com.college.duemanagement.entity.User;
+import com.college.duemanagement.exception.BadRequestException;
+import com.college.duemanagement.repository.DepartmentSignatureRepository;
+import com.college.duemanagement.repository.NoDuesCertificateRepository;
+import com.college.duemanagement.repository.StudentRepository;
+import com.college.duemanagement.repository.UserRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * Signs many certificates for one department in a single transaction. The department's
+ * signature rows are locked once (SELECT ... FOR UPDATE), signed with one UPDATE per chunk
+ * of ids, and the certificates' signature counters and statuses are then updated set-wise
+ * instead of loading each certificate as {@code signByDepartment} does.
+ *
+ * Two bulk runs over the same rows serialise on that lock. Single signings do not take it:
+ * one that overlaps a bulk run fails the {@code @Version} check on the signature or the
+ * certificate, and {@link ConcurrencyRetry} re-reads and finds the department already signed
+ * (or answers 409 once out of retries). Either way no signature is counted twice.
+ */
+@Service
+public class BulkSignatureService {
+    private static final Logger logger = LoggerFactory.getLogger(BulkSignatureService.class);
+
+    private final DepartmentSignatureRepository signatureRepository;
+    private final NoDuesCertificateRepository certificateRepository;
+    private final StudentRepository studentRepository;
+    private final UserRepository userRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final int chunkSize;
+
+    public BulkSignatureService(DepartmentSignatureRepository signatureRepository,
+                                NoDuesCertificateRepository certificateRepository,
+                                StudentRepository studentRepository,
+                                UserRepository userRepository,
+                                ApplicationEventPublisher eventPublisher,
+                                @Value("${bulk.signatures.chunk-size:500}") int chunkSize) {
+        this.signatureRepository = signatureRepository;
+        this.certificateRepository = certificateRepository;
+        this.studentRepository = studentRepository;
+        this.userRepository = userRepository;
+        this.eventPublisher = eventPublisher;
+        this.chunkSize = chunkSize;
+    }
+
+    @Transactional
+    public BulkSignResult sign(BulkSignRequest request, Long signedById) {
+        boolean hasIds = request.getCertificateIds() != null && !request.getCertificateIds().isEmpty();
+        if (!hasIds && !request.hasSelector()) {
+            throw new BadRequestException("Give either certificateIds or at least one of studentDepartment, batch, semester, section");
+        }
+
+        User signer = userRepository.findById(signedById)
+                .orElseThrow(() -> new RuntimeException("Signer not found"));
+        String eSignatureHash = null;
+        if (Boolean.TRUE.equals(request.getUseESign())) {
+            eSignatureHash = signer.getESignatureHash();
+            if (eSignatureHash == null) {
+                throw new BadRequestException("No eSignature found for user with ID: " + signedById);
+            }
+        }
+
+        String department = request.getDepartment();
+        Map<Long, BulkSignResult.Result> results = new LinkedHashMap<>();
+        List<SignatureLockRow> rows = new ArrayList<>();
+        if (hasIds) {
+            // Sorted so two overlapping requests take their row locks in the same order
+            List<Long> certificateIds = new LinkedHashSet<>(request.getCertificateIds()).stream().sorted().toList();
+            certificateIds.forEach(id -> results.put(id, BulkSignResult.Result.NOT_FOUND));
+            forEachChunk(certificateIds, chunk -> rows.addAll(signatureRepository.lockByCertificates(department, chunk)));
+        } else {
+            List<Long> studentIds = studentRepository.findUserIdsBySelector(request.getStudentDepartment(),
+                    request.getBatch(), request.getSemester(), request.getSection());
+            forEachChunk(studentIds, chunk -> rows.addAll(signatureRepository.lockPendingByStudents(department, chunk)));
+        }
+
+        List<Long> signatureIds = new ArrayList<>();
+        List<Long> signedCertificateIds = new ArrayList<>();
+        for (SignatureLockRow row : rows) {
+            BulkSignResult.Result result;
+            if (row.certificateStatus() == NoDuesCertificate.CertificateStatus.REJECTED
+                    || row.certificateStatus() == NoDuesCertificate.CertificateStatus.COMPLETE) {
+                result = BulkSignResult.Result.CLOSED;
+            } else if (row.status() != DepartmentSignature.SignatureStatus.PENDING) {
+                result = BulkSignResult.Result.ALREADY_PROCESSED;
+            } else {
+                result = BulkSignResult.Result.SIGNED;
+                signatureIds.add(row.signatureId());
+                signedCertificateIds.add(row.certificateId());
+            }
+            results.put(row.certificateId(), result);
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        String signedBy = signer.getFirstName() + " " + signer.getLastName() + " of " + signer.getDepartment();
+        String hash = eSignatureHash;
+        forEachChunk(signatureIds, chunk ->
+                signatureRepository.markSigned(chunk, signedBy, now, request.getComments(), hash));
+        int bit = NoDuesCertificate.departmentBit(department);
+        if (bit != 0) {
+            forEachChunk(signedCertificateIds, chunk -> {
+                certificateRepository.recordSignature(chunk, bit);
+                certificateRepository.markAllSigned(chunk, NoDuesCertificate.ALL_SIGNED_MASK, now);
+                certificateRepository.markPartiallySigned(chunk, NoDuesCertificate.ALL_SIGNED_MASK, now);
+            });
+        }
+        forEachChunk(signatureIds, chunk -> signatureRepository.findSignedEvents(chunk).forEach(eventPublisher::publishEvent));
+
+        List<BulkSignResult.Outcome> outcomes = results.entrySet().stream()
+                .map(entry -> new BulkSignResult.Outcome(entry.getKey(), entry.getValue()))
+                .toList();
+        logger.info("{} signed {} certificates in bulk for {} ({} skipped)", signer.getUsername(),
+                signatureIds.size(), department, outcomes.size() - signatureIds.size());
+        return new BulkSignResult(department, signatureIds.size(), outcomes.size() - signatureIds.size(), outcomes);
+    }
+
+    private void forEachChunk(List<Long> ids, Consumer<List<Long>> action) {
+        for (int from = 0; from < ids.size(); from += chunkSize) {
+            action.accept(ids.subList(from, Math.min(from + chunkSize, ids.size())));
+        }
+    }
+}
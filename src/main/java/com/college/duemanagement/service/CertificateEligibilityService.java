@@ -0,0 +1,47 @@
+package com.college.duemanagement.service;
+
+import com.college.duemanagement.dto.CertificateEligibility;
+import com.college.duemanagement.entity.Due;
+import com.college.duemanagement.exception.ResourceNotFoundException;
+import com.college.duemanagement.repository.DueRepository;
+import com.college.duemanagement.repository.UserRepository;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Answers "may this student get a no-dues certificate" without loading the student's
+ * dues or certificates: one query checks for a due short of APPROVED (an EXISTS on the
+ * dues(student_id, payment_status) index) and finds the active certificate. The same
+ * definition of an open due backs the cleared-student listing, see {@link DueRepository#OPEN_DUES}.
+ */
+@Service
+@Transactional(readOnly = true)
+public class CertificateEligibilityService {
+
+    private final UserRepository userRepository;
+    private final DueRepository dueRepository;
+
+    public CertificateEligibilityService(UserRepository userRepository, DueRepository dueRepository) {
+        this.userRepository = userRepository;
+        this.dueRepository = dueRepository;
+    }
+
+    public CertificateEligibility check(String username) {
+        return userRepository.findCertificateEligibility(username)
+                .orElseThrow(() -> new ResourceNotFoundException("Student not found"));
+    }
+
+    public CertificateEligibility check(Long studentId) {
+        return userRepository.findCertificateEligibilityById(studentId)
+                .orElseThrow(() -> new ResourceNotFoundException("Student not found"));
+    }
+
+    /**
+     * Whether the student has a due in {@code department} that is not yet approved, which
+     * blocks that department's receipt.
+     */
+    public boolean hasOpenDues(Long studentId, String department) {
+        return dueRepository.existsByStudentIdAndDepartmentAndPaymentStatusNot(studentId, department,
+                Due.PaymentStatus.APPROVED);
+    }
+}
@@ -0,0 +1,67 @@
+package com.college.duemanagement.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Supplier;
+
+/**
+ * Runs a read-modify-write in its own transaction and runs it again when it loses a race:
+ * a {@code @Version} check failed at flush, or a lock wait timed out or deadlocked. Every
+ * attempt re-reads, so the retry decides on the current state: two departments signing the
+ * same certificate both land, a second signer of the same department is told it is already
+ * signed. Attempts are spaced by a random pause whose range doubles each time (capped), so
+ * the losers of one round spread out instead of colliding again in the next.
+ *
+ * Inside a caller's transaction the work runs once; a failed flush has already doomed that
+ * transaction, so the conflict goes to the caller.
+ */
+@Component
+public class ConcurrencyRetry {
+    private static final Logger logger = LoggerFactory.getLogger(ConcurrencyRetry.class);
+
+    private final TransactionTemplate transactionTemplate;
+    private final int maxAttempts;
+    private final long backoffMs;
+    private final long maxBackoffMs;
+
+    public ConcurrencyRetry(TransactionTemplate transactionTemplate,
+                            @Value("${concurrency.retry.max-attempts:10}") int maxAttempts,
+                            @Value("${concurrency.retry.backoff-ms:20}") long backoffMs,
+                            @Value("${concurrency.retry.max-backoff-ms:1000}") long maxBackoffMs) {
+        this.transactionTemplate = transactionTemplate;
+        this.maxAttempts = Math.max(1, maxAttempts);
+        this.backoffMs = Math.max(1, backoffMs);
+        this.maxBackoffMs = Math.max(this.backoffMs, maxBackoffMs);
+    }
+
+    public <T> T inTransaction(Supplier<T> work) {
+        if (TransactionSynchronizationManager.isActualTransactionActive()) {
+            return work.get();
+        }
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return transactionTemplate.execute(status -> work.get());
+            } catch (ConcurrencyFailureException e) {
+                if (attempt >= maxAttempts) {
+                    logger.warn("Giving up after {} conflicting attempts: {}", attempt, e.getMessage());
+                    throw e;
+                }
+                logger.debug("Attempt {} lost a concurrent update, retrying: {}", attempt, e.getMessage());
+                try {
+                    long range = Math.min(maxBackoffMs, backoffMs << Math.min(attempt - 1, 20));
+                    Thread.sleep(ThreadLocalRandom.current().nextLong(range) + 1);
+                } catch (InterruptedException interrupted) {
+                    Thread.currentThread().interrupt();
+                    throw e;
+                }
+            }
+        }
+    }
+}
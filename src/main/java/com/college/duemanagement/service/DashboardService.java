@@ -0,0 +1,54 @@
+package com.college.duemanagement.service;
+
+import com.college.duemanagement.dto.DepartmentStatDto;
+import com.college.duemanagement.repository.DepartmentRepository;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Per-department dashboard statistics, read from the in-memory
+ * {@link DashboardStatsProjection} rather than aggregated per request.
+ */
+@Service
+public class DashboardService {
+
+    private final DepartmentRepository departmentRepository;
+    private final DashboardStatsProjection statsProjection;
+
+    public DashboardService(DepartmentRepository departmentRepository,
+                            DashboardStatsProjection statsProjection) {
+        this.departmentRepository = departmentRepository;
+        this.statsProjection = statsProjection;
+    }
+
+    @Transactional(readOnly = true)
+    public List<DepartmentStatDto> getAllDepartmentStats() {
+        return departmentRepository.findAll().stream()
+                .map(dept -> toStat(dept.getName()))
+                .collect(Collectors.toList());
+    }
+
+    @Transactional(readOnly = true)
+    public DepartmentStatDto getDepartmentStats(String department) {
+        return departmentRepository.findByName(department)
+                .map(dept -> toStat(dept.getName()))
+                .orElseGet(() -> {
+                    DepartmentStatDto statDto = new DepartmentStatDto();
+                    statDto.setDepartment(department);
+                    return statDto;
+                });
+    }
+
+    private DepartmentStatDto toStat(String department) {
+        DashboardStatsProjection.Counters counters = statsProjection.department(department);
+        DepartmentStatDto statDto = new DepartmentStatDto();
+        statDto.setDepartment(department);
+        statDto.setStudentCount(counters.studentCount());
+        statDto.setDueAmount(counters.pendingAmount().doubleValue());
+        statDto.setCompletionRate(counters.completionRate());
+        return statDto;
+    }
+}
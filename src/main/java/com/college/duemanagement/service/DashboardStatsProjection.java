@@ -0,0 +1,179 @@
+package com.college.duemanagement.service;
+
+import com.college.duemanagement.dto.DepartmentCount;
+import com.college.duemanagement.dto.DepartmentDueTotals;
+import com.college.duemanagement.entity.Due;
+import com.college.duemanagement.event.DueChangedEvent;
+import com.college.duemanagement.event.StudentChangedEvent;
+import com.college.duemanagement.repository.DueRepository;
+import com.college.duemanagement.repository.StudentRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.math.BigDecimal;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * In-memory dashboard counters per department and overall. Due and student changes
+ * are applied as deltas once their transaction commits, so dashboard reads never
+ * touch the database. A periodic reconciliation reloads everything from the grouped
+ * queries and corrects drift from writes that do not publish events.
+ */
+@Component
+public class DashboardStatsProjection {
+    private static final Logger logger = LoggerFactory.getLogger(DashboardStatsProjection.class);
+
+    private final DueRepository dueRepository;
+    private final StudentRepository studentRepository;
+
+    private final Map<String, Counters> departments = new ConcurrentHashMap<>();
+    private final AtomicReference<Counters> global = new AtomicReference<>(Counters.EMPTY);
+    private volatile boolean loaded;
+    // Not synchronized: a virtual thread blocked on the queries inside would pin its carrier
+    private final ReentrantLock reloadLock = new ReentrantLock();
+
+    public DashboardStatsProjection(DueRepository dueRepository, StudentRepository studentRepository) {
+        this.dueRepository = dueRepository;
+        this.studentRepository = studentRepository;
+    }
+
+    public Counters department(String department) {
+        ensureLoaded();
+        return department == null ? Counters.EMPTY : departments.getOrDefault(department, Counters.EMPTY);
+    }
+
+    public Counters global() {
+        ensureLoaded();
+        return global.get();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onDueChanged(DueChangedEvent event) {
+        if (event.department() != null) {
+            departments.compute(event.department(), (name, counters) ->
+                    (counters == null ? Counters.EMPTY : counters).withDue(event));
+        }
+        global.updateAndGet(counters -> counters.withDue(event));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onStudentChanged(StudentChangedEvent event) {
+        if (event.department() != null) {
+            departments.compute(event.department(), (name, counters) ->
+                    (counters == null ? Counters.EMPTY : counters).withStudents(event.delta()));
+        }
+        global.updateAndGet(counters -> counters.withStudents(event.delta()));
+    }
+
+    /**
+     * Rebuilds the counters from the database. A change committed while this runs may be
+     * lost or counted twice until the next run.
+     */
+    @Scheduled(fixedDelayString = "${dashboard.stats.reconcile-interval-ms:300000}",
+            initialDelayString = "${dashboard.stats.reconcile-interval-ms:300000}")
+    @Transactional(readOnly = true)
+    public void reconcile() {
+        reloadLock.lock();
+        try {
+            reload();
+        } finally {
+            reloadLock.unlock();
+        }
+    }
+
+    private void reload() {
+        Map<String, Counters> fresh = new HashMap<>();
+        Counters total = Counters.EMPTY;
+        for (DepartmentDueTotals totals : dueRepository.sumByDepartment()) {
+            Counters counters = new Counters(totals.pendingAmount(), totals.pendingDues(),
+                    totals.totalDues(), totals.completedDues(), 0);
+            fresh.put(totals.department(), counters);
+            total = total.plusDues(counters);
+        }
+        for (DepartmentCount count : studentRepository.countGroupByUserDepartment()) {
+            if (count.department() != null) {
+                fresh.merge(count.department(), Counters.EMPTY.withStudents(count.count()),
+                        (dues, students) -> dues.withStudents(students.studentCount()));
+            }
+        }
+        total = total.withStudents(studentRepository.count());
+
+        departments.keySet().retainAll(fresh.keySet());
+        departments.putAll(fresh);
+        global.set(total);
+        loaded = true;
+        logger.debug("Dashboard stats reconciled for {} departments", fresh.size());
+    }
+
+    private void ensureLoaded() {
+        if (!loaded) {
+            reloadLock.lock();
+            try {
+                if (!loaded) {
+                    reload();
+                }
+            } finally {
+                reloadLock.unlock();
+            }
+        }
+    }
+
+    public record Counters(BigDecimal pendingAmount, long pendingDues, long totalDues,
+                           long completedDues, long studentCount) {
+
+        static final Counters EMPTY = new Counters(BigDecimal.ZERO, 0, 0, 0, 0);
+
+        public int completionRate() {
+            double completionRate = totalDues > 0 ? (completedDues * 100.0) / totalDues : 100;
+            return (int) completionRate;
+        }
+
+        Counters withDue(DueChangedEvent event) {
+            BigDecimal amount = event.amount() != null ? event.amount() : BigDecimal.ZERO;
+            BigDecimal pending = pendingAmount;
+            long pendingCount = pendingDues;
+            long total = totalDues;
+            long completed = completedDues;
+            if (event.previousStatus() != null) {
+                total--;
+                if (event.previousStatus() == Due.PaymentStatus.PENDING) {
+                    pending = pending.subtract(amount);
+                    pendingCount--;
+                } else if (isCompleted(event.previousStatus())) {
+                    completed--;
+                }
+            }
+            if (event.currentStatus() != null) {
+                total++;
+                if (event.currentStatus() == Due.PaymentStatus.PENDING) {
+                    pending = pending.add(amount);
+                    pendingCount++;
+                } else if (isCompleted(event.currentStatus())) {
+                    completed++;
+                }
+            }
+            return new Counters(pending, pendingCount, total, completed, studentCount);
+        }
+
+        Counters withStudents(long delta) {
+            return new Counters(pendingAmount, pendingDues, totalDues, completedDues, studentCount + delta);
+        }
+
+        Counters plusDues(Counters other) {
+            return new Counters(pendingAmount.add(other.pendingAmount), pendingDues + other.pendingDues,
+                    totalDues + other.totalDues, completedDues + other.completedDues, studentCount);
+        }
+
+        private static boolean isCompleted(Due.PaymentStatus status) {
+            return status == Due.PaymentStatus.PAID || status == Due.PaymentStatus.APPROVED;
+        }
+    }
+}
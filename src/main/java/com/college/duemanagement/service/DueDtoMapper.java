@@ -0,0 +1,111 @@
+package com.college.duemanagement.service;
+
+import com.college.duemanagement.dto.DueDto;
+import com.college.duemanagement.dto.UserNameDto;
+import com.college.duemanagement.entity.Due;
+import com.college.duemanagement.entity.User;
+import com.college.duemanagement.repository.UserRepository;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Builds DueDtos without a per-due approver lookup. Approver names for a batch of dues
+ * are resolved with one projection query and memoised for the rest of the request.
+ */
+@Component
+public class DueDtoMapper {
+
+    private static final String APPROVER_NAMES_ATTRIBUTE = DueDtoMapper.class.getName() + ".approverNames";
+
+    private final UserRepository userRepository;
+
+    public DueDtoMapper(UserRepository userRepository) {
+        this.userRepository = userRepository;
+    }
+
+    /**
+     * Returns a converter for these dues with every approver name already resolved.
+     */
+    public Function<Due, DueDto> converterFor(Collection<Due> dues) {
+        Map<Long, String> approverNames = approverNames();
+        Set<Long> missing = dues.stream()
+                .map(Due::getApprovedBy)
+                .filter(Objects::nonNull)
+                .filter(id -> !approverNames.containsKey(id))
+                .collect(Collectors.toSet());
+        if (!missing.isEmpty()) {
+            for (UserNameDto name : userRepository.findNamesByIdIn(missing)) {
+                approverNames.put(name.id(), name.firstName() + " " + name.lastName());
+            }
+            // Remember deleted approvers too, so they are not looked up again
+            missing.forEach(id -> approverNames.putIfAbsent(id, null));
+        }
+        return due -> toDto(due, approverNames);
+    }
+
+    public List<DueDto> toDtos(List<Due> dues) {
+        return dues.stream().map(converterFor(dues)).collect(Collectors.toList());
+    }
+
+    public DueDto toDto(Due due) {
+        return converterFor(List.of(due)).apply(due);
+    }
+
+    private DueDto toDto(Due due, Map<Long, String> approverNames) {
+        DueDto dueDto = new DueDto();
+        dueDto.setId(due.getId());
+        User student = due.getStudent();
+        if (student != null) {
+            dueDto.setStudentId(student.getId());
+            dueDto.setRollNumber(student.getStudent().getRollNumber());
+            dueDto.setStudentName(student.getFirstName() + " " + student.getLastName());
+        } else {
+            dueDto.setStudentName("Unknown Student");
+        }
+        dueDto.setDepartment(due.getDepartment());
+        dueDto.setDescription(due.getDescription());
+        dueDto.setAmount(due.getAmount());
+        dueDto.setDueDate(due.getDueDate());
+        dueDto.setPaymentStatus(due.getPaymentStatus().name());
+        dueDto.setPaymentDate(due.getPaymentDate());
+        dueDto.setPaymentReference(due.getPaymentReference());
+        dueDto.setApprovedBy(due.getApprovedBy());
+        dueDto.setReceiptGenerated(due.isReceiptGenerated());
+        dueDto.setReceiptNumber(due.getReceiptNumber()); // Include receipt number
+
+        if (due.getApprovedBy() != null) {
+            dueDto.setApprovedByName(approverNames.get(due.getApprovedBy()));
+        }
+
+        dueDto.setApprovalDate(due.getApprovalDate());
+        dueDto.setCreatedAt(due.getCreatedAt());
+        dueDto.setUpdatedAt(due.getUpdatedAt());
+
+        return dueDto;
+    }
+
+    // Request-scoped memo; outside a web request each conversion gets its own map
+    @SuppressWarnings("unchecked")
+    private Map<Long, String> approverNames() {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (attributes == null) {
+            return new HashMap<>();
+        }
+        Map<Long, String> names = (Map<Long, String>) attributes.getAttribute(APPROVER_NAMES_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST);
+        if (names == null) {
+            names = new HashMap<>();
+            attributes.setAttribute(APPROVER_NAMES_ATTRIBUTE, names, RequestAttributes.SCOPE_REQUEST);
+        }
+        return names;
+    }
+}
@@ -0,0 +1,264 @@
+package com.college.duemanagement.service;
+
+import com.college.duemanagement.entity.OutboundEmail;
+import com.college.duemanagement.repository.OutboundEmailRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import jakarta.mail.MessagingException;
+import jakarta.mail.internet.MimeMessage;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.mail.MailException;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.mail.javamail.MimeMessageHelper;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Delivers the email outbox. Each batch goes through three steps so that no database
+ * transaction or row lock is held while talking to the SMTP server:
+ * <ol>
+ *   <li>a short transaction claims due messages (skipping rows another instance holds),
+ *       marks them SENDING and leases them for {@code mail.outbox.lease-ms};</li>
+ *   <li>the batch is handed to the mail sender in one call, outside any transaction, which
+ *       sends it over a single SMTP connection;</li>
+ *   <li>a second short transaction records each message as SENT, due for retry or DEAD.</li>
+ * </ol>
+ * A message whose lease runs out while still SENDING (the instance died mid-batch) is claimed
+ * again, so delivery is at least once. Failed messages are retried with exponential backoff
+ * and marked DEAD after {@code mail.outbox.max-attempts}.
+ */
+@Component
+public class EmailDispatcher {
+    private static final Logger logger = LoggerFactory.getLogger(EmailDispatcher.class);
+    private static final List<OutboundEmail.Status> CLAIMABLE =
+            List.of(OutboundEmail.Status.PENDING, OutboundEmail.Status.SENDING);
+
+    private final OutboundEmailRepository outboxRepository;
+    private final JavaMailSender mailSender;
+    private final TransactionTemplate transactionTemplate;
+    private final int batchSize;
+    private final int maxAttempts;
+    private final long initialBackoffMs;
+    private final long maxBackoffMs;
+    private final long leaseMs;
+    private final long sentRetentionMs;
+
+    private final Counter sent;
+    private final Counter retried;
+    private final Counter dead;
+    private final Timer batchTimer;
+
+    // Angus Mail's SMTPTransport is synchronized around its socket I/O, which pins a virtual
+    // thread's carrier for the whole send. With spring.threads.virtual.enabled the scheduler
+    // runs on virtual threads, so the send is handed to this platform thread instead.
+    private final ExecutorService smtpThread =
+            Executors.newSingleThreadExecutor(Thread.ofPlatform().name("smtp-", 0).daemon(true).factory());
+
+    public EmailDispatcher(OutboundEmailRepository outboxRepository,
+                           JavaMailSender mailSender,
+                           TransactionTemplate transactionTemplate,
+                           MeterRegistry meterRegistry,
+                           @Value("${mail.outbox.batch-size:50}") int batchSize,
+                           @Value("${mail.outbox.max-attempts:8}") int maxAttempts,
+                           @Value("${mail.outbox.initial-backoff-ms:30000}") long initialBackoffMs,
+                           @Value("${mail.outbox.max-backoff-ms:3600000}") long maxBackoffMs,
+                           @Value("${mail.outbox.lease-ms:600000}") long leaseMs,
+                           @Value("${mail.outbox.sent-retention-ms:604800000}") long sentRetentionMs) {
+        this.outboxRepository = outboxRepository;
+        this.mailSender = mailSender;
+        this.transactionTemplate = transactionTemplate;
+        this.batchSize = batchSize;
+        this.maxAttempts = maxAttempts;
+        this.initialBackoffMs = initialBackoffMs;
+        this.maxBackoffMs = maxBackoffMs;
+        this.leaseMs = leaseMs;
+        this.sentRetentionMs = sentRetentionMs;
+
+        this.sent = meterRegistry.counter("mail.outbox.sent");
+        this.retried = meterRegistry.counter("mail.outbox.retried");
+        this.dead = meterRegistry.counter("mail.outbox.dead");
+        this.batchTimer = meterRegistry.timer("mail.outbox.batch");
+        Gauge.builder("mail.outbox.pending", outboxRepository, repository -> repository.countByStatus(OutboundEmail.Status.PENDING))
+                .register(meterRegistry);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        smtpThread.shutdown();
+    }
+
+    @Scheduled(fixedDelayString = "${mail.outbox.poll-interval-ms:5000}")
+    public void dispatch() {
+        // A full batch means more may be waiting
+        int claimed;
+        do {
+            claimed = dispatchBatch();
+        } while (claimed == batchSize);
+    }
+
+    @Scheduled(fixedDelayString = "${mail.outbox.purge-interval-ms:3600000}")
+    public void purgeSent() {
+        LocalDateTime before = LocalDateTime.now().minusNanos(sentRetentionMs * 1_000_000);
+        Integer purged = transactionTemplate.execute(status ->
+                outboxRepository.deleteSentBefore(OutboundEmail.Status.SENT, before));
+        if (purged != null && purged > 0) {
+            logger.debug("Purged {} sent emails from the outbox", purged);
+        }
+    }
+
+    private int dispatchBatch() {
+        List<OutboundEmail> batch = transactionTemplate.execute(status -> claim());
+        if (batch == null || batch.isEmpty()) {
+            return 0;
+        }
+
+        Timer.Sample sample = Timer.start();
+        Map<Long, Exception> unbuildable = new HashMap<>();
+        Map<Long, Exception> failed = new HashMap<>();
+        deliver(batch, unbuildable, failed);
+        transactionTemplate.executeWithoutResult(status -> record(batch, unbuildable, failed));
+        sample.stop(batchTimer);
+        return batch.size();
+    }
+
+    private List<OutboundEmail> claim() {
+        LocalDateTime now = LocalDateTime.now();
+        List<OutboundEmail> batch = outboxRepository.claimReady(CLAIMABLE, now, Limit.of(batchSize));
+        // The attempt is counted up front, so a message that keeps taking its instance down still ends DEAD
+        LocalDateTime leaseExpiry = now.plusNanos(leaseMs * 1_000_000);
+        for (OutboundEmail email : batch) {
+            email.setStatus(OutboundEmail.Status.SENDING);
+            email.setAttempts(email.getAttempts() + 1);
+            email.setNextAttemptAt(leaseExpiry);
+        }
+        return batch;
+    }
+
+    private void deliver(List<OutboundEmail> batch, Map<Long, Exception> unbuildable, Map<Long, Exception> failed) {
+        Map<MimeMessage, Long> messages = new IdentityHashMap<>();
+        for (OutboundEmail email : batch) {
+            try {
+                messages.put(toMimeMessage(email), email.getId());
+            } catch (MessagingException e) {
+                unbuildable.put(email.getId(), e);
+            }
+        }
+        if (messages.isEmpty()) {
+            return;
+        }
+
+        try {
+            send(messages.keySet().toArray(MimeMessage[]::new));
+        } catch (MailSendException e) {
+            if (e.getFailedMessages().isEmpty()) {
+                // No per-message detail: the connection itself failed
+                messages.values().forEach(id -> failed.put(id, e));
+            } else {
+                e.getFailedMessages().forEach((message, failure) -> failed.put(messages.get(message), failure));
+            }
+        } catch (MailException e) {
+            messages.values().forEach(id -> failed.put(id, e));
+        }
+    }
+
+    private void record(List<OutboundEmail> batch, Map<Long, Exception> unbuildable, Map<Long, Exception> failed) {
+        LocalDateTime now = LocalDateTime.now();
+        for (OutboundEmail email : outboxRepository.findAllById(batch.stream().map(OutboundEmail::getId).toList())) {
+            Exception buildFailure = unbuildable.get(email.getId());
+            Exception sendFailure = failed.get(email.getId());
+            if (buildFailure != null) {
+                // A message that cannot even be built will not get better on retry
+                markDead(email, buildFailure);
+            } else if (sendFailure != null) {
+                markFailed(email, sendFailure, now);
+            } else {
+                markSent(email, now);
+            }
+        }
+    }
+
+    private void send(MimeMessage[] messages) {
+        if (!Thread.currentThread().isVirtual()) {
+            mailSender.send(messages);
+            return;
+        }
+        try {
+            smtpThread.submit(() -> mailSender.send(messages)).get();
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof MailException mailException) {
+                throw mailException;
+            }
+            throw new MailSendException("Sending failed", e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new MailSendException("Interrupted while sending", e);
+        }
+    }
+
+    private MimeMessage toMimeMessage(OutboundEmail email) throws MessagingException {
+        MimeMessage message = mailSender.createMimeMessage();
+        MimeMessageHelper helper = new MimeMessageHelper(message, true);
+        helper.setTo(email.getRecipient());
+        helper.setSubject(email.getSubject());
+        helper.setText(email.getBody() == null ? "" : email.getBody(), email.isHtml());
+        return message;
+    }
+
+    private void markSent(OutboundEmail email, LocalDateTime now) {
+        email.setStatus(OutboundEmail.Status.SENT);
+        email.setSentAt(now);
+        email.setLastError(null);
+        email.setBody(null);
+        sent.increment();
+    }
+
+    private void markFailed(OutboundEmail email, Exception failure, LocalDateTime now) {
+        int attempts = email.getAttempts();
+        email.setLastError(truncate(failure.getMessage()));
+        if (attempts >= maxAttempts) {
+            markDead(email, failure);
+            return;
+        }
+        email.setStatus(OutboundEmail.Status.PENDING);
+        // 1x, 2x, 4x ... the initial backoff, capped
+        long backoffMs = Math.min(maxBackoffMs, initialBackoffMs << Math.min(attempts - 1, 30));
+        email.setNextAttemptAt(now.plusNanos(backoffMs * 1_000_000));
+        retried.increment();
+        logger.warn("Email {} to {} failed (attempt {}), retrying in {} ms: {}",
+                email.getId(), email.getRecipient(), attempts, backoffMs, failure.getMessage());
+    }
+
+    private void markDead(OutboundEmail email, Exception failure) {
+        email.setStatus(OutboundEmail.Status.DEAD);
+        email.setLastError(truncate(failure.getMessage()));
+        // A dead-lettered row is never sent and never purged, so it must not keep a generated password
+        email.setBody(null);
+        dead.increment();
+        logger.error("Email {} to {} dead-lettered after {} attempts: {}",
+                email.getId(), email.getRecipient(), email.getAttempts(), failure.getMessage());
+    }
+
+    private static String truncate(String message) {
+        if (message == null) {
+            return null;
+        }
+        return message.length() <= 1000 ? message : message.substring(0, 1000);
+    }
+}
@@ -0,0 +1,102 @@
+package com.college.duemanagement.service;
+
+import com.college.duemanagement.config.ExecutorProperties;
+import com.college.duemanagement.dto.EmailMessage;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.thymeleaf.ITemplateEngine;
+import org.thymeleaf.TemplateEngine;
+import org.thymeleaf.context.Context;
+import org.thymeleaf.templateresolver.AbstractConfigurableTemplateResolver;
+import org.thymeleaf.templateresolver.ITemplateResolver;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+
+/**
+ * Turns {@link EmailMessage}s into HTML. Templates are parsed once and kept in the
+ * engine's template cache, so a render only evaluates expressions; {@link #renderAll}
+ * spreads a batch over the mail executor so a bulk send is rendered before any of it
+ * reaches the outbox.
+ */
+@Component
+public class EmailRenderer {
+    private static final Logger logger = LoggerFactory.getLogger(EmailRenderer.class);
+
+    static final List<String> TEMPLATES = List.of("email/credentials", "email/password-reset",
+            "email/due-notification", "email/due-approval", "email/signature-request");
+
+    // Below this a batch is rendered on the calling thread
+    private static final int PARALLEL_THRESHOLD = 16;
+
+    private final ITemplateEngine templateEngine;
+    private final Executor renderExecutor;
+    private final int threads;
+
+    public EmailRenderer(TemplateEngine templateEngine,
+                         @Qualifier("mailExecutor") Executor renderExecutor,
+                         ExecutorProperties executorProperties) {
+        this.templateEngine = templateEngine;
+        this.renderExecutor = renderExecutor;
+        this.threads = Math.max(1, executorProperties.getMail().getMaxSize());
+
+        for (ITemplateResolver resolver : templateEngine.getTemplateResolvers()) {
+            if (resolver instanceof AbstractConfigurableTemplateResolver configurable && !configurable.isCacheable()) {
+                logger.warn("Template cache is disabled for {} (spring.thymeleaf.cache=false); every email will re-parse its template",
+                        resolver.getName());
+            }
+        }
+    }
+
+    /**
+     * Parses every email template up front so a missing or broken template fails at
+     * startup rather than on the first send, and the first bulk render starts from a warm cache.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        for (String template : TEMPLATES) {
+            templateEngine.process(template, new Context(Locale.getDefault()));
+        }
+        logger.debug("Email templates parsed: {}", TEMPLATES);
+    }
+
+    public RenderedEmail render(EmailMessage message) {
+        String body = templateEngine.process(message.template(), new Context(Locale.getDefault(), message.variables()));
+        return new RenderedEmail(message.to(), message.subject(), body);
+    }
+
+    /**
+     * Renders a batch, in parallel when it is large enough to be worth it. The result is
+     * in the same order as {@code messages}.
+     */
+    public List<RenderedEmail> renderAll(List<? extends EmailMessage> messages) {
+        if (messages.size() < PARALLEL_THRESHOLD) {
+            return messages.stream().map(this::render).toList();
+        }
+
+        // One slice per thread rather than one task per message. The mail executor runs a
+        // slice on this thread when it is saturated, so the batch still completes.
+        int sliceSize = (messages.size() + threads - 1) / threads;
+        List<CompletableFuture<List<RenderedEmail>>> slices = new ArrayList<>();
+        for (int from = 0; from < messages.size(); from += sliceSize) {
+            List<? extends EmailMessage> slice = messages.subList(from, Math.min(from + sliceSize, messages.size()));
+            slices.add(CompletableFuture.supplyAsync(() -> slice.stream().map(this::render).toList(), renderExecutor));
+        }
+
+        List<RenderedEmail> rendered = new ArrayList<>(messages.size());
+        for (CompletableFuture<List<RenderedEmail>> slice : slices) {
+            rendered.addAll(slice.join());
+        }
+        return rendered;
+    }
+
+    public record RenderedEmail(String to, String subject, String body) {
+    }
+}
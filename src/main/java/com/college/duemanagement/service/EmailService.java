@@ -1,125 +1,74 @@
 package com.college.duemanagement.service;
 
+import com.college.duemanagement.dto.EmailMessage;
 import com.college.duemanagement.entity.Due;
+import com.college.duemanagement.entity.OutboundEmail;
 import com.college.duemanagement.entity.User;
-import jakarta.mail.MessagingException;
-import jakarta.mail.internet.MimeMessage;
-import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.mail.javamail.JavaMailSender;
-import org.springframework.mail.javamail.MimeMessageHelper;
-import org.springframework.scheduling.annotation.Async;
+import com.college.duemanagement.repository.OutboundEmailRepository;
+import com.college.duemanagement.service.EmailRenderer.RenderedEmail;
 import org.springframework.stereotype.Service;
-import org.thymeleaf.TemplateEngine;
-import org.thymeleaf.context.Context;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.List;
+
+/**
+ * Renders emails and puts them in the outbox. Each message is stored in the caller's
+ * transaction, so it is sent only if the change that caused it commits; {@link EmailDispatcher}
+ * does the delivery.
+ */
 @Service
 public class EmailService {
 
-    private final JavaMailSender mailSender;
-    private final TemplateEngine templateEngine;
+    private final OutboundEmailRepository outboxRepository;
+    private final EmailRenderer emailRenderer;
 
-    public EmailService(JavaMailSender mailSender, TemplateEngine templateEngine) {
-        this.mailSender = mailSender;
-        this.templateEngine = templateEngine;
+    public EmailService(OutboundEmailRepository outboxRepository, EmailRenderer emailRenderer) {
+        this.outboxRepository = outboxRepository;
+        this.emailRenderer = emailRenderer;
     }
 
-    @Async
-    public void sendUserCredentials(User user, String password) {
-        try {
-            MimeMessage message = mailSender.createMimeMessage();
-            MimeMessageHelper helper = new MimeMessageHelper(message, true);
-            
-            helper.setTo(user.getEmail());
-            helper.setSubject("Your College Due Management System Credentials");
-            
-            Context context = new Context();
-            context.setVariable("name", user.getFirstName() + " " + user.getLastName());
-            context.setVariable("username", user.getUsername());
-            context.setVariable("uniqueCode", user.getUniqueCode());
-            context.setVariable("password", password);
-            
-            String content = templateEngine.process("email/credentials", context);
-            helper.setText(content, true);
-            
-            mailSender.send(message);
-        } catch (MessagingException e) {
-            // Log the error
-            e.printStackTrace();
+    @Transactional
+    public void enqueue(String to, String subject, String body, boolean html) {
+        outboxRepository.save(new OutboundEmail(to, subject, body, html));
+    }
+
+    /**
+     * Renders and queues one email.
+     */
+    @Transactional
+    public void enqueue(EmailMessage message) {
+        RenderedEmail rendered = emailRenderer.render(message);
+        enqueue(rendered.to(), rendered.subject(), rendered.body(), true);
+    }
+
+    /**
+     * Renders a batch on the render pool, then queues it with one batched insert.
+     */
+    @Transactional
+    public void enqueueAll(List<? extends EmailMessage> messages) {
+        if (messages.isEmpty()) {
+            return;
         }
+        List<OutboundEmail> emails = emailRenderer.renderAll(messages).stream()
+                .map(rendered -> new OutboundEmail(rendered.to(), rendered.subject(), rendered.body(), true))
+                .toList();
+        outboxRepository.saveAll(emails);
+    }
+
+    public void sendUserCredentials(User user, String password) {
+        enqueue(EmailMessage.Credentials.of(user, password));
     }
 
-    @Async
     public void sendPasswordResetLink(User user, String resetToken) {
-        try {
-            MimeMessage message = mailSender.createMimeMessage();
-            MimeMessageHelper helper = new MimeMessageHelper(message, true);
-            
-            helper.setTo(user.getEmail());
-            helper.setSubject("Password Reset Request");
-            
-            Context context = new Context();
-            context.setVariable("name", user.getFirstName() + " " + user.getLastName());
-            context.setVariable("resetLink", "http://localhost:3000/reset-password?token=" + resetToken);
-            
-            String content = templateEngine.process("email/password-reset", context);
-            helper.setText(content, true);
-            
-            mailSender.send(message);
-        } catch (MessagingException e) {
-            // Log the error
-            e.printStackTrace();
-        }
+        enqueue(EmailMessage.PasswordReset.of(user, resetToken));
     }
 
-    @Async
     public void sendDueNotification(User student, Due due) {
-        try {
-            MimeMessage message = mailSender.createMimeMessage();
-            MimeMessageHelper helper = new MimeMessageHelper(message, true);
-            
-            helper.setTo(student.getEmail());
-            helper.setSubject("New Due Added: " + due.getDepartment());
-            
-            Context context = new Context();
-            context.setVariable("name", student.getFirstName() + " " + student.getLastName());
-            context.setVariable("department", due.getDepartment());
-            context.setVariable("description", due.getDescription());
-            context.setVariable("amount", due.getAmount());
-            context.setVariable("dueDate", due.getDueDate());
-            
-            String content = templateEngine.process("email/due-notification", context);
-            helper.setText(content, true);
-            
-            mailSender.send(message);
-        } catch (MessagingException e) {
-            // Log the error
-            e.printStackTrace();
-        }
+        enqueue(EmailMessage.DueNotification.of(student, due));
     }
 
-    @Async
     public void sendDueApprovalNotification(User student, Due due) {
-        try {
-            MimeMessage message = mailSender.createMimeMessage();
-            MimeMessageHelper helper = new MimeMessageHelper(message, true);
-            
-            helper.setTo(student.getEmail());
-            helper.setSubject("Due Payment Approved: " + due.getDepartment());
-            
-            Context context = new Context();
-            context.setVariable("name", student.getFirstName() + " " + student.getLastName());
-            context.setVariable("department", due.getDepartment());
-            context.setVariable("description", due.getDescription());
-            context.setVariable("amount", due.getAmount());
-            
-            String content = templateEngine.process("email/due-approval", context);
-            helper.setText(content, true);
-            
-            mailSender.send(message);
-        } catch (MessagingException e) {
-            // Log the error
-            e.printStackTrace();
-        }
+        enqueue(EmailMessage.DueApproval.of(student, due));
     }
 
 //    @Async
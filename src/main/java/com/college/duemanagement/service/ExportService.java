@@ -0,0 +1,208 @@
+package com.college.duemanagement.service;
+
+import com.college.duemanagement.dto.ExportFilter;
+import com.college.duemanagement.enums.ExportFormat;
+import com.college.duemanagement.exception.BadRequestException;
+import com.college.duemanagement.util.CsvWriter;
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mysql.cj.jdbc.JdbcStatement;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.JdbcUtils;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.sql.DataSource;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Streams dues and certificates from a forward-only JDBC cursor straight into a CSV or
+ * NDJSON body. Rows are written as they are read, so memory use does not depend on
+ * how many rows match.
+ */
+@Service
+public class ExportService {
+    private static final Logger logger = LoggerFactory.getLogger(ExportService.class);
+
+    private static final String DUES = "SELECT d.id, s.roll_number, u.first_name, u.last_name, " +
+            "u.department AS student_department, d.department, d.description, d.amount, d.due_date, " +
+            "d.payment_status, d.payment_date, d.payment_reference, d.approved_by, d.approval_date, " +
+            "d.receipt_number, d.created_at " +
+            "FROM dues d JOIN users u ON u.id = d.student_id LEFT JOIN students s ON s.user_id = u.id";
+    private static final List<String> DUE_COLUMNS = List.of("id", "rollNumber", "firstName", "lastName",
+            "studentDepartment", "department", "description", "amount", "dueDate", "paymentStatus", "paymentDate",
+            "paymentReference", "approvedBy", "approvalDate", "receiptNumber", "createdAt");
+
+    private static final String CERTIFICATES = "SELECT c.id, c.certificate_number, s.roll_number, u.first_name, " +
+            "u.last_name, u.department, c.status, c.issue_date, c.principal_signed, c.principal_signed_at, " +
+            "c.created_at, c.updated_at " +
+            "FROM no_dues_certificates c JOIN users u ON u.id = c.student_id LEFT JOIN students s ON s.user_id = u.id";
+    private static final List<String> CERTIFICATE_COLUMNS = List.of("id", "certificateNumber", "rollNumber",
+            "firstName", "lastName", "department", "status", "issueDate", "principalSigned", "principalSignedAt",
+            "createdAt", "updatedAt");
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper;
+
+    public ExportService(DataSource dataSource, ObjectMapper objectMapper,
+                         @Value("${export.fetch-size:500}") int fetchSize) {
+        // A template of its own so the fetch size (the cursor window) only applies to exports
+        this.jdbcTemplate = new JdbcTemplate(dataSource) {
+            @Override
+            protected void applyStatementSettings(Statement statement) throws SQLException {
+                super.applyStatementSettings(statement);
+                // Connector/J ignores the fetch size unless the connection sets useCursorFetch, and
+                // buffers the whole result; streaming reads rows one at a time for this statement only
+                if (statement.isWrapperFor(JdbcStatement.class)) {
+                    statement.unwrap(JdbcStatement.class).enableStreamingResults();
+                }
+            }
+        };
+        this.jdbcTemplate.setFetchSize(fetchSize);
+        this.objectMapper = objectMapper;
+    }
+
+    // Read-only transaction: some drivers (PostgreSQL) only honour the fetch size with auto-commit off
+    @Transactional(readOnly = true)
+    public long exportDues(ExportFilter filter, ExportFormat format, OutputStream out) throws IOException {
+        return export(DUES, "d.department", "d.payment_status", "d.created_at", "d.id", DUE_COLUMNS, filter, format, out);
+    }
+
+    @Transactional(readOnly = true)
+    public long exportCertificates(ExportFilter filter, ExportFormat format, OutputStream out) throws IOException {
+        return export(CERTIFICATES, "u.department", "c.status", "c.created_at", "c.id", CERTIFICATE_COLUMNS, filter, format, out);
+    }
+
+    public static ExportFormat parseFormat(String format) {
+        try {
+            return ExportFormat.valueOf(format.trim().toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new BadRequestException("Unknown export format: " + format + " (use csv or ndjson)");
+        }
+    }
+
+    private long export(String select, String departmentColumn, String statusColumn, String createdColumn,
+                        String idColumn, List<String> columns, ExportFilter filter, ExportFormat format,
+                        OutputStream out) throws IOException {
+        StringBuilder sql = new StringBuilder(select).append(" WHERE 1 = 1");
+        List<Object> args = new ArrayList<>();
+        if (filter.department() != null) {
+            sql.append(" AND ").append(departmentColumn).append(" = ?");
+            args.add(filter.department());
+        }
+        if (filter.status() != null) {
+            sql.append(" AND ").append(statusColumn).append(" = ?");
+            args.add(filter.status().name());
+        }
+        if (filter.from() != null) {
+            sql.append(" AND ").append(createdColumn).append(" >= ?");
+            args.add(Timestamp.valueOf(filter.from()));
+        }
+        if (filter.to() != null) {
+            sql.append(" AND ").append(createdColumn).append(" < ?");
+            args.add(Timestamp.valueOf(filter.to()));
+        }
+        sql.append(" ORDER BY ").append(idColumn);
+
+        RowWriter writer = format == ExportFormat.NDJSON ? new NdjsonRowWriter(out, columns) : new CsvRowWriter(out, columns);
+        long[] rows = {0};
+        try {
+            jdbcTemplate.query(sql.toString(), rs -> {
+                writer.write(values(rs, columns.size()));
+                rows[0]++;
+            }, args.toArray());
+        } catch (UncheckedIOException e) {
+            // Usually the client went away mid-download
+            throw e.getCause();
+        }
+        writer.finish();
+        logger.debug("Exported {} rows as {}", rows[0], format);
+        return rows[0];
+    }
+
+    private static Object[] values(ResultSet rs, int count) throws SQLException {
+        Object[] values = new Object[count];
+        for (int i = 0; i < count; i++) {
+            Object value = JdbcUtils.getResultSetValue(rs, i + 1);
+            values[i] = value instanceof Timestamp timestamp ? timestamp.toLocalDateTime() : value;
+        }
+        return values;
+    }
+
+    private interface RowWriter {
+        void write(Object[] values);
+
+        void finish() throws IOException;
+    }
+
+    private static final class CsvRowWriter implements RowWriter {
+        private final CsvWriter csv;
+
+        private CsvRowWriter(OutputStream out, List<String> columns) throws IOException {
+            this.csv = new CsvWriter(new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8)));
+            csv.writeRow(columns.toArray());
+        }
+
+        @Override
+        public void write(Object[] values) {
+            try {
+                csv.writeRow(values);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        @Override
+        public void finish() throws IOException {
+            csv.flush();
+        }
+    }
+
+    private final class NdjsonRowWriter implements RowWriter {
+        private final JsonGenerator json;
+        private final List<String> columns;
+
+        private NdjsonRowWriter(OutputStream out, List<String> columns) throws IOException {
+            this.json = objectMapper.createGenerator(out, JsonEncoding.UTF8)
+                    .disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            // One object per line: the newline below replaces the default space between root values
+            this.json.setRootValueSeparator(null);
+            this.columns = columns;
+        }
+
+        @Override
+        public void write(Object[] values) {
+            try {
+                json.writeStartObject();
+                for (int i = 0; i < values.length; i++) {
+                    json.writeFieldName(columns.get(i));
+                    json.writePOJO(values[i]);
+                }
+                json.writeEndObject();
+                json.writeRaw('\n');
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        @Override
+        public void finish() throws IOException {
+            json.flush();
+        }
+    }
+}
@@ -1,8 +1,11 @@
 package com.college.duemanagement.service;
 
+import com.college.duemanagement.dto.CertificateEligibility;
 import com.college.duemanagement.dto.DepartmentSignatureDto;
 import com.college.duemanagement.dto.NoDuesCertificateDto;
+import com.college.duemanagement.dto.PageResponse;
 import com.college.duemanagement.entity.NoDuesCertificate;
+import org.springframework.data.domain.Pageable;
 
 import java.util.List;
 
@@ -10,6 +13,8 @@ public interface NoDuesCertificateService {
 
     // Certificate management
     NoDuesCertificateDto createCertificate(String studentId);
+    // For callers that already checked eligibility, so it is not queried again
+    NoDuesCertificateDto createCertificate(CertificateEligibility eligibility);
     NoDuesCertificateDto getCertificate(Long id);
     NoDuesCertificateDto getCertificateByNumber(String certificateNumber);
     List<NoDuesCertificateDto> getCertificatesByStudent(String studentId);
@@ -37,13 +42,13 @@ public interface NoDuesCertificateService {
     boolean hasStudentPendingDuesInDepartmentById(Long studentId, String department);
     DepartmentSignatureDto generateDepartmentReceiptById(Long studentId, String department, Long signedById);
 
-    // Get all students with cleared dues for HOD
-    List<NoDuesCertificateDto> getStudentsWithClearedDues();
+    // Get all students with cleared dues, each with their latest certificate
+    PageResponse<NoDuesCertificateDto> getStudentsWithClearedDues(Pageable pageable, Long cursor);
 
     // Get students from a specific department with cleared dues
-    List<NoDuesCertificateDto> getStudentsWithClearedDuesByDepartment(String department);
+    PageResponse<NoDuesCertificateDto> getStudentsWithClearedDuesByDepartment(String department, Pageable pageable, Long cursor);
 
-    List<NoDuesCertificateDto> getAllCertificates();
+    PageResponse<NoDuesCertificateDto> getAllCertificates(Pageable pageable, Long cursor);
 
     NoDuesCertificateDto updateCertificateStatus(Long id, String requested);
 
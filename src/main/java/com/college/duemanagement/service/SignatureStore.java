@@ -0,0 +1,121 @@
+package com.college.duemanagement.service;
+
+import com.college.duemanagement.dto.SignatureMetadata;
+import com.college.duemanagement.repository.StoredSignatureRepository;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDateTime;
+import java.util.HexFormat;
+import java.util.Optional;
+import java.util.regex.Pattern;
+
+/**
+ * Content-addressed store for e-signature images. Identical uploads share one row,
+ * and signing a certificate links to the signer's hash instead of copying bytes.
+ */
+@Service
+public class SignatureStore {
+
+    private static final Pattern HASH_PATTERN = Pattern.compile("[0-9a-f]{64}");
+
+    private final StoredSignatureRepository storedSignatureRepository;
+    private final JdbcTemplate jdbcTemplate;
+
+    public SignatureStore(StoredSignatureRepository storedSignatureRepository, JdbcTemplate jdbcTemplate) {
+        this.storedSignatureRepository = storedSignatureRepository;
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Stores the content if it is not already present and returns its hash. Safe to call
+     * concurrently with the same content: whichever insert comes second leaves the row as it is.
+     */
+    @Transactional
+    public String store(byte[] content, String contentType) {
+        String hash = hash(content);
+        if (storedSignatureRepository.existsById(hash)) {
+            return hash;
+        }
+        // Another upload of the same image may land between the check and the insert, so a
+        // duplicate key is a no-op here rather than an error that would poison the caller's transaction
+        jdbcTemplate.update("INSERT INTO signatures (hash, content_type, size, created_at, content) " +
+                        "VALUES (?, ?, ?, ?, ?) ON DUPLICATE KEY UPDATE hash = hash",
+                hash, contentType != null ? contentType : detectContentType(content), content.length,
+                LocalDateTime.now(), content);
+        return hash;
+    }
+
+    public Optional<SignatureMetadata> findMetadata(String hash) {
+        if (hash == null || !HASH_PATTERN.matcher(hash).matches()) {
+            return Optional.empty();
+        }
+        return storedSignatureRepository.findMetadataByHash(hash);
+    }
+
+    /**
+     * Copies the stored content to {@code out} without materialising it as an entity.
+     *
+     * @return false if no signature with that hash exists
+     */
+    public boolean streamTo(String hash, OutputStream out) {
+        Boolean found = jdbcTemplate.query("SELECT content FROM signatures WHERE hash = ?", rs -> {
+            if (!rs.next()) {
+                return false;
+            }
+            try (InputStream in = rs.getBinaryStream(1)) {
+                in.transferTo(out);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            return true;
+        }, hash);
+        return Boolean.TRUE.equals(found);
+    }
+
+    public static String hash(byte[] content) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(content));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    // Legacy blobs were stored without a content type, so sniff the common image headers
+    static String detectContentType(byte[] content) {
+        if (startsWith(content, new byte[]{(byte) 0x89, 'P', 'N', 'G'})) {
+            return "image/png";
+        }
+        if (startsWith(content, new byte[]{(byte) 0xFF, (byte) 0xD8, (byte) 0xFF})) {
+            return "image/jpeg";
+        }
+        if (startsWith(content, "GIF8".getBytes(StandardCharsets.US_ASCII))) {
+            return "image/gif";
+        }
+        if (startsWith(content, "RIFF".getBytes(StandardCharsets.US_ASCII)) && content.length > 12
+                && content[8] == 'W' && content[9] == 'E' && content[10] == 'B' && content[11] == 'P') {
+            return "image/webp";
+        }
+        return "application/octet-stream";
+    }
+
+    private static boolean startsWith(byte[] content, byte[] prefix) {
+        if (content.length < prefix.length) {
+            return false;
+        }
+        for (int i = 0; i < prefix.length; i++) {
+            if (content[i] != prefix[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,452 @@
+package com.college.duemanagement.service;
+
+import com.college.duemanagement.dto.BulkJobStatus;
+import com.college.duemanagement.dto.EmailMessage;
+import com.college.duemanagement.entity.Role;
+import com.college.duemanagement.event.StudentChangedEvent;
+import com.college.duemanagement.exception.BadRequestException;
+import com.college.duemanagement.payload.request.CreateStudentRequest;
+import com.college.duemanagement.repository.RoleRepository;
+import com.college.duemanagement.repository.StudentRepository;
+import com.college.duemanagement.repository.UserRepository;
+import com.college.duemanagement.util.CsvReader;
+import com.college.duemanagement.util.CsvWriter;
+import jakarta.annotation.PreDestroy;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.stream.Collectors;
+
+/**
+ * Imports students from an uploaded CSV file in the background.
+ * <p>
+ * The file is read one record at a time and handled in chunks: each chunk checks
+ * emails, roll numbers and usernames with one query apiece, hashes passwords on a
+ * bounded pool and inserts users, roles and students as JDBC batches in a single
+ * transaction, along with the credential emails for the outbox. Rows that cannot
+ * be imported are reported per CSV line and can be downloaded with {@link #writeErrorReport}.
+ */
+@Service
+public class StudentImportService {
+    private static final Logger logger = LoggerFactory.getLogger(StudentImportService.class);
+
+    static final List<String> COLUMNS = List.of("email", "firstName", "lastName", "department", "rollNumber",
+            "semester", "batch", "course", "section", "fatherName", "motherName", "contactNumber", "address");
+
+    private static final String INSERT_USER = "INSERT INTO users (username, password, email, first_name, last_name, " +
+            "unique_code, department, is_account_non_expired, is_account_non_locked, is_credentials_non_expired, " +
+            "is_enabled, token_version) VALUES (?, ?, ?, ?, ?, ?, ?, TRUE, TRUE, TRUE, TRUE, 0)";
+    private static final String INSERT_USER_ROLE = "INSERT INTO user_roles (user_id, role_id) VALUES (?, ?)";
+    private static final String INSERT_STUDENT = "INSERT INTO students (user_id, roll_number, semester, batch, course, " +
+            "section, father_name, mother_name, contact_number, address, created_at) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final NamedParameterJdbcTemplate namedJdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final UserRepository userRepository;
+    private final StudentRepository studentRepository;
+    private final RoleRepository roleRepository;
+    private final UserService userService;
+    private final PasswordEncoder passwordEncoder;
+    private final EmailService emailService;
+    private final Validator validator;
+    private final BulkJobRegistry jobRegistry;
+    private final ApplicationEventPublisher eventPublisher;
+    private final AsyncTaskExecutor executor;
+    private final ExecutorService hashPool;
+    private final int chunkSize;
+
+    public StudentImportService(JdbcTemplate jdbcTemplate,
+                                NamedParameterJdbcTemplate namedJdbcTemplate,
+                                TransactionTemplate transactionTemplate,
+                                UserRepository userRepository,
+                                StudentRepository studentRepository,
+                                RoleRepository roleRepository,
+                                UserService userService,
+                                PasswordEncoder passwordEncoder,
+                                EmailService emailService,
+                                Validator validator,
+                                BulkJobRegistry jobRegistry,
+                                ApplicationEventPublisher eventPublisher,
+                                @Qualifier("bulkExecutor") AsyncTaskExecutor executor,
+                                @Value("${bulk.students.chunk-size:500}") int chunkSize,
+                                @Value("${bulk.students.hash-threads:0}") int hashThreads) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.namedJdbcTemplate = namedJdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.userRepository = userRepository;
+        this.studentRepository = studentRepository;
+        this.roleRepository = roleRepository;
+        this.userService = userService;
+        this.passwordEncoder = passwordEncoder;
+        this.emailService = emailService;
+        this.validator = validator;
+        this.jobRegistry = jobRegistry;
+        this.eventPublisher = eventPublisher;
+        this.executor = executor;
+        this.chunkSize = chunkSize;
+        // BCrypt is CPU bound, so more threads than cores only adds contention
+        int threads = hashThreads > 0 ? hashThreads : Runtime.getRuntime().availableProcessors();
+        this.hashPool = Executors.newFixedThreadPool(threads, Thread.ofPlatform().name("password-hash-", 0).factory());
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        hashPool.shutdownNow();
+    }
+
+    /**
+     * Stores the upload in a temporary file and starts the import; poll {@link BulkJobRegistry} for progress.
+     */
+    public BulkJobRegistry.BulkJob submit(MultipartFile file, Long ownerId) throws IOException {
+        if (file == null || file.isEmpty()) {
+            throw new BadRequestException("The uploaded file is empty");
+        }
+
+        Path upload = Files.createTempFile("student-import-", ".csv");
+        file.transferTo(upload);
+
+        BulkJobRegistry.BulkJob job = jobRegistry.create("students", ownerId);
+        try {
+            executor.execute(() -> run(job, upload));
+        } catch (TaskRejectedException e) {
+            job.fail("Too many bulk jobs running");
+            Files.deleteIfExists(upload);
+            throw e;
+        }
+        return job;
+    }
+
+    /**
+     * Writes the rejected rows of a job as CSV: the line in the uploaded file and the reason.
+     */
+    public void writeErrorReport(BulkJobRegistry.BulkJob job, Writer writer) throws IOException {
+        CsvWriter csv = new CsvWriter(writer);
+        csv.writeRow("line", "error");
+        for (BulkJobStatus.RowError error : job.toStatus().errors()) {
+            csv.writeRow(error.row(), error.message());
+        }
+        csv.flush();
+    }
+
+    private void run(BulkJobRegistry.BulkJob job, Path upload) {
+        try (CsvReader csv = new CsvReader(Files.newBufferedReader(upload, StandardCharsets.UTF_8))) {
+            List<String> header = csv.readRecord();
+            if (header == null) {
+                job.fail("The uploaded file is empty");
+                return;
+            }
+            Map<String, Integer> columns = new HashMap<>();
+            for (int i = 0; i < header.size(); i++) {
+                columns.put(header.get(i).trim(), i);
+            }
+            List<String> missing = COLUMNS.stream().filter(column -> !columns.containsKey(column)).toList();
+            if (!missing.isEmpty()) {
+                job.fail("Missing columns: " + String.join(", ", missing));
+                return;
+            }
+
+            Long studentRoleId = roleRepository.findByName(Role.ERole.ROLE_STUDENT)
+                    .orElseThrow(() -> new IllegalStateException("Role ROLE_STUDENT is not found"))
+                    .getId();
+            Set<String> seenEmails = new HashSet<>();
+            Set<String> seenRollNumbers = new HashSet<>();
+            List<PendingStudent> chunk = new ArrayList<>(chunkSize);
+            int total = 0;
+
+            List<String> record;
+            while ((record = csv.readRecord()) != null) {
+                if (record.size() == 1 && record.get(0).isBlank()) {
+                    continue;
+                }
+                total++;
+                PendingStudent row = parse(job, csv.getRecordLine(), record, columns);
+                if (row == null) {
+                    continue;
+                }
+                if (!seenEmails.add(row.request.getEmail())) {
+                    job.failed(row.line(), "Email appears more than once in the file");
+                } else if (!seenRollNumbers.add(row.request.getRollNumber())) {
+                    job.failed(row.line(), "Roll number appears more than once in the file");
+                } else {
+                    chunk.add(row);
+                }
+                if (chunk.size() == chunkSize) {
+                    importChunk(job, chunk, studentRoleId);
+                    chunk.clear();
+                }
+            }
+            if (!chunk.isEmpty()) {
+                importChunk(job, chunk, studentRoleId);
+            }
+
+            job.setTotal(total);
+            job.complete();
+            BulkJobStatus status = job.toStatus();
+            logger.info("Student import {} finished: {} imported, {} rejected", job.getId(), status.succeeded(), status.failed());
+        } catch (IOException e) {
+            // Unreadable or malformed CSV; CsvReader says where
+            logger.warn("Student import {} failed: {}", job.getId(), e.getMessage());
+            job.fail(e.getMessage());
+        } catch (RuntimeException e) {
+            logger.error("Student import {} failed: {}", job.getId(), e.getMessage(), e);
+            job.fail("The import stopped unexpectedly");
+        } finally {
+            try {
+                Files.deleteIfExists(upload);
+            } catch (IOException e) {
+                logger.warn("Could not delete uploaded file {}: {}", upload, e.getMessage());
+            }
+        }
+    }
+
+    private PendingStudent parse(BulkJobRegistry.BulkJob job, int line, List<String> record, Map<String, Integer> columns) {
+        CreateStudentRequest request = new CreateStudentRequest();
+        request.setEmail(value(record, columns, "email"));
+        request.setFirstName(value(record, columns, "firstName"));
+        request.setLastName(value(record, columns, "lastName"));
+        request.setDepartment(value(record, columns, "department"));
+        request.setRollNumber(value(record, columns, "rollNumber"));
+        request.setBatch(value(record, columns, "batch"));
+        request.setCourse(value(record, columns, "course"));
+        request.setSection(value(record, columns, "section"));
+        request.setFatherName(value(record, columns, "fatherName"));
+        request.setMotherName(value(record, columns, "motherName"));
+        request.setContactNumber(value(record, columns, "contactNumber"));
+        request.setAddress(value(record, columns, "address"));
+
+        String semester = value(record, columns, "semester");
+        try {
+            request.setSemester(semester == null ? null : Integer.valueOf(semester));
+        } catch (NumberFormatException e) {
+            job.failed(String.valueOf(line), "Semester must be a number");
+            return null;
+        }
+
+        Set<ConstraintViolation<CreateStudentRequest>> violations = validator.validate(request);
+        if (!violations.isEmpty()) {
+            job.failed(String.valueOf(line), violations.stream()
+                    .map(ConstraintViolation::getMessage)
+                    .sorted()
+                    .collect(Collectors.joining("; ")));
+            return null;
+        }
+        return new PendingStudent(line, request);
+    }
+
+    private static String value(List<String> record, Map<String, Integer> columns, String column) {
+        int index = columns.get(column);
+        if (index >= record.size()) {
+            return null;
+        }
+        String value = record.get(index).trim();
+        return value.isEmpty() ? null : value;
+    }
+
+    private void importChunk(BulkJobRegistry.BulkJob job, List<PendingStudent> chunk, Long studentRoleId) {
+        List<PendingStudent> rows = rejectExisting(job, chunk);
+        if (rows.isEmpty()) {
+            return;
+        }
+        assignCredentials(rows);
+
+        try {
+            transactionTemplate.executeWithoutResult(status -> insert(rows, studentRoleId));
+            job.succeeded(rows.size());
+        } catch (DataAccessException e) {
+            logger.warn("Student import {}: chunk failed ({}), retrying row by row", job.getId(), e.getMessage());
+            for (PendingStudent row : rows) {
+                try {
+                    transactionTemplate.executeWithoutResult(status -> insert(List.of(row), studentRoleId));
+                    job.succeeded(1);
+                } catch (DataAccessException rowError) {
+                    // The driver's message names constraints and echoes values, so it only goes to the log
+                    logger.warn("Student import {}: line {} failed: {}", job.getId(), row.line(),
+                            rowError.getMostSpecificCause().getMessage());
+                    job.failed(row.line(), describe(row, rowError));
+                }
+            }
+        }
+    }
+
+    /**
+     * Says why a row the database refused could not be imported. Its own insert was rolled
+     * back, so a matching email, roll number or username is another row's, most likely one
+     * created while the import was running.
+     */
+    private String describe(PendingStudent row, DataAccessException error) {
+        if (!(error instanceof DataIntegrityViolationException)) {
+            return "Could not save the student, please import the row again";
+        }
+        if (!userRepository.findExistingEmails(List.of(row.request.getEmail())).isEmpty()) {
+            return "Email is already in use";
+        }
+        if (!studentRepository.findExistingRollNumbers(List.of(row.request.getRollNumber())).isEmpty()) {
+            return "Roll number is already in use";
+        }
+        if (userRepository.existsByUsername(row.username)) {
+            return "The generated username was taken meanwhile, please import the row again";
+        }
+        return "A value is too long or not allowed";
+    }
+
+    private List<PendingStudent> rejectExisting(BulkJobRegistry.BulkJob job, List<PendingStudent> chunk) {
+        Set<String> existingEmails = new HashSet<>(userRepository.findExistingEmails(
+                chunk.stream().map(row -> row.request.getEmail()).toList()));
+        Set<String> existingRollNumbers = new HashSet<>(studentRepository.findExistingRollNumbers(
+                chunk.stream().map(row -> row.request.getRollNumber()).toList()));
+
+        List<PendingStudent> rows = new ArrayList<>(chunk.size());
+        for (PendingStudent row : chunk) {
+            if (existingEmails.contains(row.request.getEmail())) {
+                job.failed(row.line(), "Email is already in use");
+            } else if (existingRollNumbers.contains(row.request.getRollNumber())) {
+                job.failed(row.line(), "Roll number is already in use");
+            } else {
+                rows.add(row);
+            }
+        }
+        return rows;
+    }
+
+    /**
+     * Picks usernames the same way {@link UserService} does, but checks the whole chunk
+     * against the database in one query, then hashes the generated passwords in parallel.
+     */
+    private void assignCredentials(List<PendingStudent> rows) {
+        Set<String> bases = new LinkedHashSet<>();
+        for (PendingStudent row : rows) {
+            String base = userService.generateBaseUsername(row.request.getFirstName(), row.request.getLastName());
+            row.baseUsername = base.isEmpty() ? "student" : base;
+            bases.add(row.baseUsername);
+        }
+
+        String sql = "SELECT username FROM users WHERE " +
+                bases.stream().map(base -> "username LIKE ?").collect(Collectors.joining(" OR "));
+        Set<String> taken = new HashSet<>(jdbcTemplate.queryForList(sql, String.class,
+                bases.stream().map(base -> base + "%").toArray()));
+
+        Set<String> codes = new HashSet<>();
+        for (PendingStudent row : rows) {
+            String username = row.baseUsername;
+            int counter = 1;
+            while (!taken.add(username)) {
+                username = row.baseUsername + counter;
+                counter++;
+            }
+            row.username = username;
+            row.password = userService.generateRandomPassword();
+            do {
+                row.uniqueCode = userService.generateUniqueCode(row.request.getDepartment());
+            } while (!codes.add(row.uniqueCode));
+        }
+
+        List<CompletableFuture<Void>> hashes = rows.stream()
+                .map(row -> CompletableFuture.runAsync(() -> row.passwordHash = passwordEncoder.encode(row.password), hashPool))
+                .toList();
+        CompletableFuture.allOf(hashes.toArray(CompletableFuture[]::new)).join();
+    }
+
+    private void insert(List<PendingStudent> rows, Long studentRoleId) {
+        jdbcTemplate.batchUpdate(INSERT_USER, rows, rows.size(), (ps, row) -> {
+            CreateStudentRequest request = row.request;
+            ps.setString(1, row.username);
+            ps.setString(2, row.passwordHash);
+            ps.setString(3, request.getEmail());
+            ps.setString(4, request.getFirstName());
+            ps.setString(5, request.getLastName());
+            ps.setString(6, row.uniqueCode);
+            ps.setString(7, request.getDepartment());
+        });
+
+        Map<String, Long> ids = new HashMap<>();
+        namedJdbcTemplate.query("SELECT id, username FROM users WHERE username IN (:usernames)",
+                Map.of("usernames", rows.stream().map(row -> row.username).toList()),
+                rs -> {
+                    ids.put(rs.getString("username"), rs.getLong("id"));
+                });
+        rows.forEach(row -> row.userId = ids.get(row.username));
+
+        jdbcTemplate.batchUpdate(INSERT_USER_ROLE, rows, rows.size(), (ps, row) -> {
+            ps.setLong(1, row.userId);
+            ps.setLong(2, studentRoleId);
+        });
+
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        jdbcTemplate.batchUpdate(INSERT_STUDENT, rows, rows.size(), (ps, row) -> {
+            CreateStudentRequest request = row.request;
+            ps.setLong(1, row.userId);
+            ps.setString(2, request.getRollNumber());
+            ps.setInt(3, request.getSemester());
+            ps.setString(4, request.getBatch());
+            ps.setString(5, request.getCourse());
+            ps.setString(6, request.getSection());
+            ps.setString(7, request.getFatherName());
+            ps.setString(8, request.getMotherName());
+            ps.setString(9, request.getContactNumber());
+            ps.setString(10, request.getAddress());
+            ps.setTimestamp(11, now);
+        });
+
+        rows.forEach(row -> eventPublisher.publishEvent(new StudentChangedEvent(row.userId,
+                row.request.getFirstName() + " " + row.request.getLastName(),
+                row.request.getDepartment(), StudentChangedEvent.Change.REGISTERED)));
+        emailService.enqueueAll(rows.stream()
+                .map(row -> new EmailMessage.Credentials(row.request.getEmail(),
+                        row.request.getFirstName() + " " + row.request.getLastName(),
+                        row.username, row.uniqueCode, row.password))
+                .toList());
+    }
+
+    private static final class PendingStudent {
+        private final int line;
+        private final CreateStudentRequest request;
+        private String baseUsername;
+        private String username;
+        private String password;
+        private volatile String passwordHash;
+        private String uniqueCode;
+        private Long userId;
+
+        private PendingStudent(int line, CreateStudentRequest request) {
+            this.line = line;
+            this.request = request;
+        }
+
+        private String line() {
+            return String.valueOf(line);
+        }
+    }
+}
@@ -8,15 +8,25 @@ import com.college.duemanagement.payload.request.CreateStudentRequest;
 import com.college.duemanagement.payload.request.UpdateStudentRequest;
 import com.college.duemanagement.exception.ResourceNotFoundException;
 import com.college.duemanagement.exception.BadRequestException;
+import com.college.duemanagement.security.services.PrincipalCache;
+import com.college.duemanagement.security.services.TokenVersionService;
 import com.college.duemanagement.security.services.UserDetailsImpl;
+import com.college.duemanagement.util.PageRequests;
+import com.college.duemanagement.dto.PageResponse;
+import com.college.duemanagement.event.DueChangedEvent;
+import com.college.duemanagement.event.StudentChangedEvent;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Pageable;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
+import java.util.Objects;
 import java.util.Optional;
 import java.util.Set;
+import java.util.function.Function;
 import java.util.HashSet;
 import java.util.logging.Logger;
 
@@ -32,56 +42,53 @@ public class StudentService {
     @Autowired
     private UserService userService;
 
-    public List<Student> getAllStudents() {
+    @Autowired
+    private PrincipalCache principalCache;
+
+    @Autowired
+    private TokenVersionService tokenVersionService;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Transactional(readOnly = true)
+    public PageResponse<Student> getAllStudents(Pageable pageable, Long cursor) {
         UserDetailsImpl userDetails = (UserDetailsImpl) SecurityContextHolder.getContext().getAuthentication().getPrincipal();
-        System.out.println("UserDetails: " + userDetails);
-        System.out.println("Authorities: " + userDetails.getAuthorities());
-
-        // If user has ROLE_ADMIN, return all students
-        if (userDetails.getAuthorities().stream().anyMatch(a -> a.getAuthority().equals("ROLE_ADMIN"))) {
-            List<Student> students = studentRepository.findAll();
-            System.out.println("All students (ROLE_ADMIN): " + students.size() + " students retrieved");
-            if (students.isEmpty()) {
-                System.out.println("No students found in the database");
-            }
-            return students;
-        }
+        Pageable keyset = PageRequests.keyset(pageable);
 
-        // If user has ROLE_HOD or ROLE_PRINCIPAL, return students from their department
-        if (userDetails.getAuthorities().stream().anyMatch(a -> a.getAuthority().equals("ROLE_HOD")) ||
-                userDetails.getAuthorities().stream().anyMatch(a -> a.getAuthority().equals("ROLE_PRINCIPAL"))) {
+        // If user has ROLE_HOD or ROLE_PRINCIPAL (and not ROLE_ADMIN), return students from their department
+        boolean admin = userDetails.getAuthorities().stream().anyMatch(a -> a.getAuthority().equals("ROLE_ADMIN"));
+        if (!admin && (userDetails.getAuthorities().stream().anyMatch(a -> a.getAuthority().equals("ROLE_HOD")) ||
+                userDetails.getAuthorities().stream().anyMatch(a -> a.getAuthority().equals("ROLE_PRINCIPAL")))) {
             String department = userDetails.getDepartment();
-            System.out.println("Fetching students for department: " + department);
-            List<Student> students = studentRepository.findByUserDepartment(department);
-            System.out.println("Students found (by department): " + students.size() + " students retrieved");
-            if (students.isEmpty()) {
-                System.out.println("No students found for department: " + department);
-            }
-            return students;
+            return cursor == null
+                    ? PageResponse.ofPage(studentRepository.findByUserDepartment(department, pageable), Function.identity(), Student::getId)
+                    : PageResponse.ofKeyset(studentRepository.findByUserDepartmentAndIdLessThan(department, cursor, keyset), Function.identity(), Student::getId);
         }
 
-        // Default case: return all students (or adjust based on your requirements)
-        List<Student> students = studentRepository.findAll();
-        System.out.println("All students (default): " + students.size() + " students retrieved");
-        if (students.isEmpty()) {
-            System.out.println("No students found in the database");
-        }
-        return students;
+        // Admin and everyone else allowed on the endpoint see all students
+        return cursor == null
+                ? PageResponse.ofPage(studentRepository.findAll(pageable), Function.identity(), Student::getId)
+                : PageResponse.ofKeyset(studentRepository.findByIdLessThan(cursor, keyset), Function.identity(), Student::getId);
     }
+    @Transactional(readOnly = true)
     public List<Student> getStudentsByDepartment(String department) {
         return studentRepository.findByUserDepartment(department);
     }
 
+    @Transactional(readOnly = true)
     public Student getStudentById(Long id) {
         return studentRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Student not found with id: " + id));
     }
 
+    @Transactional(readOnly = true)
     public Student getStudentByUserId(Long userId) {
         return studentRepository.findByUserId(userId)
                 .orElseThrow(() -> new ResourceNotFoundException("Student not found with user id: " + userId));
     }
 
+    @Transactional(readOnly = true)
     public Student getStudentByRollNumber(String rollNumber) {
         return studentRepository.findByRollNumber(rollNumber)
             .orElseThrow(() -> new ResourceNotFoundException("Student not found with roll number: " + rollNumber));
@@ -121,6 +128,7 @@ public class StudentService {
 
         // Save and flush to ensure the user is saved before the student
         studentRepository.saveAndFlush(student);
+        eventPublisher.publishEvent(studentChanged(user, user.getDepartment(), StudentChangedEvent.Change.REGISTERED));
 
         return student;
     }
@@ -138,11 +146,18 @@ public class StudentService {
         
         // Update user information
         User user = student.getUser();
+        String previousDepartment = user.getDepartment();
         user.setFirstName(request.getFirstName());
         user.setLastName(request.getLastName());
         user.setDepartment(request.getDepartment());
         user.setEmail(request.getEmail());
+        tokenVersionService.revoke(user);
         userRepository.save(user);
+        principalCache.evict(user.getUsername());
+        if (!Objects.equals(previousDepartment, user.getDepartment())) {
+            eventPublisher.publishEvent(studentChanged(user, previousDepartment, StudentChangedEvent.Change.MOVED_OUT));
+            eventPublisher.publishEvent(studentChanged(user, user.getDepartment(), StudentChangedEvent.Change.MOVED_IN));
+        }
         
         // Update student information
         student.setRollNumber(request.getRollNumber());
@@ -168,12 +183,22 @@ public class StudentService {
 
         User user = student.getUser();
         if (user != null) {
-            // Deleting the User will cascade to Student and DepartmentSignature
+            // Deleting the User will cascade to Student, DepartmentSignature and Due
+            if (user.getDues() != null) {
+                user.getDues().forEach(due -> eventPublisher.publishEvent(DueChangedEvent.deleted(due)));
+            }
+            eventPublisher.publishEvent(studentChanged(user, user.getDepartment(), StudentChangedEvent.Change.DELETED));
             userRepository.delete(user);
+            principalCache.evict(user.getUsername());
+            tokenVersionService.forget(user.getId());
         } else {
             // If no User is associated, just delete the Student
             studentRepository.delete(student);
+            eventPublisher.publishEvent(new StudentChangedEvent(null, null, null, StudentChangedEvent.Change.DELETED));
         }
     }
 
-} 
\ No newline at end of file
+    private static StudentChangedEvent studentChanged(User user, String department, StudentChangedEvent.Change change) {
+        return new StudentChangedEvent(user.getId(), user.getFirstName() + " " + user.getLastName(), department, change);
+    }
+}
@@ -1,5 +1,6 @@
 package com.college.duemanagement.service;
 
+import com.college.duemanagement.dto.PageResponse;
 import com.college.duemanagement.entity.User;
 import com.college.duemanagement.repository.UserRepository;
 import com.college.duemanagement.repository.RoleRepository;
@@ -10,18 +11,21 @@ import com.college.duemanagement.payload.request.ProfileUpdateRequest;
 import com.college.duemanagement.payload.response.JwtResponse;
 import com.college.duemanagement.exception.ResourceNotFoundException;
 import com.college.duemanagement.exception.BadRequestException;
+import com.college.duemanagement.security.services.PrincipalCache;
+import com.college.duemanagement.security.services.TokenVersionService;
 import com.college.duemanagement.security.services.UserDetailsImpl;
 import com.college.duemanagement.security.jwt.JwtUtils;
+import com.college.duemanagement.util.PageRequests;
 import jakarta.validation.constraints.Email;
 import jakarta.validation.constraints.NotBlank;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Pageable;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.access.AccessDeniedException;
 import org.springframework.security.authentication.BadCredentialsException;
-import org.springframework.scheduling.annotation.Async;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
@@ -32,6 +36,7 @@ import java.util.UUID;
 import java.util.Set;
 import java.util.HashSet;
 import java.util.ArrayList;
+import java.util.function.Function;
 
 @Service
 public class UserService {
@@ -42,29 +47,42 @@ public class UserService {
      private final EmailService emailService;
      private final AuthenticationManager authenticationManager;
      private final JwtUtils jwtUtils;
+     private final PrincipalCache principalCache;
+     private final TokenVersionService tokenVersionService;
+     private final SignatureStore signatureStore;
 
-    public UserService(UserRepository userRepository, RoleRepository roleRepository, PasswordEncoder passwordEncoder, EmailService emailService, AuthenticationManager authenticationManager, JwtUtils jwtUtils) {
+    public UserService(UserRepository userRepository, RoleRepository roleRepository, PasswordEncoder passwordEncoder, EmailService emailService, AuthenticationManager authenticationManager, JwtUtils jwtUtils, PrincipalCache principalCache, TokenVersionService tokenVersionService, SignatureStore signatureStore) {
         this.userRepository = userRepository;
         this.roleRepository = roleRepository;
         this.passwordEncoder = passwordEncoder;
         this.emailService = emailService;
         this.authenticationManager = authenticationManager;
         this.jwtUtils = jwtUtils;
+        this.principalCache = principalCache;
+        this.tokenVersionService = tokenVersionService;
+        this.signatureStore = signatureStore;
     }
 
-    public List<User> getAllUsers() {
+    public PageResponse<User> getAllUsers(Pageable pageable, Long cursor) {
         // Get current user details
         UserDetailsImpl userDetails = (UserDetailsImpl) SecurityContextHolder.getContext().getAuthentication().getPrincipal();
-        List<User> users = new ArrayList<>();
+        Pageable keyset = PageRequests.keyset(pageable);
+        PageResponse<User> users;
 
         // If user is ADMIN, return all users
         if (userDetails.getAuthorities().stream().anyMatch(a -> a.getAuthority().equals("ROLE_ADMIN"))) {
-            users = userRepository.notExistsRoleStudent();
-        }else if (userDetails.getAuthorities().stream().anyMatch(a -> a.getAuthority().equals("ROLE_HOD"))) {
-            users = userRepository.findByDepartment(userDetails.getDepartment());
+            users = cursor == null
+                    ? PageResponse.ofPage(userRepository.notExistsRoleStudent(pageable), Function.identity(), User::getId)
+                    : PageResponse.ofKeyset(userRepository.notExistsRoleStudentBefore(cursor, keyset), Function.identity(), User::getId);
+        } else if (userDetails.getAuthorities().stream().anyMatch(a -> a.getAuthority().equals("ROLE_HOD"))) {
+            users = cursor == null
+                    ? PageResponse.ofPage(userRepository.findByDepartment(userDetails.getDepartment(), pageable), Function.identity(), User::getId)
+                    : PageResponse.ofKeyset(userRepository.findByDepartmentAndIdLessThan(userDetails.getDepartment(), cursor, keyset), Function.identity(), User::getId);
+        } else {
+            users = new PageResponse<>(new ArrayList<>(), 0, pageable.getPageSize(), 0L, 0, false, null);
         }
 
-        for(User user : users){
+        for(User user : users.getContent()){
             user.setPassword("");
         }
         return users;
@@ -138,8 +156,8 @@ public class UserService {
         // Save user
         user = userRepository.save(user);
 
-        // Send credentials via email asynchronously
-        sendUserCredentialsAsync(user, password);
+        // Queued in this transaction; EmailDispatcher sends it once the user is committed
+        emailService.sendUserCredentials(user, password);
 
         // Generate JWT token
         Authentication authentication = authenticationManager.authenticate(
@@ -162,11 +180,6 @@ public class UserService {
         );
     }
 
-    @Async
-    public void sendUserCredentialsAsync(User user, String password) {
-        emailService.sendUserCredentials(user, password);
-    }
-
     @Transactional
     public User updateUser(Long id, UpdateUserRequest request) {
         User user = getUserById(id);
@@ -187,15 +200,19 @@ public class UserService {
             user.setRoles(roleEntities);
         }
 
+        // Roles and department are part of the cached principal and the token claims
+        principalCache.evict(user.getUsername());
+        tokenVersionService.revoke(user);
         return userRepository.save(user);
     }
 
     @Transactional
     public void deleteUser(Long id) {
-        if (!userRepository.existsById(id)) {
-            throw new ResourceNotFoundException("User not found with id: " + id);
-        }
-        userRepository.deleteById(id);
+        User user = userRepository.findById(id)
+                .orElseThrow(() -> new ResourceNotFoundException("User not found with id: " + id));
+        userRepository.delete(user);
+        principalCache.evict(user.getUsername());
+        tokenVersionService.forget(user.getId());
     }
 
     @Transactional
@@ -221,12 +238,14 @@ public class UserService {
         // Update password if provided
         if (request.getNewPassword() != null && !request.getNewPassword().isEmpty()) {
             user.setPassword(passwordEncoder.encode(request.getNewPassword()));
+            tokenVersionService.revoke(user);
         }
 
+        principalCache.evict(user.getUsername());
         return userRepository.save(user);
     }
 
-    private String generateBaseUsername(String firstName, String lastName) {
+    String generateBaseUsername(String firstName, String lastName) {
         // Convert to lowercase and remove spaces
         String base = (firstName.charAt(0) + lastName).toLowerCase().replaceAll("\\s+", "");
         // Remove special characters
@@ -245,7 +264,7 @@ public class UserService {
         return username;
     }
 
-    private String generateRandomPassword() {
+    String generateRandomPassword() {
         String chars = "ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz0123456789!@#$%^&*";
         StringBuilder password = new StringBuilder();
         Random random = new Random();
@@ -274,7 +293,7 @@ public class UserService {
         return new String(passwordArray);
     }
 
-    private String generateUniqueCode(String department) {
+    String generateUniqueCode(String department) {
         // Generate a unique code for the user based on department
         String prefix = department.substring(0, Math.min(3, department.length())).toUpperCase();
         String randomPart = UUID.randomUUID().toString().substring(0, 6).toUpperCase();
@@ -282,11 +301,11 @@ public class UserService {
     }
 
     @Transactional
-    public void saveSignature(Long userId, byte[] signatureData) {
+    public void saveSignature(Long userId, byte[] signatureData, String contentType) {
         User user = userRepository.findById(userId)
                 .orElseThrow(() -> new ResourceNotFoundException("User not found with id: " + userId));
 
-        user.setESignature(signatureData);
+        user.setESignatureHash(signatureStore.store(signatureData, contentType));
         userRepository.save(user);
     }
 
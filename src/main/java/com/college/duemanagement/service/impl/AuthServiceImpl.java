@@ -6,6 +6,7 @@ import com.college.duemanagement.dto.MessageResponse;
 import com.college.duemanagement.security.jwt.JwtUtils;
 import com.college.duemanagement.security.services.UserDetailsImpl;
 import com.college.duemanagement.service.AuthService;
+import io.jsonwebtoken.Claims;
 import jakarta.servlet.http.Cookie;
 import jakarta.servlet.http.HttpServletRequest;
 import org.slf4j.Logger;
@@ -99,14 +100,15 @@ public class AuthServiceImpl implements AuthService {
                         .body(new MessageResponse("No token found"));
             }
 
-            // Try to validate token (even if expired - depending on your jwtUtils)
-            if (!jwtUtils.isTokenRefreshable(jwt)) {  // Assuming you add this method
+            // Validate the signature once; expired tokens are still refreshable
+            Claims claims = jwtUtils.getRefreshableClaims(jwt);
+            if (claims == null) {
                 logger.warn("Token not eligible for refresh");
                 return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
                         .body(new MessageResponse("Invalid or expired JWT token"));
             }
 
-            String username = jwtUtils.getUserNameFromJwtToken(jwt);
+            String username = claims.getSubject();
             if (username == null) {
                 logger.warn("Username not found in token");
                 return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
@@ -115,6 +117,13 @@ public class AuthServiceImpl implements AuthService {
 
             UserDetailsImpl userDetails = (UserDetailsImpl) userDetailsService.loadUserByUsername(username);
 
+            // Tokens revoked by a role, department or password change cannot be refreshed
+            if (!jwtUtils.hasTokenVersion(claims, userDetails.getTokenVersion())) {
+                logger.warn("Revoked token presented for refresh by user: {}", username);
+                return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
+                        .body(new MessageResponse("Invalid or expired JWT token"));
+            }
+
             UsernamePasswordAuthenticationToken authentication =
                     new UsernamePasswordAuthenticationToken(userDetails, null, userDetails.getAuthorities());
 
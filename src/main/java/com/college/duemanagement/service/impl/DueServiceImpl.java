@@ -1,10 +1,9 @@
 package com.college.duemanagement.service.impl;
 
 import com.college.duemanagement.dto.DueDto;
-import com.college.duemanagement.entity.Due;
-import com.college.duemanagement.entity.User;
 import com.college.duemanagement.repository.DueRepository;
 import com.college.duemanagement.repository.UserRepository;
+import com.college.duemanagement.service.CertificateEligibilityService;
 import com.college.duemanagement.service.DueService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
@@ -19,11 +18,14 @@ public class DueServiceImpl implements DueService {
 
     private final DueRepository dueRepository;
     private final UserRepository userRepository;
+    private final CertificateEligibilityService certificateEligibilityService;
 
     @Autowired
-    public DueServiceImpl(DueRepository dueRepository, UserRepository userRepository) {
+    public DueServiceImpl(DueRepository dueRepository, UserRepository userRepository,
+                          CertificateEligibilityService certificateEligibilityService) {
         this.dueRepository = dueRepository;
         this.userRepository = userRepository;
+        this.certificateEligibilityService = certificateEligibilityService;
     }
 
     @Override
@@ -75,32 +77,11 @@ public class DueServiceImpl implements DueService {
 
     @Override
     public boolean hasStudentClearedAllDues(String studentId) {
-        User student = userRepository.findByUsername(studentId)
-                .orElseThrow(() -> new RuntimeException("Student not found"));
-        
-        // Get all dues for the student
-        List<Due> studentDues = dueRepository.findByStudent(student);
-        
-        // Check if there are any dues that are not in APPROVED status
-        boolean hasNonApprovedDues = studentDues.stream()
-                .anyMatch(due -> due.getPaymentStatus() != Due.PaymentStatus.APPROVED);
-        
-        // Return true if all dues are approved (or there are no dues)
-        return !hasNonApprovedDues;
+        return certificateEligibilityService.check(studentId).clearedDues();
     }
     
     @Override
     public boolean hasStudentPendingDuesInDepartment(Long studentId, String department) {
-        User student = userRepository.findById(studentId)
-                .orElseThrow(() -> new RuntimeException("Student not found"));
-        
-        // Get all dues for the student in the specified department
-        List<Due> departmentDues = dueRepository.findByStudentAndDepartment(student, department);
-        
-        // Check if there are any dues that are not in APPROVED status
-        boolean hasPendingDues = departmentDues.stream()
-                .anyMatch(due -> due.getPaymentStatus() != Due.PaymentStatus.APPROVED);
-        
-        return hasPendingDues;
+        return certificateEligibilityService.hasOpenDues(studentId, department);
     }
 }
\ No newline at end of file
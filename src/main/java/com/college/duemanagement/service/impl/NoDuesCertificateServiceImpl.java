@@ -1,27 +1,33 @@
 package com.college.duemanagement.service.impl;
 
+import com.college.duemanagement.dto.CertificateEligibility;
+import com.college.duemanagement.dto.ClearedStudentRow;
 import com.college.duemanagement.dto.DepartmentSignatureDto;
+import com.college.duemanagement.dto.EmailMessage;
 import com.college.duemanagement.dto.NoDuesCertificateDto;
+import com.college.duemanagement.dto.PageResponse;
 import com.college.duemanagement.entity.DepartmentSignature;
 import com.college.duemanagement.entity.NoDuesCertificate;
 import com.college.duemanagement.entity.Role;
 import com.college.duemanagement.entity.User;
+import com.college.duemanagement.event.CertificateSignedEvent;
 import com.college.duemanagement.exception.ResourceNotFoundException;
 import com.college.duemanagement.repository.DepartmentSignatureRepository;
 import com.college.duemanagement.repository.NoDuesCertificateRepository;
 import com.college.duemanagement.repository.UserRepository;
 import com.college.duemanagement.security.services.UserDetailsImpl;
-import com.college.duemanagement.service.DueService;
+import com.college.duemanagement.service.CertificateEligibilityService;
+import com.college.duemanagement.service.ConcurrencyRetry;
+import com.college.duemanagement.service.EmailService;
 import com.college.duemanagement.service.NoDuesCertificateService;
+import com.college.duemanagement.util.PageRequests;
 import jakarta.persistence.EntityNotFoundException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Pageable;
 import org.springframework.http.HttpStatus;
-import org.springframework.mail.MailException;
-import org.springframework.mail.SimpleMailMessage;
-import org.springframework.mail.javamail.JavaMailSender;
-import org.springframework.scheduling.annotation.Async;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -39,48 +45,49 @@ public class NoDuesCertificateServiceImpl implements NoDuesCertificateService {
     private final NoDuesCertificateRepository certificateRepository;
     private final DepartmentSignatureRepository signatureRepository;
     private final UserRepository userRepository;
-    private final DueService dueService;
-    private final JavaMailSender mailSender;
-
-    private final List<String> requiredDepartments = Arrays.asList(
-            "LIBRARY", "TRAINING_AND_PLACEMENT", "SPORTS", "OFFICE", "HOD",
-            "IES_LIBRARY", "TRANSPORT", "HOSTEL", "ACCOUNTS", "STUDENT_SECTION"
-    );
+    private final CertificateEligibilityService eligibilityService;
+    private final EmailService emailService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ConcurrencyRetry concurrencyRetry;
 
     @Autowired
     public NoDuesCertificateServiceImpl(
             NoDuesCertificateRepository certificateRepository,
             DepartmentSignatureRepository signatureRepository,
             UserRepository userRepository,
-            DueService dueService,
-            JavaMailSender mailSender) {
+            CertificateEligibilityService eligibilityService,
+            EmailService emailService,
+            ApplicationEventPublisher eventPublisher,
+            ConcurrencyRetry concurrencyRetry) {
         this.certificateRepository = certificateRepository;
         this.signatureRepository = signatureRepository;
         this.userRepository = userRepository;
-        this.dueService = dueService;
-        this.mailSender = mailSender;
+        this.eligibilityService = eligibilityService;
+        this.emailService = emailService;
+        this.eventPublisher = eventPublisher;
+        this.concurrencyRetry = concurrencyRetry;
     }
 
     @Override
     @Transactional
     public NoDuesCertificateDto createCertificate(String studentId) {
-        User student = userRepository.findByUsername(studentId)
-                .orElseThrow(() -> new RuntimeException("Student not found"));
+        return createCertificate(eligibilityService.check(studentId));
+    }
 
-        List<NoDuesCertificate> existingCertificates = certificateRepository.findByStudent(student);
-        if (!existingCertificates.isEmpty()) {
-            NoDuesCertificate latestCertificate = existingCertificates.stream()
-                    .filter(c -> c.getStatus() != NoDuesCertificate.CertificateStatus.REJECTED)
-                    .max(Comparator.comparing(NoDuesCertificate::getCreatedAt))
-                    .orElse(null);
-            if (latestCertificate != null) {
-                throw new RuntimeException("An active No Dues Certificate already exists: " + latestCertificate.getCertificateNumber());
-            }
+    @Override
+    @Transactional
+    public NoDuesCertificateDto createCertificate(CertificateEligibility eligibility) {
+        if (eligibility.hasActiveCertificate()) {
+            String certificateNumber = certificateRepository.findById(eligibility.activeCertificateId())
+                    .map(NoDuesCertificate::getCertificateNumber)
+                    .orElse(String.valueOf(eligibility.activeCertificateId()));
+            throw new RuntimeException("An active No Dues Certificate already exists: " + certificateNumber);
         }
-
-        if (!isStudentEligibleForCertificate(studentId)) {
+        if (!eligibility.clearedDues()) {
             throw new RuntimeException("Student has pending dues and is not eligible");
         }
+        User student = userRepository.findById(eligibility.studentId())
+                .orElseThrow(() -> new RuntimeException("Student not found"));
 
         String certificateNumber = "IPS-" + student.getDepartment() + "-" + UUID.randomUUID().toString().substring(0, 8);
 
@@ -92,7 +99,7 @@ public class NoDuesCertificateServiceImpl implements NoDuesCertificateService {
         certificate.setCreatedAt(LocalDateTime.now());
         certificate.setUpdatedAt(LocalDateTime.now());
 
-        List<DepartmentSignature> signatures = requiredDepartments.stream()
+        List<DepartmentSignature> signatures = NoDuesCertificate.REQUIRED_DEPARTMENTS.stream()
                 .map(department -> {
                     DepartmentSignature signature = new DepartmentSignature();
                     signature.setStudent(student);
@@ -109,6 +116,7 @@ public class NoDuesCertificateServiceImpl implements NoDuesCertificateService {
     }
 
     @Override
+    @Transactional(readOnly = true)
     public NoDuesCertificateDto getCertificate(Long id) {
         NoDuesCertificate certificate = certificateRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Certificate not found"));
@@ -116,6 +124,7 @@ public class NoDuesCertificateServiceImpl implements NoDuesCertificateService {
     }
 
     @Override
+    @Transactional(readOnly = true)
     public NoDuesCertificateDto getCertificateByNumber(String certificateNumber) {
         NoDuesCertificate certificate = certificateRepository.findByCertificateNumber(certificateNumber)
                 .orElseThrow(() -> new RuntimeException("Certificate not found"));
@@ -123,6 +132,7 @@ public class NoDuesCertificateServiceImpl implements NoDuesCertificateService {
     }
 
     @Override
+    @Transactional(readOnly = true)
     public List<NoDuesCertificateDto> getCertificatesByStudent(String studentId) {
         User student = userRepository.findByUsername(studentId)
                 .orElseThrow(() -> new RuntimeException("Student not found"));
@@ -132,41 +142,48 @@ public class NoDuesCertificateServiceImpl implements NoDuesCertificateService {
     }
 
     @Override
+    @Transactional(readOnly = true)
     public List<NoDuesCertificateDto> getCertificatesByStatus(NoDuesCertificate.CertificateStatus status) {
         return certificateRepository.findByStatus(status).stream()
                 .map(NoDuesCertificateDto::fromEntity)
                 .collect(Collectors.toList());
     }
 
+    // Signing sets ALLSGND as the last department signs, so listing only reads
     @Override
+    @Transactional(readOnly = true)
     public List<NoDuesCertificateDto> getPendingPrincipalSignatures() {
-        return certificateRepository.findByPrincipalSigned(false).stream()
-                .filter(certificate -> {
-                    boolean allSigned = certificate.getDepartmentSignatures().stream()
-                            .allMatch(s -> s.getStatus() == DepartmentSignature.SignatureStatus.SIGNED);
-                    if (allSigned && certificate.getStatus() != NoDuesCertificate.CertificateStatus.ALLSGND && !certificate.getPrincipalSigned()) {
-                        certificate.setStatus(NoDuesCertificate.CertificateStatus.ALLSGND);
-                        certificate.setUpdatedAt(LocalDateTime.now());
-                        certificateRepository.save(certificate);
-                    }
-                    return allSigned;
-                })
+        return certificateRepository.findByPrincipalSignedAndStatus(false, NoDuesCertificate.CertificateStatus.ALLSGND).stream()
                 .map(NoDuesCertificateDto::fromEntity)
                 .collect(Collectors.toList());
     }
 
+    // Signing and status changes re-read and retry when they lose a race on a @Version check,
+    // so concurrent signers of one certificate all land instead of overwriting each other
     @Override
-    @Transactional
     public DepartmentSignatureDto signByDepartment(Long certificateId, String department, Long signedById, String comments, Boolean useESign) {
+        return concurrencyRetry.inTransaction(() -> trySignByDepartment(certificateId, department, signedById, comments, useESign));
+    }
+
+    @Override
+    public NoDuesCertificateDto signByPrincipal(Long certificateId, Long principalId, Boolean useESign) {
+        return concurrencyRetry.inTransaction(() -> trySignByPrincipal(certificateId, principalId, useESign));
+    }
+
+    @Override
+    public NoDuesCertificateDto updateCertificateStatus(Long id, String requested) {
+        return concurrencyRetry.inTransaction(() -> tryUpdateCertificateStatus(id, requested));
+    }
+
+    private DepartmentSignatureDto trySignByDepartment(Long certificateId, String department, Long signedById, String comments, Boolean useESign) {
         NoDuesCertificate certificate = certificateRepository.findById(certificateId)
                 .orElseThrow(() -> new RuntimeException("Certificate not found"));
 
         User signer = userRepository.findById(signedById)
                 .orElseThrow(() -> new RuntimeException("Signer not found"));
 
-        DepartmentSignature signature = certificate.getDepartmentSignatures().stream()
-                .filter(s -> s.getDepartment().equals(department))
-                .findFirst()
+        DepartmentSignature signature = signatureRepository.findByCertificateIdAndDepartment(certificateId, department)
+                .stream().findFirst()
                 .orElseThrow(() -> new RuntimeException("Signature not found for this department"));
 
         if (signature.getStatus() != DepartmentSignature.SignatureStatus.PENDING) {
@@ -179,10 +196,10 @@ public class NoDuesCertificateServiceImpl implements NoDuesCertificateService {
         signature.setComments(comments);
 
         if (Boolean.TRUE.equals(useESign)) {
-            byte[] eSignatureBytes = signer.getESignature();
-            if (eSignatureBytes != null) {
-                // Convert byte[] to Base64 String
-                signature.setESignature(eSignatureBytes); // Assuming setESignature accepts String
+            // Link to the signer's stored signature rather than copying the image
+            String eSignatureHash = signer.getESignatureHash();
+            if (eSignatureHash != null) {
+                signature.setESignatureHash(eSignatureHash);
             } else {
                 throw new RuntimeException("No eSignature found for user with ID: " + signedById);
             }
@@ -190,34 +207,21 @@ public class NoDuesCertificateServiceImpl implements NoDuesCertificateService {
 
         DepartmentSignature updatedSignature = signatureRepository.save(signature);
 
-        long signedCount = certificate.getDepartmentSignatures().stream()
-                .filter(s -> s.getStatus() == DepartmentSignature.SignatureStatus.SIGNED)
-                .count();
-        long totalCount = certificate.getDepartmentSignatures().size();
-
-        if (signedCount == totalCount && !certificate.getPrincipalSigned()) {
-            certificate.setStatus(NoDuesCertificate.CertificateStatus.ALLSGND);
-        } else if (signedCount > 0 && signedCount < totalCount) {
-            certificate.setStatus(NoDuesCertificate.CertificateStatus.PARTIAL);
-        } else if (signedCount == 0) {
-            certificate.setStatus(NoDuesCertificate.CertificateStatus.PENDING);
-        }
-        certificate.setUpdatedAt(LocalDateTime.now());
+        recordSignature(certificate, department);
         certificateRepository.save(certificate);
+        eventPublisher.publishEvent(certificateSigned(certificate, department, updatedSignature.getSignedAt()));
 
         return DepartmentSignatureDto.fromEntity(updatedSignature);
     }
 
-    @Override
-    @Transactional
-    public NoDuesCertificateDto signByPrincipal(Long certificateId, Long principalId, Boolean useESign) {
+    private NoDuesCertificateDto trySignByPrincipal(Long certificateId, Long principalId, Boolean useESign) {
         NoDuesCertificate certificate = certificateRepository.findById(certificateId)
                 .orElseThrow(() -> new RuntimeException("Certificate not found"));
 
         User principal = userRepository.findById(principalId)
                 .orElseThrow(() -> new RuntimeException("Principal not found"));
 
-        if (!isCertificateComplete(certificateId)) {
+        if (!certificate.isAllSigned()) {
             throw new RuntimeException("Not all departments have signed the certificate");
         }
 
@@ -229,18 +233,46 @@ public class NoDuesCertificateServiceImpl implements NoDuesCertificateService {
         certificate.setUpdatedAt(LocalDateTime.now());
 
         if (Boolean.TRUE.equals(useESign)) {
-            byte[] eSignatureBytes = principal.getESignature();
-            if (eSignatureBytes != null) {
-                certificate.setPrincipalESignature(eSignatureBytes); // Assuming setPrincipalESignature accepts String
+            String eSignatureHash = principal.getESignatureHash();
+            if (eSignatureHash != null) {
+                certificate.setPrincipalESignatureHash(eSignatureHash);
             } else {
                 throw new RuntimeException("No eSignature found for principal with ID: " + principalId);
             }
         }
 
         NoDuesCertificate updatedCertificate = certificateRepository.save(certificate);
+        eventPublisher.publishEvent(certificateSigned(updatedCertificate, null, updatedCertificate.getPrincipalSignedAt()));
         return NoDuesCertificateDto.fromEntity(updatedCertificate);
     }
 
+    // Counts the signature and derives the status from the counter: ALLSGND once every required
+    // department has signed (until the principal signs), PARTIAL after the first, PENDING before
+    private static void recordSignature(NoDuesCertificate certificate, String department) {
+        certificate.recordSignature(department);
+        if (certificate.getStatus() == NoDuesCertificate.CertificateStatus.REJECTED) {
+            return;
+        }
+        if (certificate.isAllSigned()) {
+            if (!certificate.getPrincipalSigned()) {
+                certificate.setStatus(NoDuesCertificate.CertificateStatus.ALLSGND);
+            }
+        } else if (certificate.getSignedCount() > 0) {
+            certificate.setStatus(NoDuesCertificate.CertificateStatus.PARTIAL);
+        } else {
+            certificate.setStatus(NoDuesCertificate.CertificateStatus.PENDING);
+        }
+        certificate.setUpdatedAt(LocalDateTime.now());
+    }
+
+    private static CertificateSignedEvent certificateSigned(NoDuesCertificate certificate, String signingDepartment,
+                                                            LocalDateTime signedAt) {
+        User student = certificate.getStudent();
+        return new CertificateSignedEvent(certificate.getId(), student.getId(),
+                student.getFirstName() + " " + student.getLastName(), student.getDepartment(),
+                signingDepartment, signedAt);
+    }
+
     @Override
     @Transactional
     public void requestDepartmentSignature(Long certificateId, String department, Long hodId) throws Exception {
@@ -266,33 +298,12 @@ public class NoDuesCertificateServiceImpl implements NoDuesCertificateService {
         User deptAdmin = userRepository.findByDepartmentAndRoles_Name(department, Role.ERole.ROLE_DEPARTMENT_ADMIN)
                 .orElseThrow(() -> new EntityNotFoundException("No admin found for department: " + department));
 
-        try {
-            SimpleMailMessage message = getSimpleMailMessage(deptAdmin, hod, certificate);
-            mailSender.send(message);
-            logger.info("Signature request sent to {} for certificate {}", department, certificateId);
-        } catch (MailException e) {
-            logger.error("Failed to send signature request email: {}", e.getMessage());
-        }
-
-    }
-
-    @Async
-    private static SimpleMailMessage getSimpleMailMessage(User deptAdmin, User hod, NoDuesCertificate certificate) {
-        SimpleMailMessage message = new SimpleMailMessage();
-        message.setTo(deptAdmin.getEmail());
-        message.setSubject("Signature Request for No Dues Certificate");
-        message.setText("Dear " + deptAdmin.getFirstName() + " " + deptAdmin.getLastName() + ",\n\n" +
-                "The HOD (" + hod.getFirstName()+" "+hod.getLastName() + ") has requested your signature for No Dues Certificate " +
-                certificate.getCertificateNumber() + " for student " + certificate.getStudent().getFirstName() + " "
-                + certificate.getStudent().getLastName() +
-                ". Please review and sign at your earliest convenience. \nYou can find the approval certificates on the 'Certificates' tab.\n\n" +
-
-                "Best regards,\n" +
-                "HOD\n" + hod.getFirstName() + " " + hod.getLastName());
-        return message;
+        emailService.enqueue(EmailMessage.SignatureRequest.of(deptAdmin, hod, certificate));
+        logger.info("Signature request queued for {} for certificate {}", department, certificateId);
     }
 
     @Override
+    @Transactional(readOnly = true)
     public List<DepartmentSignatureDto> getPendingSignaturesByDepartment(String department) {
         return signatureRepository.findByDepartmentAndStatus(department, DepartmentSignature.SignatureStatus.PENDING)
                 .stream()
@@ -301,6 +312,7 @@ public class NoDuesCertificateServiceImpl implements NoDuesCertificateService {
     }
 
     @Override
+    @Transactional(readOnly = true)
     public List<DepartmentSignatureDto> getSignaturesByStudent(String studentId) {
         User student = userRepository.findByUsername(studentId)
                 .orElseThrow(() -> new RuntimeException("Student not found"));
@@ -311,33 +323,28 @@ public class NoDuesCertificateServiceImpl implements NoDuesCertificateService {
 
     @Override
     public boolean isStudentEligibleForCertificate(String studentId) {
-        return dueService.hasStudentClearedAllDues(studentId);
+        return eligibilityService.check(studentId).clearedDues();
     }
 
     @Override
+    @Transactional(readOnly = true)
     public boolean isCertificateComplete(Long certificateId) {
-        NoDuesCertificate certificate = certificateRepository.findById(certificateId)
+        int signedMask = certificateRepository.findSignedMaskById(certificateId)
                 .orElseThrow(() -> new RuntimeException("Certificate not found"));
-        boolean allSigned = certificate.getDepartmentSignatures().stream()
-                .allMatch(s -> s.getStatus() == DepartmentSignature.SignatureStatus.SIGNED);
-        if (allSigned && certificate.getStatus() != NoDuesCertificate.CertificateStatus.ALLSGND && !certificate.getPrincipalSigned()) {
-            certificate.setStatus(NoDuesCertificate.CertificateStatus.ALLSGND);
-            certificate.setUpdatedAt(LocalDateTime.now());
-            certificateRepository.save(certificate);
-        }
-        return allSigned;
+        return signedMask == NoDuesCertificate.ALL_SIGNED_MASK;
     }
 
     @Override
+    @Transactional(readOnly = true)
     public boolean hasStudentPendingDuesInDepartment(String studentId, String department) {
         User student = userRepository.findByUsername(studentId)
                 .orElseThrow(() -> new RuntimeException("Student not found"));
-        return dueService.hasStudentPendingDuesInDepartment(student.getId(), department);
+        return eligibilityService.hasOpenDues(student.getId(), department);
     }
 
     @Override
     public boolean hasStudentPendingDuesInDepartmentById(Long studentId, String department) {
-        return dueService.hasStudentPendingDuesInDepartment(studentId, department);
+        return eligibilityService.hasOpenDues(studentId, department);
     }
 
     @Override
@@ -348,7 +355,7 @@ public class NoDuesCertificateServiceImpl implements NoDuesCertificateService {
         User signer = userRepository.findById(signedById)
                 .orElseThrow(() -> new RuntimeException("Signer not found"));
 
-        if (hasStudentPendingDuesInDepartment(studentId, department)) {
+        if (eligibilityService.hasOpenDues(student.getId(), department)) {
             throw new RuntimeException("Student has pending dues in " + department);
         }
 
@@ -362,6 +369,10 @@ public class NoDuesCertificateServiceImpl implements NoDuesCertificateService {
         signature.setComments("No dues in " + department);
 
         DepartmentSignature savedSignature = signatureRepository.save(signature);
+        if (savedSignature.getCertificate() != null) {
+            recordSignature(savedSignature.getCertificate(), department);
+            certificateRepository.save(savedSignature.getCertificate());
+        }
         return DepartmentSignatureDto.fromEntity(savedSignature);
     }
 
@@ -387,101 +398,82 @@ public class NoDuesCertificateServiceImpl implements NoDuesCertificateService {
         signature.setComments("No dues in " + department);
 
         DepartmentSignature savedSignature = signatureRepository.save(signature);
+        if (savedSignature.getCertificate() != null) {
+            recordSignature(savedSignature.getCertificate(), department);
+            certificateRepository.save(savedSignature.getCertificate());
+        }
         return DepartmentSignatureDto.fromEntity(savedSignature);
     }
 
     @Override
-    public List<NoDuesCertificateDto> getStudentsWithClearedDues() {
-        List<User> students = userRepository.findAll().stream()
-                .filter(user -> user.getRoles().stream().anyMatch(role -> role.getName().equals("ROLE_STUDENT")))
-                .collect(Collectors.toList());
+    @Transactional(readOnly = true)
+    public PageResponse<NoDuesCertificateDto> getStudentsWithClearedDues(Pageable pageable, Long cursor) {
+        return getClearedStudents(null, pageable, cursor);
+    }
 
-        List<User> studentsWithClearedDues = students.stream()
-                .filter(student -> dueService.hasStudentClearedAllDues(student.getUsername()))
-                .collect(Collectors.toList());
+    @Override
+    @Transactional(readOnly = true)
+    public PageResponse<NoDuesCertificateDto> getStudentsWithClearedDuesByDepartment(String department, Pageable pageable, Long cursor) {
+        return getClearedStudents(department, pageable, cursor);
+    }
 
-        List<NoDuesCertificateDto> result = new ArrayList<>();
-        for (User student : studentsWithClearedDues) {
-            List<NoDuesCertificate> certificates = certificateRepository.findByStudent(student);
-            if (!certificates.isEmpty()) {
-                result.addAll(certificates.stream().map(NoDuesCertificateDto::fromEntity).collect(Collectors.toList()));
-            } else {
-                NoDuesCertificateDto dto = new NoDuesCertificateDto();
-                dto.setStudentId(student.getId().toString());
-                dto.setStudentName(student.getFirstName() + " " + student.getLastName());
-                dto.setStatus("ELIGIBLE");
-                result.add(dto);
-            }
-        }
-        return result;
+    private PageResponse<NoDuesCertificateDto> getClearedStudents(String department, Pageable pageable, Long cursor) {
+        return cursor == null
+                ? PageResponse.ofPage(userRepository.findClearedStudents(department, pageable),
+                        this::toClearedStudentDto, row -> row.student().getId())
+                : PageResponse.ofKeyset(userRepository.findClearedStudentsBefore(department, cursor, PageRequests.keyset(pageable)),
+                        this::toClearedStudentDto, row -> row.student().getId());
     }
 
-    @Override
-    public List<NoDuesCertificateDto> getStudentsWithClearedDuesByDepartment(String department) {
-        List<User> students = userRepository.findAll().stream()
-                .filter(user -> user.getRoles().stream().anyMatch(role -> role.getName().equals("ROLE_STUDENT")))
-                .filter(user -> department.equals(user.getDepartment()))
-                .toList();
-
-        List<User> studentsWithClearedDues = students.stream()
-                .filter(student -> dueService.hasStudentClearedAllDues(student.getUsername()))
-                .toList();
-
-        List<NoDuesCertificateDto> result = new ArrayList<>();
-        for (User student : studentsWithClearedDues) {
-            List<NoDuesCertificate> certificates = certificateRepository.findByStudent(student);
-            if (!certificates.isEmpty()) {
-                result.addAll(certificates.stream().map(NoDuesCertificateDto::fromEntity).collect(Collectors.toList()));
-            } else {
-                NoDuesCertificateDto dto = new NoDuesCertificateDto();
-                dto.setStudentId(student.getId().toString());
-                dto.setStudentName(student.getFirstName() + " " + student.getLastName());
-                dto.setStatus("ELIGIBLE");
-                result.add(dto);
-            }
+    private NoDuesCertificateDto toClearedStudentDto(ClearedStudentRow row) {
+        if (row.latestCertificate() != null) {
+            return NoDuesCertificateDto.fromEntity(row.latestCertificate());
         }
-        return result;
+        User student = row.student();
+        NoDuesCertificateDto dto = new NoDuesCertificateDto();
+        dto.setStudentId(student.getId().toString());
+        dto.setStudentName(student.getFirstName() + " " + student.getLastName());
+        dto.setStatus("ELIGIBLE");
+        return dto;
     }
 
     @Override
-    public List<NoDuesCertificateDto> getAllCertificates() {
+    @Transactional(readOnly = true)
+    public PageResponse<NoDuesCertificateDto> getAllCertificates(Pageable pageable, Long cursor) {
         UserDetailsImpl userDetails = (UserDetailsImpl) SecurityContextHolder.getContext().getAuthentication().getPrincipal();
         if (userDetails == null) {
             throw new RuntimeException("Not authenticated");
         }
+        Pageable keyset = PageRequests.keyset(pageable);
         if (userDetails.getAuthorities().stream().anyMatch(a -> a.getAuthority().equals("ROLE_ADMIN"))) {
-            return certificateRepository.findAll().stream()
-                    .map(NoDuesCertificateDto::fromEntity)
-                    .collect(Collectors.toList());
+            return cursor == null
+                    ? PageResponse.ofPage(certificateRepository.findAll(pageable), NoDuesCertificateDto::fromEntity, NoDuesCertificate::getId)
+                    : PageResponse.ofKeyset(certificateRepository.findByIdLessThan(cursor, keyset), NoDuesCertificateDto::fromEntity, NoDuesCertificate::getId);
         } else if (userDetails.getAuthorities().stream().anyMatch(a -> a.getAuthority().equals("ROLE_HOD") || a.getAuthority().equals("ROLE_PRINCIPAL"))) {
-            return certificateRepository.findByStudentDepartment(userDetails.getDepartment()).stream()
-                    .map(NoDuesCertificateDto::fromEntity)
-                    .collect(Collectors.toList());
+            String department = userDetails.getDepartment();
+            return cursor == null
+                    ? PageResponse.ofPage(certificateRepository.findByStudentDepartment(department, pageable), NoDuesCertificateDto::fromEntity, NoDuesCertificate::getId)
+                    : PageResponse.ofKeyset(certificateRepository.findByStudentDepartmentAndIdLessThan(department, cursor, keyset), NoDuesCertificateDto::fromEntity, NoDuesCertificate::getId);
         }
 
         else if (userDetails.getAuthorities().stream().anyMatch(a -> a.getAuthority().equals("ROLE_DEPARTMENT_ADMIN"))) {
-            return certificateRepository.findAll().stream()
-                    .filter(certificate -> certificate.getDepartmentSignatures().stream()
-                            .anyMatch(signature -> signature.getDepartment().equals(userDetails.getDepartment())
-                                    && (signature.getStatus() == DepartmentSignature.SignatureStatus.PENDING)))
-                    .map(NoDuesCertificateDto::fromEntity)
-                    .collect(Collectors.toList());
+            // Certificates still waiting on this department's signature
+            String department = userDetails.getDepartment();
+            return cursor == null
+                    ? PageResponse.ofPage(certificateRepository.findPendingForDepartment(department, pageable), NoDuesCertificateDto::fromEntity, NoDuesCertificate::getId)
+                    : PageResponse.ofKeyset(certificateRepository.findPendingForDepartmentBefore(department, cursor, keyset), NoDuesCertificateDto::fromEntity, NoDuesCertificate::getId);
         }
 
         else if (userDetails.getAuthorities().stream().anyMatch(a -> a.getAuthority().equals("ROLE_STUDENT"))) {
-            User student = userRepository.findById(userDetails.getId())
-
-                    .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Student not found"));
-            return certificateRepository.findByStudent(student).stream()
-                    .map(NoDuesCertificateDto::fromEntity)
-                    .collect(Collectors.toList());
+            return cursor == null
+                    ? PageResponse.ofPage(certificateRepository.findByStudentId(userDetails.getId(), pageable), NoDuesCertificateDto::fromEntity, NoDuesCertificate::getId)
+                    : PageResponse.ofKeyset(certificateRepository.findByStudentIdAndIdLessThan(userDetails.getId(), cursor, keyset), NoDuesCertificateDto::fromEntity, NoDuesCertificate::getId);
         } else {
             throw new RuntimeException("Unauthorized: Insufficient permissions");
         }
     }
 
-    @Override
-    public NoDuesCertificateDto updateCertificateStatus(Long id, String requested) {
+    private NoDuesCertificateDto tryUpdateCertificateStatus(Long id, String requested) {
         if (id == null || requested == null || requested.trim().isEmpty()) {
             throw new IllegalArgumentException("Certificate ID and status are required");
         }
@@ -507,9 +499,7 @@ public class NoDuesCertificateServiceImpl implements NoDuesCertificateService {
             if (certificate.getStatus() != NoDuesCertificate.CertificateStatus.ALLSGND) {
                 throw new IllegalStateException("Cannot transition to COMP: All departments must sign first");
             }
-            boolean allDepartmentsSigned = certificate.getDepartmentSignatures().stream()
-                    .allMatch(s -> s.getStatus() == DepartmentSignature.SignatureStatus.SIGNED);
-            if (!allDepartmentsSigned) {
+            if (!certificate.isAllSigned()) {
                 throw new IllegalStateException("Cannot transition to COMP: Not all departments have signed");
             }
         }
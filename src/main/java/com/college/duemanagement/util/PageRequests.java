@@ -0,0 +1,43 @@
+package com.college.duemanagement.util;
+
+import com.college.duemanagement.exception.BadRequestException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+
+import java.util.List;
+
+/**
+ * Helpers for list endpoints that support both page/size/sort and keyset cursors.
+ * A keyset request ({@code ?cursor=<id>}) always walks ids newest first and never counts.
+ */
+public final class PageRequests {
+
+    public static final Sort KEYSET_SORT = Sort.by(Sort.Direction.DESC, "id");
+
+    private PageRequests() {
+    }
+
+    /**
+     * Returns {@code pageable} if it sorts only by the {@code sortable} properties. Anything else
+     * is a bad request: an unknown property would fail the query, and a known one like the
+     * password hash must not be probed through the order of the results.
+     */
+    public static Pageable sortableBy(Pageable pageable, String... sortable) {
+        List<String> allowed = List.of(sortable);
+        for (Sort.Order order : pageable.getSort()) {
+            if (!allowed.contains(order.getProperty())) {
+                throw new BadRequestException("Cannot sort by '" + order.getProperty() + "', use one of " + allowed);
+            }
+        }
+        return pageable;
+    }
+
+    public static Pageable keyset(Pageable pageable) {
+        return PageRequest.of(0, pageable.getPageSize(), KEYSET_SORT);
+    }
+
+    public static boolean isKeysetOrder(Sort sort) {
+        return KEYSET_SORT.equals(sort);
+    }
+}
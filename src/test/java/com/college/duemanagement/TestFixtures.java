@@ -0,0 +1,44 @@
+package com.college.duemanagement;
+
+import com.college.duemanagement.entity.Role;
+import com.college.duemanagement.entity.Student;
+import com.college.duemanagement.entity.User;
+
+import java.util.Set;
+
+/**
+ * Unsaved users and students with every required column filled, for tests to persist
+ * however suits them.
+ */
+public final class TestFixtures {
+
+    private TestFixtures() {
+    }
+
+    public static User user(String username, Role role) {
+        User user = new User();
+        user.setUsername(username);
+        user.setEmail(username + "@example.com");
+        user.setPassword("secret");
+        user.setFirstName("First " + username);
+        user.setLastName("Last " + username);
+        user.setDepartment("CSE");
+        user.setRoles(Set.of(role));
+        return user;
+    }
+
+    public static Student student(User user, String rollNumber) {
+        Student student = new Student();
+        student.setUser(user);
+        student.setRollNumber(rollNumber);
+        student.setSemester(1);
+        student.setBatch("2024");
+        student.setCourse("B.Tech");
+        student.setSection("A");
+        student.setFatherName("Father");
+        student.setMotherName("Mother");
+        student.setContactNumber("0000000000");
+        student.setAddress("Campus");
+        return student;
+    }
+}
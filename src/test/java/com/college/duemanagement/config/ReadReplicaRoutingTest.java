@@ -0,0 +1,222 @@
+package com.college.duemanagement.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.autoconfigure.AutoConfigurations;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceAutoConfiguration;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernateJpaAutoConfiguration;
+import org.springframework.boot.test.context.runner.ApplicationContextRunner;
+import org.springframework.context.ApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.orm.jpa.EntityManagerFactoryUtils;
+import org.springframework.orm.jpa.EntityManagerHolder;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+import java.sql.Statement;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Read-only transactions against two in-memory H2 databases standing in for the primary and
+ * a replica. Each database records its own name, so a query shows which one served it.
+ */
+class ReadReplicaRoutingTest {
+
+    private static final String PRIMARY_URL = "jdbc:h2:mem:routing-primary;DB_CLOSE_DELAY=-1";
+    private static final String REPLICA_URL = "jdbc:h2:mem:routing-replica;DB_CLOSE_DELAY=-1";
+
+    private final ApplicationContextRunner contextRunner = new ApplicationContextRunner()
+            .withConfiguration(AutoConfigurations.of(DataSourceAutoConfiguration.class))
+            .withUserConfiguration(DataSourceConfig.class)
+            .withBean(MeterRegistry.class, SimpleMeterRegistry::new)
+            .withPropertyValues(
+                    "spring.datasource.url=" + PRIMARY_URL,
+                    "spring.datasource.username=sa",
+                    "spring.datasource.password=",
+                    "replicas.pools[0].name=a",
+                    "replicas.pools[0].connection-timeout-ms=250",
+                    "replicas.lag-query=SELECT lag_seconds FROM replica_status");
+
+    @BeforeEach
+    void createDatabases() throws SQLException {
+        execute(PRIMARY_URL, "CREATE TABLE IF NOT EXISTS whoami (name VARCHAR(20))",
+                "DELETE FROM whoami", "INSERT INTO whoami VALUES ('primary')");
+        execute(REPLICA_URL, "CREATE TABLE IF NOT EXISTS whoami (name VARCHAR(20))",
+                "DELETE FROM whoami", "INSERT INTO whoami VALUES ('replica')",
+                "CREATE TABLE IF NOT EXISTS replica_status (lag_seconds INT)",
+                "DELETE FROM replica_status", "INSERT INTO replica_status VALUES (0)");
+    }
+
+    @Test
+    void replicaTakesReadsOnlyOnceAChecksPassed() {
+        contextRunner.withPropertyValues("replicas.pools[0].url=" + REPLICA_URL).run(context -> {
+            // Startup does not wait on the replica; the scheduler checks it once the context is up
+            assertEquals("primary", whoami(context, true));
+
+            context.getBean(ReplicaRoutingDataSource.class).checkReplicas();
+            assertEquals("replica", whoami(context, true));
+        });
+    }
+
+    @Test
+    void readOnlyTransactionsGoToTheReplica() {
+        contextRunner.withPropertyValues("replicas.pools[0].url=" + REPLICA_URL).run(context -> {
+            context.getBean(ReplicaRoutingDataSource.class).checkReplicas();
+            assertEquals("replica", whoami(context, true));
+            assertEquals("primary", whoami(context, false));
+            assertEquals("primary", new JdbcTemplate(context.getBean(DataSource.class))
+                    .queryForObject("SELECT name FROM whoami", String.class));
+        });
+    }
+
+    @Test
+    void jpaTransactionsPickTheirConnectionPerTransaction() {
+        contextRunner.withConfiguration(AutoConfigurations.of(HibernateJpaAutoConfiguration.class))
+                .withPropertyValues("replicas.pools[0].url=" + REPLICA_URL).run(context -> {
+                    context.getBean(ReplicaRoutingDataSource.class).checkReplicas();
+                    assertEquals("replica", jpaWhoami(context, true));
+                    assertEquals("primary", jpaWhoami(context, false));
+
+                    // Open-in-view keeps one EntityManager for the whole request; a read-only
+                    // transaction's replica connection must not carry the writes that follow it
+                    EntityManagerFactory entityManagerFactory = context.getBean(EntityManagerFactory.class);
+                    EntityManager entityManager = entityManagerFactory.createEntityManager();
+                    TransactionSynchronizationManager.bindResource(entityManagerFactory, new EntityManagerHolder(entityManager));
+                    try {
+                        assertEquals("replica", jpaWhoami(context, true));
+                        assertEquals("primary", jpaWhoami(context, false));
+                    } finally {
+                        TransactionSynchronizationManager.unbindResource(entityManagerFactory);
+                        entityManager.close();
+                    }
+                });
+    }
+
+    @Test
+    void explicitCredentialsDoNotTakeTheReplicaOutOfRotation() {
+        contextRunner.withPropertyValues("replicas.pools[0].url=" + REPLICA_URL).run(context -> {
+            ReplicaRoutingDataSource routing = context.getBean(ReplicaRoutingDataSource.class);
+            routing.checkReplicas();
+            TransactionTemplate transactionTemplate =
+                    new TransactionTemplate(new DataSourceTransactionManager(context.getBean(DataSource.class)));
+            transactionTemplate.setReadOnly(true);
+
+            // Hikari has no per-call credentials, so the replica's refusal is passed on as is
+            transactionTemplate.executeWithoutResult(status -> assertThrows(SQLFeatureNotSupportedException.class,
+                    () -> routing.getConnection("sa", "")));
+            assertEquals("replica", whoami(context, true));
+            assertEquals(1, context.getBean(MeterRegistry.class)
+                    .get("datasource.replica.available").tag("pool", "replica-a").gauge().value());
+        });
+    }
+
+    @Test
+    void laggingReplicaIsSkippedUntilItCatchesUp() {
+        contextRunner.withPropertyValues("replicas.pools[0].url=" + REPLICA_URL, "replicas.max-lag-ms=5000").run(context -> {
+            ReplicaRoutingDataSource routing = context.getBean(ReplicaRoutingDataSource.class);
+            MeterRegistry meterRegistry = context.getBean(MeterRegistry.class);
+
+            execute(REPLICA_URL, "UPDATE replica_status SET lag_seconds = 60");
+            routing.checkReplicas();
+            assertEquals("primary", whoami(context, true));
+            assertEquals(0, meterRegistry.get("datasource.replica.available").tag("pool", "replica-a").gauge().value());
+            assertEquals(60, meterRegistry.get("datasource.replica.lag").tag("pool", "replica-a").gauge().value());
+            assertEquals(1, meterRegistry.get("datasource.replica.fallback").counter().count());
+
+            execute(REPLICA_URL, "UPDATE replica_status SET lag_seconds = 1");
+            routing.checkReplicas();
+            assertEquals("replica", whoami(context, true));
+            assertEquals(1, meterRegistry.get("datasource.replica.available").tag("pool", "replica-a").gauge().value());
+        });
+    }
+
+    @Test
+    void busyPoolDoesNotTakeTheReplicaOutOfRotation() {
+        contextRunner.withPropertyValues("replicas.pools[0].url=" + REPLICA_URL, "replicas.pools[0].maximum-pool-size=1")
+                .run(context -> {
+                    ReplicaRoutingDataSource routing = context.getBean(ReplicaRoutingDataSource.class);
+                    MeterRegistry meterRegistry = context.getBean(MeterRegistry.class);
+                    routing.checkReplicas();
+                    DataSource dataSource = context.getBean(DataSource.class);
+                    TransactionTemplate transactionTemplate =
+                            new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+                    transactionTemplate.setReadOnly(true);
+
+                    // The pool's only connection is taken, so the check and the next read time out
+                    String servedBy = transactionTemplate.execute(status -> {
+                        try (Connection held = routing.getConnection()) {
+                            routing.checkReplicas();
+                            return new JdbcTemplate(dataSource).queryForObject("SELECT name FROM whoami", String.class);
+                        } catch (SQLException e) {
+                            throw new IllegalStateException(e);
+                        }
+                    });
+
+                    assertEquals("primary", servedBy);
+
+                    assertEquals(1, meterRegistry.get("datasource.replica.available").tag("pool", "replica-a").gauge().value());
+                    assertEquals("replica", whoami(context, true));
+                });
+    }
+
+    @Test
+    void unreachableReplicaFallsBackToThePrimary() {
+        contextRunner.withPropertyValues("replicas.pools[0].url=jdbc:h2:mem:routing-missing;IFEXISTS=TRUE").run(context -> {
+            assertThat(context).hasNotFailed();
+            context.getBean(ReplicaRoutingDataSource.class).checkReplicas();
+            assertEquals("primary", whoami(context, true));
+            assertEquals(0, context.getBean(MeterRegistry.class)
+                    .get("datasource.replica.available").tag("pool", "replica-a").gauge().value());
+        });
+    }
+
+    @Test
+    void withoutReplicasBootsSinglePoolIsUsed() {
+        contextRunner.run(context -> {
+            assertThat(context).doesNotHaveBean(ReplicaRoutingDataSource.class);
+            assertThat(context.getBean(DataSource.class)).isInstanceOf(HikariDataSource.class);
+        });
+    }
+
+    private static String whoami(ApplicationContext context, boolean readOnly) {
+        TransactionTemplate transactionTemplate =
+                new TransactionTemplate(new DataSourceTransactionManager(context.getBean(DataSource.class)));
+        transactionTemplate.setReadOnly(readOnly);
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(context.getBean(DataSource.class));
+        return transactionTemplate.execute(status -> jdbcTemplate.queryForObject("SELECT name FROM whoami", String.class));
+    }
+
+    private static String jpaWhoami(ApplicationContext context, boolean readOnly) {
+        TransactionTemplate transactionTemplate = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+        transactionTemplate.setReadOnly(readOnly);
+        EntityManagerFactory entityManagerFactory = context.getBean(EntityManagerFactory.class);
+        return transactionTemplate.execute(status -> (String) EntityManagerFactoryUtils
+                .getTransactionalEntityManager(entityManagerFactory)
+                .createNativeQuery("SELECT name FROM whoami")
+                .getSingleResult());
+    }
+
+    private static void execute(String url, String... statements) throws SQLException {
+        try (Connection connection = DriverManager.getConnection(url, "sa", "");
+             Statement statement = connection.createStatement()) {
+            for (String sql : statements) {
+                statement.execute(sql);
+            }
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package com.college.duemanagement.controller;
+
+import com.college.duemanagement.enums.ExportFormat;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * A finished export is a complete gzip stream; one that fails part way must not look finished.
+ */
+class ExportResponsesTest {
+
+    @Test
+    void finishedExportIsACompleteGzipStream() throws IOException {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        ByteArrayOutputStream body = new ByteArrayOutputStream();
+
+        ExportResponses.write(response, body, "gzip, deflate", "dues", ExportFormat.CSV,
+                out -> out.write("id\r\n1\r\n".getBytes(StandardCharsets.UTF_8)));
+
+        assertEquals("gzip", response.getHeader(HttpHeaders.CONTENT_ENCODING));
+        assertEquals("text/csv;charset=UTF-8", response.getContentType());
+        assertEquals("id\r\n1\r\n", new String(gunzip(body.toByteArray()), StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void failedExportLeavesTheGzipStreamUnfinished() throws IOException {
+        ByteArrayOutputStream body = new ByteArrayOutputStream();
+
+        IOException failure = assertThrows(IOException.class, () ->
+                ExportResponses.write(new MockHttpServletResponse(), body, "gzip", "dues", ExportFormat.CSV, out -> {
+                    out.write("id\r\n1\r\n".getBytes(StandardCharsets.UTF_8));
+                    out.flush();
+                    throw new IOException("database went away");
+                }));
+
+        assertEquals("database went away", failure.getMessage());
+        assertThrows(EOFException.class, () -> gunzip(body.toByteArray()));
+    }
+
+    private static byte[] gunzip(byte[] bytes) throws IOException {
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(bytes))) {
+            return in.readAllBytes();
+        }
+    }
+}
@@ -0,0 +1,113 @@
+package com.college.duemanagement.controller;
+
+import com.college.duemanagement.TestFixtures;
+import com.college.duemanagement.entity.Due;
+import com.college.duemanagement.entity.NoDuesCertificate;
+import com.college.duemanagement.entity.Role;
+import com.college.duemanagement.entity.User;
+import com.college.duemanagement.repository.RoleRepository;
+import com.college.duemanagement.security.services.UserDetailsImpl;
+import com.college.duemanagement.service.NoDuesCertificateService;
+import com.jayway.jsonpath.JsonPath;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultActions;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * A student's certificate request: refused while dues are open, answered with the active
+ * certificate if there is one, and free to start over once the last one was rejected.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@Transactional
+class NoDuesCertificateControllerTest {
+
+    private static final String ROLL_NUMBER = "RQ-1";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private RoleRepository roleRepository;
+
+    @Autowired
+    private NoDuesCertificateService certificateService;
+
+    private User student;
+
+    @BeforeEach
+    void createStudent() {
+        student = TestFixtures.user("request-student", roleRepository.findByName(Role.ERole.ROLE_STUDENT).orElseThrow());
+        entityManager.persist(student);
+        entityManager.persist(TestFixtures.student(student, ROLL_NUMBER));
+        // Reloaded from here on, with the inverse user -> student side filled in
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    void pendingDuesBlockTheRequest() throws Exception {
+        Due due = new Due();
+        due.setStudent(student);
+        due.setDepartment("LIBRARY");
+        due.setDescription("Library fine");
+        due.setAmount(BigDecimal.TEN);
+        due.setDueDate(LocalDateTime.now().plusDays(7));
+        due.setPaymentStatus(Due.PaymentStatus.PAID);
+        due.setCreatedBy(student.getId());
+        due.setCreatedAt(LocalDateTime.now());
+        entityManager.persist(due);
+
+        request()
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value("You have pending dues. Clear them before requesting a certificate."));
+    }
+
+    @Test
+    void repeatedRequestReturnsTheActiveCertificate() throws Exception {
+        long first = certificateId(request().andExpect(status().isOk()));
+        long second = certificateId(request().andExpect(status().isOk()));
+
+        assertEquals(first, second);
+    }
+
+    @Test
+    void rejectedCertificateAllowsANewRequest() throws Exception {
+        long rejected = certificateId(request().andExpect(status().isOk()));
+        certificateService.updateCertificateStatus(rejected, NoDuesCertificate.CertificateStatus.REJECTED.name());
+
+        ResultActions again = request()
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.certificate.status").value("PENDING"));
+
+        assertNotEquals(rejected, certificateId(again));
+        assertEquals("REJECTED", certificateService.getCertificate(rejected).getStatus());
+    }
+
+    private ResultActions request() throws Exception {
+        return mockMvc.perform(post("/api/certificates/request/" + ROLL_NUMBER).with(user(UserDetailsImpl.build(student))));
+    }
+
+    private static long certificateId(ResultActions result) throws Exception {
+        return ((Number) JsonPath.read(result.andReturn().getResponse().getContentAsString(), "$.certificate.id")).longValue();
+    }
+}
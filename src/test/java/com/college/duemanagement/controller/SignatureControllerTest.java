@@ -0,0 +1,98 @@
+package com.college.duemanagement.controller;
+
+import com.college.duemanagement.TestFixtures;
+import com.college.duemanagement.entity.NoDuesCertificate;
+import com.college.duemanagement.entity.Role;
+import com.college.duemanagement.entity.User;
+import com.college.duemanagement.repository.RoleRepository;
+import com.college.duemanagement.security.services.UserDetailsImpl;
+import com.college.duemanagement.service.SignatureStore;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultActions;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Signature images by hash are only served to ADMIN, HOD, the signature's owner and the
+ * student whose certificate carries it.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@Transactional
+class SignatureControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private RoleRepository roleRepository;
+
+    @Autowired
+    private SignatureStore signatureStore;
+
+    private String principalSignature;
+    private User principal;
+    private User certificateHolder;
+    private User otherStudent;
+    private User hod;
+
+    @BeforeEach
+    void createUsers() {
+        principalSignature = signatureStore.store("principal-signature".getBytes(StandardCharsets.UTF_8), "image/png");
+
+        principal = persistUser("sig-principal", Role.ERole.ROLE_PRINCIPAL);
+        principal.setESignatureHash(principalSignature);
+        certificateHolder = persistUser("sig-holder", Role.ERole.ROLE_STUDENT);
+        otherStudent = persistUser("sig-other", Role.ERole.ROLE_STUDENT);
+        hod = persistUser("sig-hod", Role.ERole.ROLE_HOD);
+
+        NoDuesCertificate certificate = new NoDuesCertificate();
+        certificate.setStudent(certificateHolder);
+        certificate.setStatus(NoDuesCertificate.CertificateStatus.COMPLETE);
+        certificate.setPrincipalESignatureHash(principalSignature);
+        certificate.setCreatedAt(LocalDateTime.now());
+        entityManager.persist(certificate);
+        entityManager.flush();
+    }
+
+    @Test
+    void ownerHodAndCertificateHolderCanReadTheSignature() throws Exception {
+        fetchAs(principal).andExpect(status().isOk());
+        fetchAs(hod).andExpect(status().isOk());
+        fetchAs(certificateHolder).andExpect(status().isOk());
+    }
+
+    @Test
+    void otherStudentsCannotReadTheSignature() throws Exception {
+        // GlobalExceptionHandler answers access denials like any other failure, with a 400
+        fetchAs(otherStudent)
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.success").value(false));
+    }
+
+    private ResultActions fetchAs(User user) throws Exception {
+        return mockMvc.perform(get("/api/signatures/" + principalSignature).with(user(UserDetailsImpl.build(user))));
+    }
+
+    private User persistUser(String username, Role.ERole roleName) {
+        User user = TestFixtures.user(username, roleRepository.findByName(roleName).orElseThrow());
+        entityManager.persist(user);
+        return user;
+    }
+}
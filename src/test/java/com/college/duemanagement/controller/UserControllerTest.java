@@ -0,0 +1,51 @@
+package com.college.duemanagement.controller;
+
+import com.college.duemanagement.security.services.UserDetailsImpl;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.List;
+
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * The user list sorts only by the properties it allows.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+class UserControllerTest {
+
+    private static final UserDetailsImpl ADMIN = new UserDetailsImpl(1L, "admin", "admin@example.com", "secret",
+            "CSE", List.of(new SimpleGrantedAuthority("ROLE_ADMIN")));
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Test
+    void sortsByAnAllowedProperty() throws Exception {
+        mockMvc.perform(get("/api/users").param("sort", "username,asc").with(user(ADMIN)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content").isArray());
+    }
+
+    @Test
+    void refusesToSortByThePasswordHash() throws Exception {
+        mockMvc.perform(get("/api/users").param("sort", "password").with(user(ADMIN)))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value("Cannot sort by 'password', use one of [id, username, firstName, lastName, department]"));
+    }
+
+    @Test
+    void refusesToSortByAnUnknownProperty() throws Exception {
+        mockMvc.perform(get("/api/users").param("sort", "nope,desc").with(user(ADMIN)))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value("Cannot sort by 'nope', use one of [id, username, firstName, lastName, department]"));
+    }
+}
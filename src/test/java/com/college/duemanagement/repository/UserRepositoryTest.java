@@ -0,0 +1,132 @@
+package com.college.duemanagement.repository;
+
+import com.college.duemanagement.TestFixtures;
+import com.college.duemanagement.dto.ClearedStudentRow;
+import com.college.duemanagement.entity.Due;
+import com.college.duemanagement.entity.NoDuesCertificate;
+import com.college.duemanagement.entity.Role;
+import com.college.duemanagement.entity.User;
+import jakarta.persistence.EntityManager;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+/**
+ * The cleared-students report: students of a department whose dues are all approved, each
+ * with their latest certificate, by page and by keyset cursor.
+ */
+@SpringBootTest
+@Transactional
+class UserRepositoryTest {
+
+    private static final String DEPARTMENT = "CLEARED-TEST";
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private RoleRepository roleRepository;
+
+    private User withCertificates;
+    private User withoutDues;
+
+    @BeforeEach
+    void createStudents() {
+        Role studentRole = roleRepository.findByName(Role.ERole.ROLE_STUDENT).orElseThrow();
+        Role adminRole = roleRepository.findByName(Role.ERole.ROLE_DEPARTMENT_ADMIN).orElseThrow();
+
+        withCertificates = persistStudent("cleared-certified", studentRole);
+        persistDue(withCertificates, Due.PaymentStatus.APPROVED);
+        persistCertificate(withCertificates, NoDuesCertificate.CertificateStatus.REJECTED);
+        persistCertificate(withCertificates, NoDuesCertificate.CertificateStatus.PENDING);
+
+        withoutDues = persistStudent("cleared-no-dues", studentRole);
+
+        User owing = persistStudent("cleared-owing", studentRole);
+        persistDue(owing, Due.PaymentStatus.APPROVED);
+        persistDue(owing, Due.PaymentStatus.PENDING);
+
+        User admin = TestFixtures.user("cleared-admin", adminRole);
+        admin.setDepartment(DEPARTMENT);
+        entityManager.persist(admin);
+
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    void findClearedStudentsPagesStudentsWithOnlyApprovedDues() {
+        Statistics statistics = entityManager.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        Page<ClearedStudentRow> page = userRepository.findClearedStudents(DEPARTMENT,
+                PageRequest.of(0, 10, Sort.by(Sort.Direction.DESC, "id")));
+        // The page with each user's student, then the page's roles in one batch
+        assertEquals(2, statistics.getPrepareStatementCount());
+
+        assertEquals(2, page.getTotalElements());
+        List<ClearedStudentRow> rows = page.getContent();
+        assertEquals(List.of(withoutDues.getId(), withCertificates.getId()),
+                rows.stream().map(row -> row.student().getId()).toList());
+        assertNull(rows.get(0).latestCertificate());
+        assertEquals(NoDuesCertificate.CertificateStatus.PENDING, rows.get(1).latestCertificate().getStatus());
+        assertEquals("R-cleared-no-dues", rows.get(0).student().getStudent().getRollNumber());
+    }
+
+    @Test
+    void findClearedStudentsBeforeContinuesFromTheCursor() {
+        Slice<ClearedStudentRow> slice = userRepository.findClearedStudentsBefore(DEPARTMENT, withoutDues.getId(),
+                PageRequest.of(0, 10, Sort.by(Sort.Direction.DESC, "id")));
+
+        assertEquals(List.of(withCertificates.getId()),
+                slice.getContent().stream().map(row -> row.student().getId()).toList());
+        assertEquals(NoDuesCertificate.CertificateStatus.PENDING, slice.getContent().get(0).latestCertificate().getStatus());
+        assertEquals("R-cleared-certified", slice.getContent().get(0).student().getStudent().getRollNumber());
+    }
+
+    private User persistStudent(String username, Role role) {
+        User user = TestFixtures.user(username, role);
+        user.setDepartment(DEPARTMENT);
+        entityManager.persist(user);
+        entityManager.persist(TestFixtures.student(user, "R-" + username));
+        return user;
+    }
+
+    private void persistDue(User student, Due.PaymentStatus status) {
+        Due due = new Due();
+        due.setStudent(student);
+        due.setDepartment("LIBRARY");
+        due.setDescription("Library fine");
+        due.setAmount(BigDecimal.TEN);
+        due.setDueDate(LocalDateTime.now().plusDays(7));
+        due.setPaymentStatus(status);
+        due.setCreatedBy(student.getId());
+        due.setCreatedAt(LocalDateTime.now());
+        entityManager.persist(due);
+    }
+
+    private void persistCertificate(User student, NoDuesCertificate.CertificateStatus status) {
+        NoDuesCertificate certificate = new NoDuesCertificate();
+        certificate.setStudent(student);
+        certificate.setStatus(status);
+        certificate.setCreatedAt(LocalDateTime.now());
+        entityManager.persist(certificate);
+    }
+}
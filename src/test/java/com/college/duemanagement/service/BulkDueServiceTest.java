@@ -0,0 +1,191 @@
+package com.college.duemanagement.service;
+
+import com.college.duemanagement.TestFixtures;
+import com.college.duemanagement.dto.BulkDueRequest;
+import com.college.duemanagement.dto.BulkJobStatus;
+import com.college.duemanagement.entity.Role;
+import com.college.duemanagement.entity.User;
+import com.college.duemanagement.exception.BadRequestException;
+import com.college.duemanagement.repository.RoleRepository;
+import com.college.duemanagement.repository.StudentRepository;
+import com.college.duemanagement.repository.UserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Bulk due jobs, with chunks of two rows so every job spans several chunks: only students get
+ * dues, a failing row is reported without losing the rest of its chunk, and the job ends
+ * COMPLETED, or FAILED when it cannot go on.
+ */
+@SpringBootTest(properties = "bulk.dues.chunk-size=2")
+class BulkDueServiceTest {
+
+    private static final String DEPARTMENT = "BULK-TEST";
+
+    @Autowired
+    private BulkDueService bulkDueService;
+
+    @Autowired
+    private BulkJobRegistry jobRegistry;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private StudentRepository studentRepository;
+
+    @Autowired
+    private RoleRepository roleRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private final List<Long> userIds = new ArrayList<>();
+    private List<Long> students;
+    private User admin;
+
+    @BeforeEach
+    void createUsers() {
+        students = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            students.add(persistStudent("bulk-student" + i).getId());
+        }
+        admin = persistUser("bulk-admin", Role.ERole.ROLE_DEPARTMENT_ADMIN);
+    }
+
+    @AfterEach
+    void cleanUp() {
+        jdbcTemplate.execute("ALTER TABLE dues DROP CONSTRAINT IF EXISTS bulk_test_reject");
+        userIds.forEach(id -> jdbcTemplate.update("DELETE FROM dues WHERE student_id = ?", id));
+        userIds.forEach(id -> studentRepository.findByUserId(id).ifPresent(studentRepository::delete));
+        userRepository.deleteAllById(userIds);
+    }
+
+    @Test
+    void requestWithoutStudentsIsRejected() {
+        assertThrows(BadRequestException.class, () -> bulkDueService.submit(request(null), admin.getId()));
+    }
+
+    @Test
+    void onlyStudentsGetDues() throws InterruptedException {
+        List<Long> ids = new ArrayList<>(students);
+        ids.add(admin.getId());
+        ids.add(-1L);
+
+        BulkJobStatus status = await(bulkDueService.submit(request(ids), admin.getId()));
+
+        assertEquals("COMPLETED", status.status());
+        assertEquals(7, status.total());
+        assertEquals(7, status.processed());
+        assertEquals(5, status.succeeded());
+        assertEquals(2, status.failed());
+        assertEquals(List.of(String.valueOf(admin.getId()), "-1"),
+                status.errors().stream().map(BulkJobStatus.RowError::row).toList());
+        students.forEach(id -> assertEquals(1, duesOf(id)));
+        assertEquals(0, duesOf(admin.getId()));
+    }
+
+    @Test
+    void failingRowIsReportedWithoutLosingItsChunk() throws InterruptedException {
+        Long rejected = students.get(3);
+        jdbcTemplate.execute("ALTER TABLE dues ADD CONSTRAINT bulk_test_reject CHECK (student_id <> " + rejected + ")");
+
+        BulkJobStatus status = await(bulkDueService.submit(request(students), admin.getId()));
+
+        assertEquals("COMPLETED", status.status());
+        assertEquals(4, status.succeeded());
+        assertEquals(List.of(new BulkJobStatus.RowError(String.valueOf(rejected), "Could not create the due")),
+                status.errors());
+        students.forEach(id -> assertEquals(id.equals(rejected) ? 0 : 1, duesOf(id)));
+    }
+
+    @Test
+    void selectorPicksStudentsOfTheDepartment() throws InterruptedException {
+        BulkDueRequest request = request(null);
+        request.setStudentDepartment(DEPARTMENT);
+
+        BulkJobStatus status = await(bulkDueService.submit(request, admin.getId()));
+
+        assertEquals(5, status.total());
+        assertEquals(5, status.succeeded());
+        students.forEach(id -> assertEquals(1, duesOf(id)));
+    }
+
+    @Test
+    void jobThatCannotContinueEndsFailed() throws InterruptedException {
+        BulkDueRequest request = request(students);
+        request.setDueDate(null);
+
+        BulkJobStatus status = await(bulkDueService.submit(request, admin.getId()));
+
+        assertEquals("FAILED", status.status());
+        assertNotNull(status.finishedAt());
+        students.forEach(id -> assertEquals(0, duesOf(id)));
+    }
+
+    @Test
+    void finishedJobsArePurgedAfterTheirRetention() {
+        BulkJobRegistry registry = new BulkJobRegistry(0);
+        BulkJobRegistry.BulkJob running = registry.create("dues", 1L);
+        BulkJobRegistry.BulkJob finished = registry.create("dues", 1L);
+        assertEquals("RUNNING", finished.toStatus().status());
+        finished.complete();
+
+        registry.purgeFinished();
+
+        assertTrue(registry.find(running.getId()).isPresent());
+        assertTrue(registry.find(finished.getId()).isEmpty());
+    }
+
+    private BulkJobStatus await(BulkJobRegistry.BulkJob job) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 10_000;
+        BulkJobStatus status = jobRegistry.find(job.getId()).orElseThrow().toStatus();
+        while ("RUNNING".equals(status.status()) && System.currentTimeMillis() < deadline) {
+            Thread.sleep(20);
+            status = job.toStatus();
+        }
+        return status;
+    }
+
+    private int duesOf(Long studentId) {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM dues WHERE student_id = ?", Integer.class, studentId);
+    }
+
+    private static BulkDueRequest request(List<Long> studentIds) {
+        BulkDueRequest request = new BulkDueRequest();
+        request.setDepartment("LIBRARY");
+        request.setDescription("Library fine");
+        request.setAmount(BigDecimal.TEN);
+        request.setDueDate(LocalDateTime.now().plusDays(7));
+        request.setStudentIds(studentIds);
+        return request;
+    }
+
+    private User persistUser(String username, Role.ERole roleName) {
+        User user = TestFixtures.user(username, roleRepository.findByName(roleName).orElseThrow());
+        user.setDepartment(DEPARTMENT);
+        User saved = userRepository.save(user);
+        userIds.add(saved.getId());
+        return saved;
+    }
+
+    private User persistStudent(String username) {
+        User user = persistUser(username, Role.ERole.ROLE_STUDENT);
+        studentRepository.save(TestFixtures.student(user, "RB-" + username));
+        return user;
+    }
+}
@@ -0,0 +1,149 @@
+package com.college.duemanagement.service;
+
+import com.college.duemanagement.TestFixtures;
+import com.college.duemanagement.dto.BulkSignRequest;
+import com.college.duemanagement.dto.BulkSignResult;
+import com.college.duemanagement.entity.NoDuesCertificate;
+import com.college.duemanagement.entity.Role;
+import com.college.duemanagement.entity.User;
+import com.college.duemanagement.repository.NoDuesCertificateRepository;
+import com.college.duemanagement.repository.RoleRepository;
+import com.college.duemanagement.repository.StudentRepository;
+import com.college.duemanagement.repository.UserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * One department signing a mix of certificates in bulk: pending ones are signed and move to
+ * PARTIAL or ALLSGND, already signed, rejected and unknown ones are reported and left alone.
+ */
+@SpringBootTest
+class BulkSignatureServiceTest {
+
+    private static final int LIBRARY = NoDuesCertificate.departmentBit("LIBRARY");
+
+    @Autowired
+    private BulkSignatureService bulkSignatureService;
+
+    @Autowired
+    private NoDuesCertificateService certificateService;
+
+    @Autowired
+    private NoDuesCertificateRepository certificateRepository;
+
+    @Autowired
+    private StudentRepository studentRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private RoleRepository roleRepository;
+
+    private final List<Long> certificateIds = new ArrayList<>();
+    private final List<Long> userIds = new ArrayList<>();
+    private User signer;
+
+    @BeforeEach
+    void createSigner() {
+        signer = persistUser("bulk-signer", Role.ERole.ROLE_DEPARTMENT_ADMIN);
+    }
+
+    @AfterEach
+    void cleanUp() {
+        certificateRepository.deleteAllById(certificateIds);
+        userIds.forEach(id -> studentRepository.findByUserId(id).ifPresent(studentRepository::delete));
+        userRepository.deleteAllById(userIds);
+    }
+
+    @Test
+    void signsOnlyThePendingCertificates() {
+        Long fresh = createCertificate("bulk-fresh");
+        Long lastMissing = createCertificate("bulk-last");
+        for (String department : NoDuesCertificate.REQUIRED_DEPARTMENTS) {
+            if (!department.equals("LIBRARY")) {
+                sign(lastMissing, department);
+            }
+        }
+        Long alreadySigned = createCertificate("bulk-already");
+        sign(alreadySigned, "LIBRARY");
+        sign(alreadySigned, "SPORTS");
+        Long rejected = createCertificate("bulk-rejected");
+        sign(rejected, "HOSTEL");
+        certificateService.updateCertificateStatus(rejected, "REJECTED");
+        int hostelOnly = NoDuesCertificate.departmentBit("HOSTEL");
+        int libraryAndSports = LIBRARY | NoDuesCertificate.departmentBit("SPORTS");
+
+        BulkSignResult result = bulkSignatureService.sign(
+                request(List.of(rejected, alreadySigned, -1L, lastMissing, fresh)), signer.getId());
+
+        assertEquals(2, result.signed());
+        assertEquals(3, result.skipped());
+        assertEquals(List.of(
+                        new BulkSignResult.Outcome(-1L, BulkSignResult.Result.NOT_FOUND),
+                        new BulkSignResult.Outcome(fresh, BulkSignResult.Result.SIGNED),
+                        new BulkSignResult.Outcome(lastMissing, BulkSignResult.Result.SIGNED),
+                        new BulkSignResult.Outcome(alreadySigned, BulkSignResult.Result.ALREADY_PROCESSED),
+                        new BulkSignResult.Outcome(rejected, BulkSignResult.Result.CLOSED)),
+                result.outcomes());
+
+        assertCertificate(fresh, NoDuesCertificate.CertificateStatus.PARTIAL, LIBRARY);
+        assertCertificate(lastMissing, NoDuesCertificate.CertificateStatus.ALLSGND, NoDuesCertificate.ALL_SIGNED_MASK);
+        assertCertificate(alreadySigned, NoDuesCertificate.CertificateStatus.PARTIAL, libraryAndSports);
+        assertCertificate(rejected, NoDuesCertificate.CertificateStatus.REJECTED, hostelOnly);
+    }
+
+    @Test
+    void signingTheSameCertificatesAgainChangesNothing() {
+        Long certificate = createCertificate("bulk-twice");
+
+        bulkSignatureService.sign(request(List.of(certificate)), signer.getId());
+        BulkSignResult again = bulkSignatureService.sign(request(List.of(certificate)), signer.getId());
+
+        assertEquals(0, again.signed());
+        assertEquals(List.of(new BulkSignResult.Outcome(certificate, BulkSignResult.Result.ALREADY_PROCESSED)),
+                again.outcomes());
+        assertCertificate(certificate, NoDuesCertificate.CertificateStatus.PARTIAL, LIBRARY);
+    }
+
+    private void assertCertificate(Long id, NoDuesCertificate.CertificateStatus status, int signedMask) {
+        NoDuesCertificate certificate = certificateRepository.findById(id).orElseThrow();
+        assertEquals(status, certificate.getStatus());
+        assertEquals(signedMask, certificate.getSignedMask());
+        assertEquals(Integer.bitCount(signedMask), certificate.getSignedCount());
+    }
+
+    private static BulkSignRequest request(List<Long> certificateIds) {
+        BulkSignRequest request = new BulkSignRequest();
+        request.setDepartment("LIBRARY");
+        request.setUseESign(false);
+        request.setCertificateIds(certificateIds);
+        return request;
+    }
+
+    private void sign(Long certificateId, String department) {
+        certificateService.signByDepartment(certificateId, department, signer.getId(), null, false);
+    }
+
+    private Long createCertificate(String username) {
+        User user = persistUser(username, Role.ERole.ROLE_STUDENT);
+        studentRepository.save(TestFixtures.student(user, "RB-" + username));
+        Long id = certificateService.createCertificate(username).getId();
+        certificateIds.add(id);
+        return id;
+    }
+
+    private User persistUser(String username, Role.ERole roleName) {
+        User saved = userRepository.save(TestFixtures.user(username, roleRepository.findByName(roleName).orElseThrow()));
+        userIds.add(saved.getId());
+        return saved;
+    }
+}
@@ -0,0 +1,191 @@
+package com.college.duemanagement.service;
+
+import com.college.duemanagement.TestFixtures;
+import com.college.duemanagement.dto.NoDuesCertificateDto;
+import com.college.duemanagement.entity.DepartmentSignature;
+import com.college.duemanagement.entity.NoDuesCertificate;
+import com.college.duemanagement.entity.Role;
+import com.college.duemanagement.entity.User;
+import com.college.duemanagement.repository.NoDuesCertificateRepository;
+import com.college.duemanagement.repository.RoleRepository;
+import com.college.duemanagement.repository.StudentRepository;
+import com.college.duemanagement.repository.UserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Departments signing the same certificate at the same time must all land: no signature
+ * lost, and the certificate ends ALLSGND rather than whatever the last writer counted.
+ */
+@SpringBootTest
+class CertificateSigningConcurrencyTest {
+
+    @Autowired
+    private NoDuesCertificateService certificateService;
+
+    @Autowired
+    private NoDuesCertificateRepository certificateRepository;
+
+    @Autowired
+    private StudentRepository studentRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private RoleRepository roleRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    private final List<Long> certificateIds = new ArrayList<>();
+    private final List<Long> userIds = new ArrayList<>();
+
+    @AfterEach
+    void cleanUp() {
+        certificateRepository.deleteAllById(certificateIds);
+        userIds.forEach(id -> studentRepository.findByUserId(id).ifPresent(studentRepository::delete));
+        userRepository.deleteAllById(userIds);
+    }
+
+    @Test
+    void allDepartmentsSigningAtOnceAllLand() throws Exception {
+        User signer = persistUser("concurrent-signer", Role.ERole.ROLE_DEPARTMENT_ADMIN);
+
+        for (int round = 0; round < 5; round++) {
+            Long certificateId = createCertificate("concurrent-student" + round);
+            List<String> departments = departmentsOf(certificateId);
+            assertEquals(10, departments.size());
+
+            List<Throwable> failures = signConcurrently(certificateId, departments, signer.getId());
+
+            assertEquals(List.of(), failures);
+            transactionTemplate.executeWithoutResult(status -> {
+                NoDuesCertificate certificate = certificateRepository.findById(certificateId).orElseThrow();
+                assertEquals(NoDuesCertificate.CertificateStatus.ALLSGND, certificate.getStatus());
+                assertTrue(certificate.getDepartmentSignatures().stream()
+                        .allMatch(s -> s.getStatus() == DepartmentSignature.SignatureStatus.SIGNED));
+            });
+        }
+    }
+
+    @Test
+    void oneDepartmentSigningTwiceAtOnceSucceedsOnce() throws Exception {
+        User signer = persistUser("duplicate-signer", Role.ERole.ROLE_DEPARTMENT_ADMIN);
+        Long certificateId = createCertificate("duplicate-student");
+
+        List<Throwable> failures = signConcurrently(certificateId, List.of("LIBRARY", "LIBRARY"), signer.getId());
+
+        assertEquals(1, failures.size());
+        assertEquals("This department has already been signed or rejected", failures.get(0).getMessage());
+        transactionTemplate.executeWithoutResult(status -> {
+            NoDuesCertificate certificate = certificateRepository.findById(certificateId).orElseThrow();
+            assertEquals(NoDuesCertificate.CertificateStatus.PARTIAL, certificate.getStatus());
+            assertEquals(1, certificate.getDepartmentSignatures().stream()
+                    .filter(s -> s.getStatus() == DepartmentSignature.SignatureStatus.SIGNED)
+                    .count());
+        });
+    }
+
+    @Test
+    void statusChangeRacingTheLastSignatureKeepsBoth() throws Exception {
+        User signer = persistUser("racing-signer", Role.ERole.ROLE_DEPARTMENT_ADMIN);
+
+        for (int round = 0; round < 5; round++) {
+            Long certificateId = createCertificate("racing-student" + round);
+            for (String department : NoDuesCertificate.REQUIRED_DEPARTMENTS.subList(0, 9)) {
+                certificateService.signByDepartment(certificateId, department, signer.getId(), null, false);
+            }
+
+            List<Throwable> failures = runConcurrently(List.of(
+                    () -> certificateService.signByDepartment(certificateId, "STUDENT_SECTION", signer.getId(), null, false),
+                    () -> certificateService.updateCertificateStatus(certificateId, "REJECTED")));
+
+            // Either order ends rejected: signing leaves a rejected certificate's status alone
+            assertEquals(List.of(), failures);
+            transactionTemplate.executeWithoutResult(status -> {
+                NoDuesCertificate certificate = certificateRepository.findById(certificateId).orElseThrow();
+                assertEquals(NoDuesCertificate.CertificateStatus.REJECTED, certificate.getStatus());
+                assertEquals(10, certificate.getSignedCount());
+                assertTrue(certificate.isAllSigned());
+            });
+        }
+    }
+
+    private List<Throwable> signConcurrently(Long certificateId, List<String> departments, Long signerId)
+            throws InterruptedException {
+        List<Callable<?>> signatures = new ArrayList<>();
+        for (String department : departments) {
+            signatures.add(() -> certificateService.signByDepartment(certificateId, department, signerId, null, false));
+        }
+        return runConcurrently(signatures);
+    }
+
+    // Starts every task at once and returns what they threw
+    private List<Throwable> runConcurrently(List<Callable<?>> tasks) throws InterruptedException {
+        ExecutorService workers = Executors.newFixedThreadPool(tasks.size());
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            List<Future<?>> results = new ArrayList<>();
+            for (Callable<?> task : tasks) {
+                results.add(workers.submit(() -> {
+                    start.await();
+                    return task.call();
+                }));
+            }
+            start.countDown();
+
+            List<Throwable> failures = new ArrayList<>();
+            for (Future<?> result : results) {
+                try {
+                    result.get();
+                } catch (ExecutionException e) {
+                    failures.add(e.getCause());
+                }
+            }
+            return failures;
+        } finally {
+            workers.shutdownNow();
+        }
+    }
+
+    private Long createCertificate(String username) {
+        persistStudent(username);
+        NoDuesCertificateDto certificate = certificateService.createCertificate(username);
+        certificateIds.add(certificate.getId());
+        return certificate.getId();
+    }
+
+    private List<String> departmentsOf(Long certificateId) {
+        return transactionTemplate.execute(status -> certificateRepository.findById(certificateId).orElseThrow()
+                .getDepartmentSignatures().stream()
+                .map(DepartmentSignature::getDepartment)
+                .toList());
+    }
+
+    private User persistUser(String username, Role.ERole roleName) {
+        User saved = userRepository.save(TestFixtures.user(username, roleRepository.findByName(roleName).orElseThrow()));
+        userIds.add(saved.getId());
+        return saved;
+    }
+
+    private void persistStudent(String username) {
+        User user = persistUser(username, Role.ERole.ROLE_STUDENT);
+        studentRepository.save(TestFixtures.student(user, "RC-" + username));
+    }
+}
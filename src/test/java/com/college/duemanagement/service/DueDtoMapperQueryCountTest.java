@@ -0,0 +1,145 @@
+package com.college.duemanagement.service;
+
+import com.college.duemanagement.TestFixtures;
+import com.college.duemanagement.dto.DueDto;
+import com.college.duemanagement.entity.Due;
+import com.college.duemanagement.entity.Role;
+import com.college.duemanagement.entity.Student;
+import com.college.duemanagement.entity.User;
+import com.college.duemanagement.repository.DueRepository;
+import com.college.duemanagement.repository.RoleRepository;
+import jakarta.persistence.EntityManager;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+
+/**
+ * Listing dues must cost the same number of statements however many dues, students and
+ * approvers are on the page.
+ */
+@SpringBootTest
+@Transactional
+class DueDtoMapperQueryCountTest {
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private DueRepository dueRepository;
+
+    @Autowired
+    private RoleRepository roleRepository;
+
+    @Autowired
+    private DueDtoMapper dueDtoMapper;
+
+    @Test
+    void listingDuesUsesConstantNumberOfStatements() {
+        Role studentRole = roleRepository.findByName(Role.ERole.ROLE_STUDENT).orElseThrow();
+        Role adminRole = roleRepository.findByName(Role.ERole.ROLE_DEPARTMENT_ADMIN).orElseThrow();
+
+        persistDues(5, persistStudents(0, 5, studentRole), persistApprovers(0, 3, adminRole));
+        long small = statementsToList(5);
+
+        persistDues(25, persistStudents(5, 25, studentRole), persistApprovers(3, 25, adminRole));
+        long large = statementsToList(30);
+
+        assertEquals(small, large, "statements per list call should not grow with the number of dues, students or approvers");
+    }
+
+    private long statementsToList(int expectedDues) {
+        entityManager.flush();
+        entityManager.clear();
+        Statistics statistics = entityManager.getEntityManagerFactory()
+                .unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        // Each list call is its own request, so the approver memo starts empty
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(new MockHttpServletRequest()));
+
+        Page<Due> page = dueRepository.findAll(PageRequest.of(0, 50, Sort.by(Sort.Direction.DESC, "id")));
+        List<DueDto> dtos = page.getContent().stream()
+                .map(dueDtoMapper.converterFor(page.getContent()))
+                .toList();
+
+        assertEquals(expectedDues, dtos.size());
+        dtos.forEach(dto -> {
+            assertNotNull(dto.getRollNumber());
+            assertNotNull(dto.getApprovedByName());
+        });
+        long statements = statistics.getPrepareStatementCount();
+
+        // Approver names are memoised for the rest of the request
+        dueDtoMapper.toDtos(page.getContent());
+        assertEquals(statements, statistics.getPrepareStatementCount());
+        return statements;
+    }
+
+    @AfterEach
+    void resetRequest() {
+        RequestContextHolder.resetRequestAttributes();
+    }
+
+    private List<User> persistStudents(int from, int count, Role role) {
+        List<User> students = new ArrayList<>();
+        for (int i = from; i < from + count; i++) {
+            students.add(persistStudent(i, role));
+        }
+        return students;
+    }
+
+    private List<User> persistApprovers(int from, int count, Role role) {
+        List<User> approvers = new ArrayList<>();
+        for (int i = from; i < from + count; i++) {
+            approvers.add(persistUser("approver" + i, role));
+        }
+        return approvers;
+    }
+
+    private User persistUser(String username, Role role) {
+        User user = TestFixtures.user(username, role);
+        entityManager.persist(user);
+        return user;
+    }
+
+    private User persistStudent(int index, Role role) {
+        User user = persistUser("student" + index, role);
+        Student student = TestFixtures.student(user, "R" + index);
+        entityManager.persist(student);
+        user.setStudent(student);
+        return user;
+    }
+
+    private void persistDues(int count, List<User> students, List<User> approvers) {
+        for (int i = 0; i < count; i++) {
+            Due due = new Due();
+            due.setStudent(students.get(i % students.size()));
+            due.setDepartment("CSE");
+            due.setDescription("Library fine " + i);
+            due.setAmount(BigDecimal.TEN);
+            due.setDueDate(LocalDateTime.now().plusDays(7));
+            due.setPaymentStatus(Due.PaymentStatus.APPROVED);
+            due.setApprovedBy(approvers.get(i % approvers.size()).getId());
+            due.setCreatedBy(approvers.get(0).getId());
+            due.setCreatedAt(LocalDateTime.now());
+            entityManager.persist(due);
+        }
+    }
+}
@@ -0,0 +1,167 @@
+package com.college.duemanagement.service;
+
+import com.college.duemanagement.entity.OutboundEmail;
+import com.college.duemanagement.repository.OutboundEmailRepository;
+import com.icegreen.greenmail.junit5.GreenMailExtension;
+import com.icegreen.greenmail.util.GreenMailUtil;
+import com.icegreen.greenmail.util.ServerSetupTest;
+import jakarta.mail.internet.MimeMessage;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Outbox delivery against a local fake SMTP server. The mail sender is wrapped to record
+ * what the database looks like while a batch is on the wire.
+ */
+@SpringBootTest(properties = {
+        "spring.mail.port=3025",
+        "mail.outbox.poll-interval-ms=3600000",
+        "mail.outbox.batch-size=2",
+        "mail.outbox.max-attempts=2",
+        "mail.outbox.initial-backoff-ms=0"
+})
+class EmailDispatcherTest {
+
+    @RegisterExtension
+    static GreenMailExtension greenMail = new GreenMailExtension(ServerSetupTest.SMTP);
+
+    @Autowired
+    private EmailService emailService;
+
+    @Autowired
+    private EmailDispatcher emailDispatcher;
+
+    @Autowired
+    private OutboundEmailRepository outboxRepository;
+
+    @Autowired
+    private ObservingMailSender mailSender;
+
+    @BeforeEach
+    void clearOutbox() {
+        outboxRepository.deleteAll();
+        mailSender.sends.clear();
+    }
+
+    @Test
+    void deliversQueuedMessagesInBatches() throws Exception {
+        for (int i = 0; i < 5; i++) {
+            emailService.enqueue("student" + i + "@example.com", "Subject " + i, "<p>Body " + i + "</p>", true);
+        }
+
+        emailDispatcher.dispatch();
+
+        MimeMessage[] received = greenMail.getReceivedMessages();
+        assertEquals(5, received.length);
+        assertTrue(GreenMailUtil.getBody(received[0]).contains("Body"));
+
+        List<OutboundEmail> outbox = outboxRepository.findAll();
+        outbox.forEach(email -> {
+            assertEquals(OutboundEmail.Status.SENT, email.getStatus());
+            assertEquals(1, email.getAttempts());
+            assertNull(email.getBody());
+        });
+    }
+
+    @Test
+    void sendsOutsideAnyTransactionWithTheBatchAlreadyClaimed() {
+        for (int i = 0; i < 3; i++) {
+            emailService.enqueue("student" + i + "@example.com", "Subject " + i, "Body " + i, false);
+        }
+
+        emailDispatcher.dispatch();
+
+        // Batches of two and one, each committed as SENDING before it went out
+        assertEquals(List.of(new Send(2, false, 2), new Send(1, false, 1)), mailSender.sends);
+        outboxRepository.findAll().forEach(email -> assertEquals(OutboundEmail.Status.SENT, email.getStatus()));
+    }
+
+    @Test
+    void reclaimsMessagesOnlyOnceTheirLeaseRunsOut() {
+        OutboundEmail abandoned = leased("abandoned@example.com", LocalDateTime.now().minusMinutes(1));
+        OutboundEmail inFlight = leased("in-flight@example.com", LocalDateTime.now().plusMinutes(10));
+
+        emailDispatcher.dispatch();
+
+        assertEquals(1, greenMail.getReceivedMessages().length);
+        OutboundEmail resent = outboxRepository.findById(abandoned.getId()).orElseThrow();
+        assertEquals(OutboundEmail.Status.SENT, resent.getStatus());
+        assertEquals(2, resent.getAttempts());
+        assertEquals(OutboundEmail.Status.SENDING, outboxRepository.findById(inFlight.getId()).orElseThrow().getStatus());
+    }
+
+    @Test
+    void retriesThenDeadLettersWhenServerIsDown() {
+        emailService.enqueue("student@example.com", "Subject", "Body", false);
+        greenMail.stop();
+
+        emailDispatcher.dispatch();
+        OutboundEmail email = outboxRepository.findAll().get(0);
+        assertEquals(OutboundEmail.Status.PENDING, email.getStatus());
+        assertEquals(1, email.getAttempts());
+
+        emailDispatcher.dispatch();
+        email = outboxRepository.findAll().get(0);
+        assertEquals(OutboundEmail.Status.DEAD, email.getStatus());
+        assertEquals(2, email.getAttempts());
+        assertNull(email.getBody());
+    }
+
+    private OutboundEmail leased(String recipient, LocalDateTime leaseExpiry) {
+        OutboundEmail email = new OutboundEmail(recipient, "Subject", "Body", false);
+        email.setStatus(OutboundEmail.Status.SENDING);
+        email.setAttempts(1);
+        email.setNextAttemptAt(leaseExpiry);
+        return outboxRepository.save(email);
+    }
+
+    record Send(int messages, boolean inTransaction, int sendingRows) {
+    }
+
+    static class ObservingMailSender extends JavaMailSenderImpl {
+        final List<Send> sends = new CopyOnWriteArrayList<>();
+        private final JdbcTemplate jdbcTemplate;
+
+        ObservingMailSender(JdbcTemplate jdbcTemplate) {
+            this.jdbcTemplate = jdbcTemplate;
+        }
+
+        @Override
+        public void send(MimeMessage... mimeMessages) {
+            Integer sending = jdbcTemplate.queryForObject(
+                    "SELECT COUNT(*) FROM email_outbox WHERE status = 'SENDING'", Integer.class);
+            sends.add(new Send(mimeMessages.length, TransactionSynchronizationManager.isActualTransactionActive(), sending));
+            super.send(mimeMessages);
+        }
+    }
+
+    @TestConfiguration
+    static class MailSenderConfig {
+        @Bean
+        ObservingMailSender mailSender(JdbcTemplate jdbcTemplate,
+                                       @Value("${spring.mail.host}") String host,
+                                       @Value("${spring.mail.port}") int port) {
+            ObservingMailSender mailSender = new ObservingMailSender(jdbcTemplate);
+            mailSender.setHost(host);
+            mailSender.setPort(port);
+            return mailSender;
+        }
+    }
+}
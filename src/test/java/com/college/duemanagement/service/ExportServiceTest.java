@@ -0,0 +1,114 @@
+package com.college.duemanagement.service;
+
+import com.college.duemanagement.TestFixtures;
+import com.college.duemanagement.dto.ExportFilter;
+import com.college.duemanagement.entity.Due;
+import com.college.duemanagement.entity.Role;
+import com.college.duemanagement.entity.User;
+import com.college.duemanagement.enums.ExportFormat;
+import com.college.duemanagement.repository.RoleRepository;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Due exports as CSV and NDJSON: one row per matching due, in id order, with user-entered
+ * text kept from running as a spreadsheet formula.
+ */
+@SpringBootTest
+@Transactional
+class ExportServiceTest {
+
+    private static final String DEPARTMENT = "EXPORT-TEST";
+
+    @Autowired
+    private ExportService exportService;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private RoleRepository roleRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private Due formula;
+    private Due paid;
+
+    @BeforeEach
+    void createDues() {
+        User student = TestFixtures.user("export-student", roleRepository.findByName(Role.ERole.ROLE_STUDENT).orElseThrow());
+        entityManager.persist(student);
+        entityManager.persist(TestFixtures.student(student, "RX-1"));
+
+        formula = persistDue(student, "=HYPERLINK(\"http://example.com\",\"Pay here\")", Due.PaymentStatus.PENDING, null);
+        paid = persistDue(student, "Lab, breakage", Due.PaymentStatus.PAID, "@SUM(1+1)");
+        entityManager.flush();
+    }
+
+    @Test
+    void exportsCsvWithFormulasNeutralised() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        long rows = exportService.exportDues(new ExportFilter(DEPARTMENT, null, null, null), ExportFormat.CSV, out);
+
+        assertEquals(2, rows);
+        List<String> lines = List.of(out.toString(StandardCharsets.UTF_8).split("\r\n"));
+        assertEquals(3, lines.size());
+        assertEquals("id,rollNumber,firstName,lastName,studentDepartment,department,description,amount,dueDate," +
+                "paymentStatus,paymentDate,paymentReference,approvedBy,approvalDate,receiptNumber,createdAt", lines.get(0));
+        assertTrue(lines.get(1).startsWith(formula.getId() + ",RX-1,First export-student,Last export-student,CSE," +
+                DEPARTMENT + ",\"'=HYPERLINK(\"\"http://example.com\"\",\"\"Pay here\"\")\",10.00,"));
+        assertTrue(lines.get(2).startsWith(paid.getId() + ",RX-1,"));
+        assertTrue(lines.get(2).contains(",\"Lab, breakage\",10.00,"));
+        assertTrue(lines.get(2).contains(",PAID,,'@SUM(1+1),"));
+    }
+
+    @Test
+    void exportsNdjsonFilteredByStatus() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        long rows = exportService.exportDues(new ExportFilter(DEPARTMENT, Due.PaymentStatus.PAID, null, null),
+                ExportFormat.NDJSON, out);
+
+        assertEquals(1, rows);
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(1, lines.length);
+        JsonNode row = objectMapper.readTree(lines[0]);
+        assertEquals(paid.getId(), row.get("id").asLong());
+        assertEquals("Lab, breakage", row.get("description").asText());
+        // JSON is not opened as a spreadsheet, so values stay as entered
+        assertEquals("@SUM(1+1)", row.get("paymentReference").asText());
+    }
+
+    private Due persistDue(User student, String description, Due.PaymentStatus status, String paymentReference) {
+        Due due = new Due();
+        due.setStudent(student);
+        due.setDepartment(DEPARTMENT);
+        due.setDescription(description);
+        due.setAmount(BigDecimal.TEN);
+        due.setDueDate(LocalDateTime.now().plusDays(7));
+        due.setPaymentStatus(status);
+        due.setPaymentReference(paymentReference);
+        due.setCreatedBy(student.getId());
+        due.setCreatedAt(LocalDateTime.now());
+        entityManager.persist(due);
+        return due;
+    }
+}
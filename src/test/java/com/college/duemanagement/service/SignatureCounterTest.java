@@ -0,0 +1,165 @@
+package com.college.duemanagement.service;
+
+import com.college.duemanagement.TestFixtures;
+import com.college.duemanagement.config.SignatureCounterBackfill;
+import com.college.duemanagement.dto.BulkSignRequest;
+import com.college.duemanagement.entity.DepartmentSignature;
+import com.college.duemanagement.entity.NoDuesCertificate;
+import com.college.duemanagement.entity.Role;
+import com.college.duemanagement.entity.User;
+import com.college.duemanagement.repository.NoDuesCertificateRepository;
+import com.college.duemanagement.repository.RoleRepository;
+import com.college.duemanagement.repository.StudentRepository;
+import com.college.duemanagement.repository.UserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * A certificate's signed_mask and signed_count agree with its SIGNED department rows after a
+ * single signing, a bulk signing and the startup backfill.
+ */
+@SpringBootTest
+class SignatureCounterTest {
+
+    private static final List<String> DEPARTMENTS = NoDuesCertificate.REQUIRED_DEPARTMENTS;
+
+    @Autowired
+    private NoDuesCertificateService certificateService;
+
+    @Autowired
+    private BulkSignatureService bulkSignatureService;
+
+    @Autowired
+    private SignatureCounterBackfill backfill;
+
+    @Autowired
+    private NoDuesCertificateRepository certificateRepository;
+
+    @Autowired
+    private StudentRepository studentRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private RoleRepository roleRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    private final List<Long> certificateIds = new ArrayList<>();
+    private final List<Long> userIds = new ArrayList<>();
+    private User signer;
+
+    @BeforeEach
+    void createSigner() {
+        signer = persistUser("counter-signer", Role.ERole.ROLE_DEPARTMENT_ADMIN);
+    }
+
+    @AfterEach
+    void cleanUp() {
+        certificateRepository.deleteAllById(certificateIds);
+        userIds.forEach(id -> studentRepository.findByUserId(id).ifPresent(studentRepository::delete));
+        userRepository.deleteAllById(userIds);
+    }
+
+    @Test
+    void singleSigningsKeepTheMaskInStep() {
+        Long certificateId = createCertificate("counter-single");
+
+        sign(certificateId, "LIBRARY");
+        sign(certificateId, "HOSTEL");
+
+        assertCountersMatchSignatures(certificateId, 2);
+        assertEquals(NoDuesCertificate.CertificateStatus.PARTIAL, statusOf(certificateId));
+    }
+
+    @Test
+    void bulkSigningKeepsTheMaskInStep() {
+        Long signedBefore = createCertificate("counter-bulk-signed");
+        Long pending = createCertificate("counter-bulk-pending");
+        sign(signedBefore, "LIBRARY");
+        sign(signedBefore, "SPORTS");
+
+        BulkSignRequest request = new BulkSignRequest();
+        request.setDepartment("LIBRARY");
+        request.setUseESign(false);
+        request.setCertificateIds(List.of(signedBefore, pending));
+        bulkSignatureService.sign(request, signer.getId());
+
+        assertCountersMatchSignatures(signedBefore, 2);
+        assertCountersMatchSignatures(pending, 1);
+    }
+
+    @Test
+    void backfillRecomputesLegacyCertificates() {
+        Long legacy = createCertificate("counter-legacy");
+        Long signedSinceUpgrade = createCertificate("counter-window");
+        for (String department : DEPARTMENTS) {
+            sign(legacy, department);
+        }
+        sign(signedSinceUpgrade, "LIBRARY");
+        sign(signedSinceUpgrade, "OFFICE");
+        sign(signedSinceUpgrade, "TRANSPORT");
+        // As ddl-auto=update leaves them: the legacy certificate uncounted and still PARTIAL, the
+        // other counting only the signature it took after the columns appeared
+        jdbcTemplate.update("UPDATE no_dues_certificates SET signed_mask = 0, signed_count = 0, status = 'PARTIAL' WHERE id = ?",
+                legacy);
+        jdbcTemplate.update("UPDATE no_dues_certificates SET signed_mask = ?, signed_count = 1 WHERE id = ?",
+                NoDuesCertificate.departmentBit("TRANSPORT"), signedSinceUpgrade);
+
+        backfill.backfill();
+
+        assertCountersMatchSignatures(legacy, DEPARTMENTS.size());
+        assertEquals(NoDuesCertificate.CertificateStatus.ALLSGND, statusOf(legacy));
+        assertCountersMatchSignatures(signedSinceUpgrade, 3);
+    }
+
+    private void assertCountersMatchSignatures(Long certificateId, int signedDepartments) {
+        transactionTemplate.executeWithoutResult(status -> {
+            NoDuesCertificate certificate = certificateRepository.findById(certificateId).orElseThrow();
+            int expectedMask = certificate.getDepartmentSignatures().stream()
+                    .filter(s -> s.getStatus() == DepartmentSignature.SignatureStatus.SIGNED)
+                    .mapToInt(s -> NoDuesCertificate.departmentBit(s.getDepartment()))
+                    .sum();
+            assertEquals(expectedMask, certificate.getSignedMask());
+            assertEquals(signedDepartments, certificate.getSignedCount());
+            assertEquals(Integer.bitCount(expectedMask), certificate.getSignedCount());
+        });
+    }
+
+    private NoDuesCertificate.CertificateStatus statusOf(Long certificateId) {
+        return certificateRepository.findById(certificateId).orElseThrow().getStatus();
+    }
+
+    private void sign(Long certificateId, String department) {
+        certificateService.signByDepartment(certificateId, department, signer.getId(), null, false);
+    }
+
+    private Long createCertificate(String username) {
+        User user = persistUser(username, Role.ERole.ROLE_STUDENT);
+        studentRepository.save(TestFixtures.student(user, "RS-" + username));
+        Long id = certificateService.createCertificate(username).getId();
+        certificateIds.add(id);
+        return id;
+    }
+
+    private User persistUser(String username, Role.ERole roleName) {
+        User saved = userRepository.save(TestFixtures.user(username, roleRepository.findByName(roleName).orElseThrow()));
+        userIds.add(saved.getId());
+        return saved;
+    }
+}
@@ -0,0 +1,82 @@
+package com.college.duemanagement.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * The same signature stored twice, or by several uploads at once, ends up as one row and
+ * every caller gets its hash.
+ */
+@SpringBootTest
+class SignatureStoreTest {
+
+    private static final byte[] CONTENT = "signature-store-test".getBytes(StandardCharsets.UTF_8);
+
+    @Autowired
+    private SignatureStore signatureStore;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @AfterEach
+    void cleanUp() {
+        jdbcTemplate.update("DELETE FROM signatures WHERE hash = ?", SignatureStore.hash(CONTENT));
+    }
+
+    @Test
+    void storingTheSameContentTwiceKeepsOneRow() {
+        String first = signatureStore.store(CONTENT, "image/png");
+        String second = signatureStore.store(CONTENT, null);
+
+        assertEquals(first, second);
+        assertEquals(1, rowsFor(first));
+        assertEquals("image/png", signatureStore.findMetadata(first).orElseThrow().contentType());
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        assertTrue(signatureStore.streamTo(first, out));
+        assertArrayEquals(CONTENT, out.toByteArray());
+    }
+
+    @Test
+    void concurrentUploadsOfTheSameContentAllSucceed() throws Exception {
+        int uploads = 8;
+        ExecutorService workers = Executors.newFixedThreadPool(uploads);
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            List<Future<String>> hashes = new ArrayList<>();
+            for (int i = 0; i < uploads; i++) {
+                hashes.add(workers.submit(() -> {
+                    start.await();
+                    return signatureStore.store(CONTENT, "image/png");
+                }));
+            }
+            start.countDown();
+
+            for (Future<String> hash : hashes) {
+                assertEquals(SignatureStore.hash(CONTENT), hash.get());
+            }
+        } finally {
+            workers.shutdownNow();
+        }
+        assertEquals(1, rowsFor(SignatureStore.hash(CONTENT)));
+    }
+
+    private int rowsFor(String hash) {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM signatures WHERE hash = ?", Integer.class, hash);
+    }
+}
@@ -0,0 +1,148 @@
+package com.college.duemanagement.service;
+
+import com.college.duemanagement.TestFixtures;
+import com.college.duemanagement.dto.BulkJobStatus;
+import com.college.duemanagement.entity.Role;
+import com.college.duemanagement.entity.User;
+import com.college.duemanagement.repository.RoleRepository;
+import com.college.duemanagement.repository.UserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.mock.web.MockMultipartFile;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Student imports from CSV: valid rows become students, the rest are reported by line with a
+ * reason fit to show the uploader, never the database's own message.
+ */
+@SpringBootTest
+class StudentImportServiceTest {
+
+    private static final String HEADER = "rollNumber,email,firstName,lastName,department,semester,batch,course," +
+            "section,fatherName,motherName,contactNumber,address\n";
+
+    @Autowired
+    private StudentImportService importService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private RoleRepository roleRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @AfterEach
+    void cleanUp() {
+        jdbcTemplate.execute("ALTER TABLE students DROP CONSTRAINT IF EXISTS import_test_reject");
+        List<Long> ids = jdbcTemplate.queryForList("SELECT id FROM users WHERE email LIKE '%@import.test'", Long.class);
+        ids.forEach(id -> {
+            jdbcTemplate.update("DELETE FROM students WHERE user_id = ?", id);
+            jdbcTemplate.update("DELETE FROM user_roles WHERE user_id = ?", id);
+            jdbcTemplate.update("DELETE FROM users WHERE id = ?", id);
+        });
+        jdbcTemplate.update("DELETE FROM email_outbox WHERE recipient LIKE '%@import.test'");
+    }
+
+    @Test
+    void importsValidRowsAndReportsTheRestByLine() throws Exception {
+        User existing = TestFixtures.user("import-existing", roleRepository.findByName(Role.ERole.ROLE_STUDENT).orElseThrow());
+        existing.setEmail("taken@import.test");
+        userRepository.save(existing);
+
+        BulkJobStatus status = importCsv(HEADER +
+                row("RI-1", "asha@import.test", "1", "\"12 Main St,\nFlat 4\"") +
+                row("RI-2", "asha@import.test", "1", "Elsewhere") +
+                row("RI-3", "ravi@import.test", "first", "Elsewhere") +
+                row("RI-4", "taken@import.test", "1", "Elsewhere") +
+                row("RI-5", "meera@import.test", "3", "Elsewhere"));
+
+        assertEquals("COMPLETED", status.status());
+        assertEquals(5, status.total());
+        assertEquals(2, status.succeeded());
+        // The quoted address spans lines 2 and 3, so the next record starts on line 4
+        assertEquals(List.of(
+                        new BulkJobStatus.RowError("4", "Email appears more than once in the file"),
+                        new BulkJobStatus.RowError("5", "Semester must be a number"),
+                        new BulkJobStatus.RowError("6", "Email is already in use")),
+                status.errors());
+        assertEquals("12 Main St,\nFlat 4", jdbcTemplate.queryForObject(
+                "SELECT address FROM students WHERE roll_number = 'RI-1'", String.class));
+        assertEquals(1, countStudents("RI-5"));
+    }
+
+    @Test
+    void rowTheDatabaseRefusesIsReportedWithoutTheDriverMessage() throws Exception {
+        jdbcTemplate.execute("ALTER TABLE students ADD CONSTRAINT import_test_reject CHECK (roll_number <> 'RI-REFUSED')");
+
+        BulkJobStatus status = importCsv(HEADER +
+                row("RI-OK", "kept@import.test", "2", "Somewhere") +
+                row("RI-REFUSED", "refused@import.test", "2", "Somewhere"));
+
+        assertEquals("COMPLETED", status.status());
+        assertEquals(1, status.succeeded());
+        assertEquals(List.of(new BulkJobStatus.RowError("3", "A value is too long or not allowed")), status.errors());
+        assertEquals(1, countStudents("RI-OK"));
+        assertEquals(0, countStudents("RI-REFUSED"));
+    }
+
+    @Test
+    void malformedFileFailsTheJobWithWhereItBroke() throws Exception {
+        BulkJobStatus status = importCsv(HEADER +
+                row("RI-6", "first@import.test", "1", "Somewhere") +
+                "RI-7,second@import.test,\"unterminated\n");
+
+        assertEquals("FAILED", status.status());
+        assertEquals("Unterminated quoted field starting on line 3", status.message());
+    }
+
+    @Test
+    void errorReportListsLineAndReason() throws Exception {
+        BulkJobRegistry.BulkJob job = submit(HEADER + row("RI-8", "not-an-email", "1", "Somewhere"));
+        await(job);
+
+        StringWriter report = new StringWriter();
+        importService.writeErrorReport(job, report);
+
+        assertEquals("line,error\r\n2,Invalid email format\r\n", report.toString());
+    }
+
+    private BulkJobStatus importCsv(String csv) throws IOException, InterruptedException {
+        return await(submit(csv));
+    }
+
+    private BulkJobRegistry.BulkJob submit(String csv) throws IOException {
+        MockMultipartFile file = new MockMultipartFile("file", "students.csv", "text/csv",
+                csv.getBytes(StandardCharsets.UTF_8));
+        return importService.submit(file, 1L);
+    }
+
+    private static BulkJobStatus await(BulkJobRegistry.BulkJob job) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 10_000;
+        BulkJobStatus status = job.toStatus();
+        while ("RUNNING".equals(status.status()) && System.currentTimeMillis() < deadline) {
+            Thread.sleep(20);
+            status = job.toStatus();
+        }
+        return status;
+    }
+
+    private int countStudents(String rollNumber) {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM students WHERE roll_number = ?", Integer.class, rollNumber);
+    }
+
+    private static String row(String rollNumber, String email, String semester, String address) {
+        return String.join(",", rollNumber, email, "Import", "Student", "CSE", semester, "2024", "BTech", "A",
+                "Father", "Mother", "9876543210", address) + "\n";
+    }
+}
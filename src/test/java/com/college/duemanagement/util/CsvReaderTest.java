@@ -0,0 +1,65 @@
+package com.college.duemanagement.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * RFC 4180 records: quoted separators, escaped quotes, line breaks inside quotes, and the
+ * line each record started on.
+ */
+class CsvReaderTest {
+
+    @Test
+    void readsPlainAndQuotedFields() throws IOException {
+        assertEquals(List.of(List.of("a", "b, c", "", "d")), read("a,\"b, c\",,d\n"));
+    }
+
+    @Test
+    void unescapesDoubledQuotes() throws IOException {
+        assertEquals(List.of(List.of("say \"hi\"", "\"")), read("\"say \"\"hi\"\"\",\"\"\"\"\n"));
+    }
+
+    @Test
+    void keepsLineBreaksInsideQuotesAndCountsTheirLines() throws IOException {
+        try (CsvReader csv = new CsvReader(new StringReader("h1,h2\r\n\"two\r\nlines\",x\r\nlast,y"))) {
+            assertEquals(List.of("h1", "h2"), csv.readRecord());
+            assertEquals(1, csv.getRecordLine());
+            assertEquals(List.of("two\r\nlines", "x"), csv.readRecord());
+            assertEquals(2, csv.getRecordLine());
+            assertEquals(List.of("last", "y"), csv.readRecord());
+            assertEquals(4, csv.getRecordLine());
+            assertNull(csv.readRecord());
+        }
+    }
+
+    @Test
+    void skipsTheByteOrderMarkAndReturnsBlankLinesAsOneEmptyField() throws IOException {
+        assertEquals(List.of(List.of("email"), List.of(""), List.of("a@example.com")),
+                read("\uFEFFemail\n\na@example.com\n"));
+    }
+
+    @Test
+    void rejectsAnUnterminatedQuote() {
+        IOException e = assertThrows(IOException.class, () -> read("ok\n\"never closed,x\n"));
+        assertEquals("Unterminated quoted field starting on line 2", e.getMessage());
+    }
+
+    private static List<List<String>> read(String text) throws IOException {
+        List<List<String>> records = new ArrayList<>();
+        try (CsvReader csv = new CsvReader(new StringReader(text))) {
+            List<String> record;
+            while ((record = csv.readRecord()) != null) {
+                records.add(record);
+            }
+        }
+        return records;
+    }
+}
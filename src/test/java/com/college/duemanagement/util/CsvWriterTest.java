@@ -0,0 +1,40 @@
+package com.college.duemanagement.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.math.BigDecimal;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Quoting, and text that a spreadsheet would run as a formula.
+ */
+class CsvWriterTest {
+
+    @Test
+    void quotesValuesWithSeparatorsQuotesAndLineBreaks() throws IOException {
+        assertEquals("plain,\"a,b\",\"say \"\"hi\"\"\",\"two\nlines\",,42\r\n",
+                write("plain", "a,b", "say \"hi\"", "two\nlines", null, 42));
+    }
+
+    @Test
+    void neutralisesTextStartingAFormula() throws IOException {
+        assertEquals("'=1+1,'+1,'-1,'@SUM(A1),'\tx,\"'\rx\"\r\n",
+                write("=1+1", "+1", "-1", "@SUM(A1)", "\tx", "\rx"));
+        assertEquals("\"'=HYPERLINK(\"\"http://example.com\"\",\"\"x\"\")\"\r\n",
+                write("=HYPERLINK(\"http://example.com\",\"x\")"));
+    }
+
+    @Test
+    void leavesNumbersAndOtherTextAlone() throws IOException {
+        assertEquals("-5,-2.50,a=b,,\r\n", write(-5, new BigDecimal("-2.50"), "a=b", "", null));
+    }
+
+    private static String write(Object... values) throws IOException {
+        StringWriter out = new StringWriter();
+        new CsvWriter(out).writeRow(values);
+        return out.toString();
+    }
+}